@@ -34,7 +34,18 @@ CREATE TABLE `product` (
   `create_user` varchar(255) NOT NULL,
   `update_time` time NOT NULL,
   `update_user` varchar(255) NOT NULL,
+  `fence_token` bigint(20) NOT NULL DEFAULT '0' COMMENT '最近一次写入的分布式锁 fencing token',
   PRIMARY KEY (`id`)
 ) ENGINE=InnoDB AUTO_INCREMENT=100101 DEFAULT CHARSET=utf8mb4;
 
-INSERT INTO `distribute`.`product`(`id`, `product_name`, `price`, `count`, `product_desc`, `create_time`, `create_user`, `update_time`, `update_user`) VALUES (100100, '测试商品', 5, 1, '测试商品', '15:14:43', 'xxx', '15:14:45', 'xxx')
\ No newline at end of file
+INSERT INTO `distribute`.`product`(`id`, `product_name`, `price`, `count`, `product_desc`, `create_time`, `create_user`, `update_time`, `update_user`) VALUES (100100, '测试商品', 5, 1, '测试商品', '15:14:43', 'xxx', '15:14:45', 'xxx');
+
+CREATE TABLE `distribute_lock` (
+  `id` int(11) NOT NULL AUTO_INCREMENT,
+  `business_code` varchar(255) NOT NULL COMMENT '业务代码, 即锁名',
+  `business_name` varchar(255) NOT NULL COMMENT '业务名称',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_business_code` (`business_code`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;
+
+INSERT INTO `distribute`.`distribute_lock`(`business_code`, `business_name`) VALUES ('demo', 'demo');
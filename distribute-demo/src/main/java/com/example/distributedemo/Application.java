@@ -1,8 +1,13 @@
 package com.example.distributedemo;
 
+import com.example.distributelockcore.LocalLockProvider;
+import com.example.distributelockcore.aop.DistributedLockAspect;
 import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.Bean;
+
+import java.util.Collections;
 
 /**
  * @author eddie.lee
@@ -21,4 +26,17 @@ public class Application {
         SpringApplication.run(Application.class, args);
     }
 
+    /**
+     * 单体项目, 只需要 JVM 内互斥; 部署多个节点时换成 distribute-lock 里的 RedisLockProvider 等
+     */
+    @Bean
+    public LocalLockProvider lockProvider() {
+        return new LocalLockProvider();
+    }
+
+    @Bean
+    public DistributedLockAspect distributedLockAspect(LocalLockProvider lockProvider) {
+        return new DistributedLockAspect(lockProvider, Collections.singletonList(lockProvider));
+    }
+
 }
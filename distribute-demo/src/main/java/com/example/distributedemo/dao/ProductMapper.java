@@ -96,7 +96,14 @@ public interface ProductMapper {
      */
     int updateByPrimaryKey(Product record);
 
+    /**
+     * 扣减库存
+     *
+     * @param fencingToken 分布式锁的 fencing token, 为 null 时不校验;
+     *                     比已写入的 token 小时不更新, 返回 0 表示锁已被新的持有者拿走。
+     *                     同一个商品必须始终由同一个锁名保护, 不同锁名的 token 互不可比
+     */
     int updateProductCount(@Param("purchaseProductNum") int purchaseProductNum,
                            @Param("updateUser") String xxx, @Param("updateTime") Date date,
-                           @Param("id") Integer id);
+                           @Param("id") Integer id, @Param("fencingToken") Long fencingToken);
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import com.example.distributedemo.dao.ProductMapper;
 import com.example.distributedemo.model.Order;
 import com.example.distributedemo.model.OrderItem;
 import com.example.distributedemo.model.Product;
+import com.example.distributelockcore.aop.DistributedLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -17,8 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 import javax.annotation.Resource;
 import java.math.BigDecimal;
 import java.util.Date;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * @author eddie.lee
@@ -42,9 +41,6 @@ public class OrderService {
     @Resource
     private ProductMapper productMapper;
 
-    //购买商品id
-    private int purchaseProductId = 100100;
-
     //购买商品数量
     private int purchaseProductNum = 1;
 
@@ -56,45 +52,39 @@ public class OrderService {
     @Autowired
     private TransactionDefinition transactionDefinition;
 
-    /* Java并发包的类 */
-    private Lock lock = new ReentrantLock();
-
+    /**
+     * 同一个商品的下单互斥, 最多等 30 秒; 锁名每个方法只解析一次, 之后按参数直接拼接
+     */
 //    @Transactional(rollbackFor = Exception.class)
-    public Integer createOrder() throws Exception {
-
-        Product product = null;
-
-        lock.lock();
-
-        try {
-            /* 开启 - 手动事务 */
-            TransactionStatus transactionStatusSynchronized = platformTransactionManager.getTransaction(transactionDefinition);
-            product = productMapper.selectByPrimaryKey(purchaseProductId);
-            if (product == null) {
-                /* 手动事务回滚 */
-                platformTransactionManager.rollback(transactionStatusSynchronized);
-                throw new Exception("购买商品：" + purchaseProductId + "不存在");
-            }
-            /* =================计算库存开始================= */
-            // 商品当前库存
-            Integer currentCount = product.getCount();
-            System.out.println(Thread.currentThread().getName() + "库存数：" + currentCount);
-            // 校验库存 （购买数量 大于 商品数量）
-            if (purchaseProductNum > currentCount) {
-                /* 手动事务回滚 */
-                platformTransactionManager.rollback(transactionStatusSynchronized);
-                throw new Exception("商品[" + purchaseProductId + "]仅剩余[" + currentCount + "]件, 无法购买");
-            }
-            productMapper.updateProductCount(purchaseProductNum,
-                    "xxx",
-                    new Date(),
-                    product.getId()
-            );
-            platformTransactionManager.commit(transactionStatusSynchronized);
-        }finally {
-            // 不管是否抛出异常, 都必需要释放锁
-            lock.unlock();
+    @DistributedLock(key = "'order:' + #productId", waitTime = 30)
+    public Integer createOrder(Integer productId) throws Exception {
+
+        /* 开启 - 手动事务 */
+        TransactionStatus transactionStatusSynchronized = platformTransactionManager.getTransaction(transactionDefinition);
+        Product product = productMapper.selectByPrimaryKey(productId);
+        if (product == null) {
+            /* 手动事务回滚 */
+            platformTransactionManager.rollback(transactionStatusSynchronized);
+            throw new Exception("购买商品：" + productId + "不存在");
+        }
+        /* =================计算库存开始================= */
+        // 商品当前库存
+        Integer currentCount = product.getCount();
+        System.out.println(Thread.currentThread().getName() + "库存数：" + currentCount);
+        // 校验库存 （购买数量 大于 商品数量）
+        if (purchaseProductNum > currentCount) {
+            /* 手动事务回滚 */
+            platformTransactionManager.rollback(transactionStatusSynchronized);
+            throw new Exception("商品[" + productId + "]仅剩余[" + currentCount + "]件, 无法购买");
         }
+        // 本地锁的持有者不会因为租期结束丢锁, 不需要 fencing token
+        productMapper.updateProductCount(purchaseProductNum,
+                "xxx",
+                new Date(),
+                product.getId(),
+                null
+        );
+        platformTransactionManager.commit(transactionStatusSynchronized);
 
         // 检索商品的库存
         // 如果商品库存为负数, 抛出异常
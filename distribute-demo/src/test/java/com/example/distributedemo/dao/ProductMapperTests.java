@@ -0,0 +1,55 @@
+package com.example.distributedemo.dao;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.Resource;
+import java.util.Date;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributedemo.dao
+ * @ClassName ProductMapperTests
+ * @description 每个测试结束后回滚, 不影响其他测试用到的库存
+ * @date created in 2026-10-19 10:30
+ * @modified by
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest
+@ActiveProfiles("local")
+@Transactional
+public class ProductMapperTests {
+
+    private static final int PRODUCT_ID = 100100;
+
+    @Resource
+    private ProductMapper productMapper;
+
+    /**
+     * 拿着旧 token 的持有者(租期过期后才恢复执行)写不进去, 新持有者可以继续写
+     */
+    @Test
+    public void testStaleFencingTokenIsRejected() {
+        int count = productMapper.selectByPrimaryKey(PRODUCT_ID).getCount();
+        assertEquals(1, productMapper.updateProductCount(0, "new", new Date(), PRODUCT_ID, 5L));
+        assertEquals(0, productMapper.updateProductCount(1, "stale", new Date(), PRODUCT_ID, 4L));
+        assertEquals(count, productMapper.selectByPrimaryKey(PRODUCT_ID).getCount().intValue());
+        // 同一次持有内的多次写入
+        assertEquals(1, productMapper.updateProductCount(1, "new", new Date(), PRODUCT_ID, 5L));
+        assertEquals(1, productMapper.updateProductCount(0, "newer", new Date(), PRODUCT_ID, 6L));
+        assertEquals(count - 1, productMapper.selectByPrimaryKey(PRODUCT_ID).getCount().intValue());
+    }
+
+    @Test
+    public void testNoFencingToken() {
+        assertEquals(1, productMapper.updateProductCount(0, "xxx", new Date(), PRODUCT_ID, null));
+    }
+
+}
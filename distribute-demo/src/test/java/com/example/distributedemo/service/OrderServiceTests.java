@@ -6,6 +6,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 import org.springframework.test.context.junit4.SpringRunner;
 
@@ -13,6 +14,9 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.CyclicBarrier;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
 
 /**
  * @author eddie.lee
@@ -25,6 +29,7 @@ import java.util.concurrent.Executors;
  */
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("local")
 public class OrderServiceTests {
 
     @Autowired
@@ -34,6 +39,8 @@ public class OrderServiceTests {
     public void testConcurrentOrder() throws InterruptedException {
 
         CountDownLatch countDownLatch = new CountDownLatch(5);
+        // 下单成功的个数
+        AtomicInteger orders = new AtomicInteger();
         // 等待五个线程
         CyclicBarrier cyclicBarrier = new CyclicBarrier(5);
 
@@ -44,8 +51,9 @@ public class OrderServiceTests {
                 try {
                     // cyclicBarrier 作用就是把所有线程同时等待,同时并发.达到多线程目的
                     cyclicBarrier.await();
-                    Integer orderId = orderService.createOrder();
+                    Integer orderId = orderService.createOrder(100100);
                     System.out.println("订单ID：[" + orderId + "]");
+                    orders.incrementAndGet();
                 } catch (Exception e) {
                     e.printStackTrace();
                 } finally {
@@ -57,5 +65,7 @@ public class OrderServiceTests {
         countDownLatch.await();
         // 关闭线程
         es.shutdown();
+        // 商品 100100 库存只有 1 件, 不能超卖
+        assertEquals(1, orders.get());
     }
 }
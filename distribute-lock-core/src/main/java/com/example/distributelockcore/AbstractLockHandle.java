@@ -0,0 +1,60 @@
+package com.example.distributelockcore;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName AbstractLockHandle
+ * @description 锁凭证的公共部分, 保证只释放一次, 子类只负责真正的释放
+ * @date created in 2026-10-19 03:10
+ * @modified by
+ */
+public abstract class AbstractLockHandle implements LockHandle {
+
+    private final String name;
+
+    private final String backend;
+
+    private final long fencingToken;
+
+    private final AtomicBoolean released = new AtomicBoolean();
+
+    protected AbstractLockHandle(String name, String backend, long fencingToken) {
+        this.name = name;
+        this.backend = backend;
+        this.fencingToken = fencingToken;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getBackend() {
+        return backend;
+    }
+
+    @Override
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    @Override
+    public boolean release() {
+        return released.compareAndSet(false, true) && doRelease();
+    }
+
+    /**
+     * 真正的释放, 只调用一次
+     */
+    protected abstract boolean doRelease();
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{name='" + name + "', backend='" + backend + "', fencingToken=" + fencingToken + "}";
+    }
+
+}
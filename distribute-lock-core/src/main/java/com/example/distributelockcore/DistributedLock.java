@@ -0,0 +1,35 @@
+package com.example.distributelockcore;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName DistributedLock
+ * @description 一把分布式锁, 由 {@link LockProvider} 按锁名创建, 各个实现的等待语义相同：
+ *              waitTime <= 0 时只尝试一次, 否则最多等待 waitTime, 等不到返回 null 而不是抛异常;
+ *              等待期间被中断抛 InterruptedException; 后端出错抛 {@link LockException}。
+ *              leaseTime > 0 时, 持有者没有释放(如进程挂掉)的锁最晚在租期结束后释放;
+ *              leaseTime <= 0 时使用实现的默认值。没有租期概念的后端(ZooKeeper 的临时节点、MySQL 的行锁)
+ *              由会话、连接断开释放, 见各个实现
+ * @date created in 2026-10-19 03:10
+ * @modified by
+ */
+public interface DistributedLock {
+
+    /**
+     * 锁名
+     */
+    String getName();
+
+    /**
+     * 在 waitTime 内获取锁
+     *
+     * @param waitTime  最长等待时间, <= 0 表示只尝试一次
+     * @param leaseTime 租期, <= 0 表示使用实现的默认值
+     * @return 锁凭证, 用它释放; 没有抢到时为 null
+     */
+    LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException;
+
+}
@@ -0,0 +1,96 @@
+package com.example.distributelockcore;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LocalLockProvider
+ * @description 只在本 JVM 内互斥的实现, 给单体应用(distribute-demo)和测试用, 部署多个节点时换成其他后端。
+ *              与其他后端一样不可重入, 可以在别的线程释放; 进程内不存在持有者挂掉的情况, 忽略 leaseTime。
+ *              没有人持有、也没有人在等的锁立即移除, 锁名再多也不会一直占内存
+ * @date created in 2026-10-19 06:00
+ * @modified by
+ */
+public class LocalLockProvider implements LockProvider {
+
+    public static final String BACKEND = "local";
+
+    private final Map<String, Entry> locks = new ConcurrentHashMap<>();
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                Entry entry = locks.compute(name, (key, current) -> {
+                    Entry result = current != null ? current : new Entry();
+                    result.users++;
+                    return result;
+                });
+                boolean acquired = false;
+                try {
+                    acquired = waitTime > 0 ? entry.permit.tryAcquire(waitTime, unit) : entry.permit.tryAcquire();
+                } finally {
+                    if (!acquired) {
+                        leave(name);
+                    }
+                }
+                return acquired ? new Handle(name, entry) : null;
+            }
+        };
+    }
+
+    /**
+     * 当前持有或等待中的锁个数
+     */
+    public int size() {
+        return locks.size();
+    }
+
+    private void leave(String name) {
+        locks.computeIfPresent(name, (key, entry) -> --entry.users == 0 ? null : entry);
+    }
+
+    private static class Entry {
+
+        private final Semaphore permit = new Semaphore(1);
+
+        /**
+         * 持有者和等待者的个数, 只在 compute 里修改
+         */
+        private int users;
+    }
+
+    private class Handle extends AbstractLockHandle {
+
+        private final Entry entry;
+
+        Handle(String name, Entry entry) {
+            super(name, BACKEND, -1);
+            this.entry = entry;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            entry.permit.release();
+            leave(getName());
+            return true;
+        }
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.distributelockcore;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockException
+ * @description 后端出错(连接失败、锁记录不存在等), 与"等待超时没有抢到"区分开, 后者返回 null
+ * @date created in 2026-10-19 03:10
+ * @modified by
+ */
+public class LockException extends RuntimeException {
+
+    public LockException(String message) {
+        super(message);
+    }
+
+    public LockException(String message, Throwable cause) {
+        super(message, cause);
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.distributelockcore;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockHandle
+ * @description 一次加锁的凭证, 释放只能通过它, 可以配合 try-with-resources 使用
+ * @date created in 2026-10-19 03:10
+ * @modified by
+ */
+public interface LockHandle extends AutoCloseable {
+
+    String getName();
+
+    /**
+     * 锁的实现, 如 redis、zookeeper
+     */
+    String getBackend();
+
+    /**
+     * fencing token, 同一把锁每次加锁单调递增; 后端不发放时为 -1
+     */
+    long getFencingToken();
+
+    /**
+     * 释放锁, 重复调用只释放一次
+     *
+     * @return 释放时是否仍然持有(没有因租期结束等原因丢失)
+     */
+    boolean release();
+
+    @Override
+    default void close() {
+        release();
+    }
+
+}
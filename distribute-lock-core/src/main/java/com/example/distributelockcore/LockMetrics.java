@@ -0,0 +1,215 @@
+package com.example.distributelockcore;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockMetrics
+ * @description 锁的监控指标(Micrometer), 标签为 backend(redis、zookeeper、redisson 等)和键前缀：
+ *              lock.acquire 加锁耗时、lock.attempts 加锁次数(result=success/fail/timeout)、lock.hold 持有时间、
+ *              lock.holders / lock.waiters 本 JVM 当前持有、等待的数量。
+ *              键前缀为第一个 : 或 / 之前的部分(order:1001 -> order), 每个 backend 最多 100 个, 超出的记为 other;
+ *              默认注册到 Metrics.globalRegistry, spring boot 会把 prometheus 等注册表加进去。
+ *              各后端模块共用这一份, 指标名和标签保持一致; micrometer 由使用方提供
+ * @date created in 2026-10-19 00:40
+ * @modified by
+ */
+public class LockMetrics {
+
+    public static final String RESULT_SUCCESS = "success";
+
+    /**
+     * 不等待时没抢到
+     */
+    public static final String RESULT_FAIL = "fail";
+
+    /**
+     * 等到超时也没抢到
+     */
+    public static final String RESULT_TIMEOUT = "timeout";
+
+    private static final int MAX_PREFIXES = 100;
+
+    private static final String OTHER_PREFIX = "other";
+
+    private static final LockMetrics GLOBAL = new LockMetrics(Metrics.globalRegistry);
+
+    private final MeterRegistry registry;
+
+    /**
+     * backend -> 键前缀 -> 指标
+     */
+    private final Map<String, Map<String, Meters>> meters = new ConcurrentHashMap<>();
+
+    public LockMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    public static LockMetrics global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 开始加锁, 之后必须调用 {@link Sample#finish} 之一
+     */
+    public Sample startAcquire(String backend, String key) {
+        Meters meters = meters(backend, LockNames.prefix(key));
+        meters.waiters.incrementAndGet();
+        return new Sample(meters, System.nanoTime());
+    }
+
+    private Meters meters(String backend, String prefix) {
+        Map<String, Meters> byPrefix = meters.computeIfAbsent(backend, b -> new ConcurrentHashMap<>());
+        Meters found = byPrefix.get(prefix);
+        if (found != null) {
+            return found;
+        }
+        if (byPrefix.size() >= MAX_PREFIXES) {
+            prefix = OTHER_PREFIX;
+        }
+        return byPrefix.computeIfAbsent(prefix, p -> new Meters(registry, Tags.of("backend", backend, "prefix", p)));
+    }
+
+    /**
+     * 一次加锁、持有的计时
+     */
+    public static final class Sample {
+
+        private final Meters meters;
+
+        private final long startedAt;
+
+        private long acquiredAt;
+
+        private boolean finished;
+
+        private boolean held;
+
+        private Sample(Meters meters, long startedAt) {
+            this.meters = meters;
+            this.startedAt = startedAt;
+        }
+
+        /**
+         * 加锁结束
+         *
+         * @param acquired 是否抢到锁
+         * @param waited   是否等待过, 没抢到时区分 fail 和 timeout
+         */
+        public void finish(boolean acquired, boolean waited) {
+            if (acquired) {
+                acquired();
+            } else if (waited) {
+                timedOut();
+            } else {
+                failed();
+            }
+        }
+
+        public void acquired() {
+            long now = System.nanoTime();
+            if (stop(RESULT_SUCCESS, now)) {
+                meters.holders.incrementAndGet();
+                acquiredAt = now;
+                held = true;
+            }
+        }
+
+        public void failed() {
+            stop(RESULT_FAIL, System.nanoTime());
+        }
+
+        public void timedOut() {
+            stop(RESULT_TIMEOUT, System.nanoTime());
+        }
+
+        /**
+         * 释放锁, 记录持有时间; 没有抢到锁时忽略
+         */
+        public void released() {
+            if (!held) {
+                return;
+            }
+            held = false;
+            meters.hold.record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+            meters.holders.decrementAndGet();
+        }
+
+        private boolean stop(String result, long now) {
+            if (finished) {
+                return false;
+            }
+            finished = true;
+            meters.waiters.decrementAndGet();
+            meters.acquire(result).record(now - startedAt, TimeUnit.NANOSECONDS);
+            meters.attempts(result).increment();
+            return true;
+        }
+    }
+
+    private static final class Meters {
+
+        private final Timer acquireSuccess;
+
+        private final Timer acquireFail;
+
+        private final Timer acquireTimeout;
+
+        private final Counter attemptsSuccess;
+
+        private final Counter attemptsFail;
+
+        private final Counter attemptsTimeout;
+
+        private final Timer hold;
+
+        private final AtomicInteger holders = new AtomicInteger();
+
+        private final AtomicInteger waiters = new AtomicInteger();
+
+        private Meters(MeterRegistry registry, Tags tags) {
+            acquireSuccess = acquireTimer(registry, tags, RESULT_SUCCESS);
+            acquireFail = acquireTimer(registry, tags, RESULT_FAIL);
+            acquireTimeout = acquireTimer(registry, tags, RESULT_TIMEOUT);
+            attemptsSuccess = attemptsCounter(registry, tags, RESULT_SUCCESS);
+            attemptsFail = attemptsCounter(registry, tags, RESULT_FAIL);
+            attemptsTimeout = attemptsCounter(registry, tags, RESULT_TIMEOUT);
+            hold = Timer.builder("lock.hold").description("锁的持有时间").tags(tags).register(registry);
+            Gauge.builder("lock.holders", holders, AtomicInteger::get).description("当前持有锁的数量")
+                    .tags(tags).register(registry);
+            Gauge.builder("lock.waiters", waiters, AtomicInteger::get).description("当前等待锁的数量")
+                    .tags(tags).register(registry);
+        }
+
+        private Timer acquire(String result) {
+            return RESULT_SUCCESS.equals(result) ? acquireSuccess : RESULT_FAIL.equals(result) ? acquireFail : acquireTimeout;
+        }
+
+        private Counter attempts(String result) {
+            return RESULT_SUCCESS.equals(result) ? attemptsSuccess : RESULT_FAIL.equals(result) ? attemptsFail : attemptsTimeout;
+        }
+
+        private static Timer acquireTimer(MeterRegistry registry, Tags tags, String result) {
+            return Timer.builder("lock.acquire").description("加锁耗时").tags(tags).tag("result", result)
+                    .publishPercentileHistogram().register(registry);
+        }
+
+        private static Counter attemptsCounter(MeterRegistry registry, Tags tags, String result) {
+            return Counter.builder("lock.attempts").description("加锁次数").tags(tags).tag("result", result)
+                    .register(registry);
+        }
+    }
+
+}
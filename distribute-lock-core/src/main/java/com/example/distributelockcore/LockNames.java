@@ -0,0 +1,32 @@
+package com.example.distributelockcore;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockNames
+ * @description 锁名的公共处理。
+ *              前缀在路由、指标标签、自适应租期里都要用到, 规则必须一致：
+ *              同一把锁在 redis 里叫 order:1001, 在 zookeeper 里叫 /order/1001, 都应归到 order 下
+ * @date created in 2026-10-19 12:50
+ * @modified by
+ */
+public final class LockNames {
+
+    private LockNames() {
+    }
+
+    /**
+     * 锁名前缀：第一个 : 或 / 之前的部分, 忽略开头的 /; 都没有时为整个锁名
+     * (order:1001 -> order, /order/1001 -> order, smsKey -> smsKey)
+     */
+    public static String prefix(String name) {
+        int start = name.startsWith("/") ? 1 : 0;
+        int end = start;
+        while (end < name.length() && name.charAt(end) != ':' && name.charAt(end) != '/') {
+            end++;
+        }
+        return end > start ? name.substring(start, end) : name;
+    }
+
+}
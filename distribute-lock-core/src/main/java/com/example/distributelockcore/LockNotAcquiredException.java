@@ -0,0 +1,33 @@
+package com.example.distributelockcore;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockNotAcquiredException
+ * @description 等待时间内没有抢到锁(或等待时被中断), 方法没有执行; 由 @DistributedLock 这类不能返回 null 的调用方抛出
+ * @date created in 2026-10-19 06:00
+ * @modified by
+ */
+public class LockNotAcquiredException extends RuntimeException {
+
+    private final String name;
+
+    public LockNotAcquiredException(String name) {
+        super("没有抢到锁：" + name);
+        this.name = name;
+    }
+
+    public LockNotAcquiredException(String name, Throwable cause) {
+        super("没有抢到锁：" + name, cause);
+        this.name = name;
+    }
+
+    /**
+     * 锁名
+     */
+    public String getName() {
+        return name;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.distributelockcore;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockProvider
+ * @description 按锁名创建 {@link DistributedLock}, 每种后端(redis、zookeeper、curator、redisson、mysql)一个实现;
+ *              调用方只依赖这个接口, 换后端只需要换注入的实现或 {@link RoutingLockProvider} 的配置
+ * @date created in 2026-10-19 03:10
+ * @modified by
+ */
+public interface LockProvider {
+
+    /**
+     * 后端名称, 与指标的 backend 标签一致
+     */
+    String getBackend();
+
+    DistributedLock getLock(String name);
+
+}
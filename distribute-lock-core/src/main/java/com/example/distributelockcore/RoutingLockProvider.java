@@ -0,0 +1,82 @@
+package com.example.distributelockcore;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName RoutingLockProvider
+ * @description 按锁名前缀选择后端：热点前缀(如 order)走最快的后端, 其余走默认后端, 只改配置不改调用方。
+ *              前缀见 {@link LockNames#prefix}, 与指标的 prefix 标签一致。
+ *              同一个前缀的所有节点必须路由到同一个后端, 否则不同后端上的锁互不排斥; 切换后端时先停掉旧配置的节点
+ * @date created in 2026-10-19 03:20
+ * @modified by
+ */
+public class RoutingLockProvider implements LockProvider {
+
+    public static final String BACKEND = "routing";
+
+    private final LockProvider defaultProvider;
+
+    /**
+     * 锁名前缀 -> 后端
+     */
+    private final Map<String, LockProvider> routes = new ConcurrentHashMap<>();
+
+    public RoutingLockProvider(LockProvider defaultProvider) {
+        this.defaultProvider = defaultProvider;
+    }
+
+    /**
+     * 按配置组装
+     *
+     * @param providers      可用的后端
+     * @param defaultBackend 默认后端名称
+     * @param routes         锁名前缀 -> 后端名称
+     */
+    public static RoutingLockProvider of(Collection<? extends LockProvider> providers, String defaultBackend,
+                                         Map<String, String> routes) {
+        Map<String, LockProvider> byBackend = new HashMap<>();
+        for (LockProvider provider : providers) {
+            byBackend.put(provider.getBackend(), provider);
+        }
+        RoutingLockProvider routing = new RoutingLockProvider(find(byBackend, defaultBackend));
+        routes.forEach((prefix, backend) -> routing.route(prefix, find(byBackend, backend)));
+        return routing;
+    }
+
+    private static LockProvider find(Map<String, LockProvider> byBackend, String backend) {
+        LockProvider provider = byBackend.get(backend);
+        if (provider == null) {
+            throw new IllegalArgumentException("没有这个锁后端：" + backend + ", 可用的有：" + byBackend.keySet());
+        }
+        return provider;
+    }
+
+    /**
+     * 前缀为 prefix 的锁改走 provider
+     */
+    public RoutingLockProvider route(String prefix, LockProvider provider) {
+        routes.put(prefix, provider);
+        return this;
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return providerFor(name).getLock(name);
+    }
+
+    public LockProvider providerFor(String name) {
+        return routes.getOrDefault(LockNames.prefix(name), defaultProvider);
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.example.distributelockcore.aop;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore.aop
+ * @ClassName DistributedLock
+ * @description 方法执行期间持有一把分布式锁, 由 {@link DistributedLockAspect} 实现, 代替手写的 try-with-resources：
+ *              <pre>
+ *              &#64;DistributedLock(key = "'order:' + #productId", waitTime = 30)
+ *              public Integer createOrder(Integer productId)
+ *              </pre>
+ *              等待语义与 {@link com.example.distributelockcore.DistributedLock#tryLock} 相同, 没有抢到锁时抛
+ *              {@link com.example.distributelockcore.LockNotAcquiredException}, 方法不执行
+ * @date created in 2026-10-19 06:00
+ * @modified by
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface DistributedLock {
+
+    /**
+     * 锁名, SpEL 表达式, 方法参数用 #参数名 或 #p0、#a0 引用。
+     * 每个方法只解析一次, 并编译成字节码(SpelCompilerMode.IMMEDIATE); 编译后的代码按第一次调用时参数的实际类型转换,
+     * 参数声明为 Object 等运行时类型会变的, 在表达式里先转成字符串(如 #id.toString())
+     */
+    String key();
+
+    /**
+     * 最长等待时间, <= 0 表示只尝试一次
+     */
+    long waitTime() default 0;
+
+    /**
+     * 租期, <= 0 表示使用后端的默认值
+     */
+    long leaseTime() default -1;
+
+    TimeUnit unit() default TimeUnit.SECONDS;
+
+    /**
+     * 后端名称(redis、zookeeper、curator、redisson、mysql、local), 为空时使用切面的默认 LockProvider
+     */
+    String backend() default "";
+
+}
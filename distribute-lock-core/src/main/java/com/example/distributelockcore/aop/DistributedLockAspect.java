@@ -0,0 +1,141 @@
+package com.example.distributelockcore.aop;
+
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockNotAcquiredException;
+import com.example.distributelockcore.LockProvider;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.MethodClassKey;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore.aop
+ * @ClassName DistributedLockAspect
+ * @description {@link DistributedLock} 的切面, 注册成 bean 即可(需要 spring-boot-starter-aop)。
+ *              每个方法第一次调用时读注解、解析锁名表达式、选好后端, 缓存起来, 之后只计算锁名和加锁。
+ *              默认排在 @Transactional(默认 LOWEST_PRECEDENCE) 之外：事务提交之后才释放锁, 下一个持有者能读到提交的数据。
+ *              不要用 HIGHEST_PRECEDENCE, 会排到 ExposeInvocationInterceptor 前面, 每次调用匹配切点都要抛一次异常
+ * @date created in 2026-10-19 06:20
+ * @modified by
+ */
+@Aspect
+public class DistributedLockAspect implements Ordered {
+
+    private final LockProvider defaultProvider;
+
+    /**
+     * 后端名称 -> 实现
+     */
+    private final Map<String, LockProvider> providers = new HashMap<>();
+
+    private final Map<MethodClassKey, LockPoint> lockPoints = new ConcurrentHashMap<>();
+
+    private int order = Ordered.LOWEST_PRECEDENCE - 100;
+
+    /**
+     * @param defaultProvider 注解没有指定 backend 时使用, 一般是 RoutingLockProvider
+     * @param providers       注解可以通过 backend 指定的后端
+     */
+    public DistributedLockAspect(LockProvider defaultProvider, Collection<? extends LockProvider> providers) {
+        this.defaultProvider = defaultProvider;
+        for (LockProvider provider : providers) {
+            this.providers.put(provider.getBackend(), provider);
+        }
+    }
+
+    @Around("@annotation(com.example.distributelockcore.aop.DistributedLock)")
+    public Object lock(ProceedingJoinPoint joinPoint) throws Throwable {
+        LockPoint point = lockPoint(joinPoint);
+        String key = point.key.evaluate(joinPoint.getArgs());
+        LockHandle handle;
+        try {
+            handle = point.provider.getLock(key).tryLock(point.waitTime, point.leaseTime, point.unit);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new LockNotAcquiredException(key, e);
+        }
+        if (handle == null) {
+            throw new LockNotAcquiredException(key);
+        }
+        try (LockHandle ignored = handle) {
+            return joinPoint.proceed();
+        }
+    }
+
+    private LockPoint lockPoint(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Class<?> targetClass = AopUtils.getTargetClass(joinPoint.getTarget());
+        MethodClassKey cacheKey = new MethodClassKey(method, targetClass);
+        LockPoint point = lockPoints.get(cacheKey);
+        // 先 get：JDK 8 的 computeIfAbsent 在 key 已存在时也会加锁
+        return point != null ? point : lockPoints.computeIfAbsent(cacheKey, k -> parse(method, targetClass));
+    }
+
+    private LockPoint parse(Method method, Class<?> targetClass) {
+        Method specificMethod = AopUtils.getMostSpecificMethod(method, targetClass);
+        DistributedLock annotation = AnnotatedElementUtils.findMergedAnnotation(specificMethod, DistributedLock.class);
+        if (annotation == null) {
+            annotation = AnnotatedElementUtils.findMergedAnnotation(method, DistributedLock.class);
+        }
+        if (annotation == null) {
+            throw new IllegalStateException("方法上没有 @DistributedLock：" + method);
+        }
+        LockProvider provider = defaultProvider;
+        if (!annotation.backend().isEmpty()) {
+            provider = providers.get(annotation.backend());
+            if (provider == null) {
+                throw new IllegalArgumentException("没有这个锁后端：" + annotation.backend() + ", 可用的有："
+                        + providers.keySet() + ", 方法：" + specificMethod);
+            }
+        }
+        return new LockPoint(new LockKeyExpression(annotation.key(), specificMethod), provider,
+                annotation.waitTime(), annotation.leaseTime(), annotation.unit());
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+
+    public void setOrder(int order) {
+        this.order = order;
+    }
+
+    /**
+     * 一个方法上解析好的注解
+     */
+    private static class LockPoint {
+
+        private final LockKeyExpression key;
+
+        private final LockProvider provider;
+
+        private final long waitTime;
+
+        private final long leaseTime;
+
+        private final TimeUnit unit;
+
+        LockPoint(LockKeyExpression key, LockProvider provider, long waitTime, long leaseTime, TimeUnit unit) {
+            this.key = key;
+            this.provider = provider;
+            this.waitTime = waitTime;
+            this.leaseTime = leaseTime;
+            this.unit = unit;
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.example.distributelockcore;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockMetricsTests
+ * @description
+ * @date created in 2026-10-19 01:00
+ * @modified by
+ */
+public class LockMetricsTests {
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private final LockMetrics metrics = new LockMetrics(registry);
+
+    @Test
+    public void testAcquireAndHold() {
+        LockMetrics.Sample first = metrics.startAcquire("redis", "order:1001");
+        LockMetrics.Sample second = metrics.startAcquire("redis", "order:1002");
+        assertEquals(2, gauge("lock.waiters", "order"), 0);
+
+        first.finish(true, true);
+        assertEquals(1, gauge("lock.holders", "order"), 0);
+        assertEquals(1, gauge("lock.waiters", "order"), 0);
+        second.finish(false, true);
+        // 重复结束、没抢到锁时释放都会被忽略
+        second.acquired();
+        second.released();
+        first.released();
+        first.released();
+
+        assertEquals(0, gauge("lock.holders", "order"), 0);
+        assertEquals(0, gauge("lock.waiters", "order"), 0);
+        assertEquals(1, registry.get("lock.acquire").tag("prefix", "order").tag("result", LockMetrics.RESULT_SUCCESS).timer().count());
+        assertEquals(1, registry.get("lock.attempts").tag("prefix", "order").tag("result", LockMetrics.RESULT_TIMEOUT).counter().count(), 0);
+        assertEquals(0, registry.get("lock.attempts").tag("prefix", "order").tag("result", LockMetrics.RESULT_FAIL).counter().count(), 0);
+        assertEquals(1, registry.get("lock.hold").tag("backend", "redis").tag("prefix", "order").timer().count());
+    }
+
+    @Test
+    public void testPrefixesAreBounded() {
+        for (int i = 0; i < 150; i++) {
+            metrics.startAcquire("redis", "key" + i).failed();
+        }
+        // 100 个前缀 + other
+        assertEquals(101, registry.get("lock.hold").timers().size());
+        assertEquals(50, registry.get("lock.attempts").tag("prefix", "other").tag("result", LockMetrics.RESULT_FAIL).counter().count(), 0);
+    }
+
+    private double gauge(String name, String prefix) {
+        return registry.get(name).tag("prefix", prefix).gauge().value();
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.distributelockcore;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName LockNamesTests
+ * @description
+ * @date created in 2026-10-19 12:55
+ * @modified by
+ */
+public class LockNamesTests {
+
+    @Test
+    public void testPrefix() {
+        assertEquals("order", LockNames.prefix("order:1001"));
+        assertEquals("order", LockNames.prefix("order/1001"));
+        assertEquals("order", LockNames.prefix("/order"));
+        assertEquals("order", LockNames.prefix("/order/order_0000000001"));
+        assertEquals("eddieKey", LockNames.prefix("eddieKey"));
+        assertEquals("/", LockNames.prefix("/"));
+    }
+
+}
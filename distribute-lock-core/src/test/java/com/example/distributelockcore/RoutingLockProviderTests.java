@@ -0,0 +1,111 @@
+package com.example.distributelockcore;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore
+ * @ClassName RoutingLockProviderTests
+ * @description
+ * @date created in 2026-10-19 03:25
+ * @modified by
+ */
+public class RoutingLockProviderTests {
+
+    private final InMemoryProvider redis = new InMemoryProvider("redis");
+
+    private final InMemoryProvider mysql = new InMemoryProvider("mysql");
+
+    @Test
+    public void testRoutesByPrefix() throws InterruptedException {
+        RoutingLockProvider routing = RoutingLockProvider.of(Arrays.asList(redis, mysql), "mysql",
+                Collections.singletonMap("order", "redis"));
+
+        try (LockHandle handle = routing.getLock("order:1001").tryLock(0, 10, TimeUnit.SECONDS)) {
+            assertEquals("redis", handle.getBackend());
+        }
+        try (LockHandle handle = routing.getLock("/order/1001").tryLock(0, 10, TimeUnit.SECONDS)) {
+            assertEquals("redis", handle.getBackend());
+        }
+        try (LockHandle handle = routing.getLock("demo").tryLock(0, 10, TimeUnit.SECONDS)) {
+            assertEquals("mysql", handle.getBackend());
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBackend() {
+        RoutingLockProvider.of(Collections.singletonList(redis), "zookeeper", Collections.emptyMap());
+    }
+
+    /**
+     * 重复释放只释放一次
+     */
+    @Test
+    public void testReleaseOnce() throws InterruptedException {
+        LockHandle handle = redis.getLock("order").tryLock(0, 10, TimeUnit.SECONDS);
+        assertNull(redis.getLock("order").tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(handle.release());
+        assertFalse(handle.release());
+        handle.close();
+        assertEquals(1, redis.releases.get());
+    }
+
+    /**
+     * 只在本 JVM 内互斥的替身
+     */
+    private static class InMemoryProvider implements LockProvider {
+
+        private final String backend;
+
+        private final Set<String> held = ConcurrentHashMap.newKeySet();
+
+        private final AtomicInteger releases = new AtomicInteger();
+
+        InMemoryProvider(String backend) {
+            this.backend = backend;
+        }
+
+        @Override
+        public String getBackend() {
+            return backend;
+        }
+
+        @Override
+        public DistributedLock getLock(String name) {
+            return new DistributedLock() {
+                @Override
+                public String getName() {
+                    return name;
+                }
+
+                @Override
+                public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) {
+                    if (!held.add(name)) {
+                        return null;
+                    }
+                    return new AbstractLockHandle(name, backend, -1) {
+                        @Override
+                        protected boolean doRelease() {
+                            releases.incrementAndGet();
+                            return held.remove(name);
+                        }
+                    };
+                }
+            };
+        }
+    }
+
+}
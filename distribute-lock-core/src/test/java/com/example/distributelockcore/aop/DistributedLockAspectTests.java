@@ -0,0 +1,193 @@
+package com.example.distributelockcore.aop;
+
+import com.example.distributelockcore.LocalLockProvider;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockNotAcquiredException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore.aop
+ * @ClassName DistributedLockAspectTests
+ * @description
+ * @date created in 2026-10-19 06:30
+ * @modified by
+ */
+public class DistributedLockAspectTests {
+
+    private final LocalLockProvider local = new LocalLockProvider();
+
+    private final LocalLockProvider other = new LocalLockProvider() {
+        @Override
+        public String getBackend() {
+            return "other";
+        }
+    };
+
+    private OrderService orderService;
+
+    @Before
+    public void setUp() {
+        AspectJProxyFactory factory = new AspectJProxyFactory(new OrderService(local, other));
+        factory.addAspect(new DistributedLockAspect(local, Arrays.asList(local, other)));
+        orderService = factory.getProxy();
+    }
+
+    /**
+     * 方法执行期间持有按参数算出的锁, 返回后释放; 多次调用结果一致(第三次起执行的是编译后的表达式)
+     */
+    @Test
+    public void testKeyFromArguments() throws InterruptedException {
+        for (int i = 0; i < 5; i++) {
+            assertEquals("order:100100", orderService.createOrder(100100));
+            assertEquals(0, local.size());
+        }
+        assertEquals("order:100100:2", orderService.createOrderItem(100100, new int[2]));
+    }
+
+    @Test
+    public void testBackend() throws InterruptedException {
+        assertEquals("order:1", orderService.createOrderOnOther(1));
+        assertEquals(0, other.size());
+    }
+
+    /**
+     * 没有抢到锁时方法不执行
+     */
+    @Test
+    public void testNotAcquired() throws InterruptedException {
+        try (LockHandle handle = local.getLock("order:100100").tryLock(0, 0, TimeUnit.SECONDS)) {
+            assertNotNull(handle);
+            orderService.createOrder(100100);
+            fail();
+        } catch (LockNotAcquiredException e) {
+            assertEquals("order:100100", e.getName());
+        }
+        assertFalse(orderService.isInvoked());
+    }
+
+    /**
+     * 方法抛异常时也释放锁
+     */
+    @Test
+    public void testReleasedOnException() throws InterruptedException {
+        try {
+            orderService.createOrder(-1);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertTrue(orderService.isInvoked());
+        }
+        assertEquals(0, local.size());
+        assertNotNull(local.getLock("order:-1").tryLock(0, 0, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 直接拼接的表达式和交给 SpEL 的表达式, 结果都与 SpEL 解释执行相同(多次求值, 包括编译后的)
+     */
+    @Test
+    public void testKeyExpression() throws NoSuchMethodException {
+        Method method = OrderService.class.getMethod("createOrderItem", int.class, int[].class);
+        Object[] args = {100100, new int[2]};
+        String[] sources = {"'order:' + #productId", "'order:' + #p0 + ':' + #items + ':' + #a1.length",
+                "'order:' + #items", "'order:' + (#productId + 1)", "'order:' + #productId.toString()", "#productId + 1", "'order'"};
+        for (String source : sources) {
+            Object expected = new SpelExpressionParser().parseExpression(source)
+                    .getValue(new MethodBasedEvaluationContext(null, method, args, new DefaultParameterNameDiscoverer()));
+            LockKeyExpression expression = new LockKeyExpression(source, method);
+            for (int i = 0; i < 3; i++) {
+                assertEquals(source, String.valueOf(expected), expression.evaluate(args));
+            }
+        }
+    }
+
+    /**
+     * 引用了不存在的参数(拼错了参数名)时创建就报错, 而不是每次都算出 order:null
+     */
+    @Test
+    public void testUnknownVariable() throws NoSuchMethodException {
+        Method method = OrderService.class.getMethod("createOrderItem", int.class, int[].class);
+        for (String source : new String[]{"'order:' + #productID", "'order:' + #p2", "'order:' + (#productId + #count)"}) {
+            try {
+                new LockKeyExpression(source, method);
+                fail(source);
+            } catch (IllegalArgumentException e) {
+                assertTrue(e.getMessage(), e.getMessage().contains("不存在的参数"));
+            }
+        }
+        assertEquals("order:100100", new LockKeyExpression("'order:' + #productId", method).evaluate(new Object[]{100100, null}));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testUnknownBackend() {
+        orderService.createOrderOnUnknown(1);
+    }
+
+    public static class OrderService {
+
+        private final LocalLockProvider local;
+
+        private final LocalLockProvider other;
+
+        private volatile boolean invoked;
+
+        OrderService(LocalLockProvider local, LocalLockProvider other) {
+            this.local = local;
+            this.other = other;
+        }
+
+        @DistributedLock(key = "'order:' + #productId")
+        public String createOrder(int productId) throws InterruptedException {
+            invoked = true;
+            if (productId < 0) {
+                throw new IllegalArgumentException("商品不存在：" + productId);
+            }
+            return heldKey(local, "order:" + productId);
+        }
+
+        @DistributedLock(key = "'order:' + #p0 + ':' + #a1.length", waitTime = 100, unit = TimeUnit.MILLISECONDS)
+        public String createOrderItem(int productId, int[] items) throws InterruptedException {
+            return heldKey(local, "order:" + productId + ":" + items.length);
+        }
+
+        @DistributedLock(key = "'order:' + #productId", backend = "other")
+        public String createOrderOnOther(int productId) throws InterruptedException {
+            assertEquals(0, local.size());
+            return heldKey(other, "order:" + productId);
+        }
+
+        @DistributedLock(key = "'order:' + #productId", backend = "zookeeper")
+        public void createOrderOnUnknown(int productId) {
+        }
+
+        public boolean isInvoked() {
+            return invoked;
+        }
+
+        /**
+         * 确认 provider 上锁名为 key 的锁正被持有
+         */
+        private String heldKey(LocalLockProvider provider, String key) throws InterruptedException {
+            assertEquals(1, provider.size());
+            assertNull(provider.getLock(key).tryLock(0, 0, TimeUnit.SECONDS));
+            return key;
+        }
+    }
+
+}
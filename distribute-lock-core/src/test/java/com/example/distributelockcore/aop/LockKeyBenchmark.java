@@ -0,0 +1,164 @@
+package com.example.distributelockcore.aop;
+
+import com.example.distributelockcore.LocalLockProvider;
+import com.example.distributelockcore.LockHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelockcore.aop
+ * @ClassName LockKeyBenchmark
+ * @description 锁名的计算开销：handwritten 为手写拼接, expression 为 LockKeyExpression(解析一次、编译执行),
+ *              interpreted 为解析一次但解释执行、每次新建 StandardEvaluationContext,
+ *              parsePerCall 为每次都解析表达式、用 MethodBasedEvaluationContext 的写法;
+ *              manualLock 与 annotatedLock 对比整个切面(本地锁)相对手写 try-with-resources 的开销。
+ *              运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...LockKeyBenchmark,
+ *              或者在 IDE 里直接运行 main
+ * @date created in 2026-10-19 06:40
+ * @modified by
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LockKeyBenchmark {
+
+    private static final String KEY = "'order:' + #productId";
+
+    private final Object[] args = {100100};
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+
+    private final DefaultParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+
+    private final LocalLockProvider provider = new LocalLockProvider();
+
+    private Method method;
+
+    private LockKeyExpression expression;
+
+    private Expression interpreted;
+
+    private AnnotationConfigApplicationContext context;
+
+    private OrderService orderService;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        method = OrderService.class.getMethod("createOrder", Integer.class);
+        expression = new LockKeyExpression(KEY, method);
+        interpreted = parser.parseExpression(KEY);
+        context = new AnnotationConfigApplicationContext(Config.class);
+        orderService = context.getBean(OrderService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String handwritten() {
+        return "order:" + args[0];
+    }
+
+    @Benchmark
+    public String expression() {
+        return expression.evaluate(args);
+    }
+
+    @Benchmark
+    public Object interpreted() {
+        StandardEvaluationContext context = new StandardEvaluationContext();
+        context.setVariable("productId", args[0]);
+        return interpreted.getValue(context);
+    }
+
+    @Benchmark
+    public Object parsePerCall() {
+        return parser.parseExpression(KEY)
+                .getValue(new MethodBasedEvaluationContext(null, method, args, parameterNames));
+    }
+
+    @Benchmark
+    public Integer manualLock() throws InterruptedException {
+        Integer productId = (Integer) args[0];
+        try (LockHandle ignored = provider.getLock("order:" + productId).tryLock(0, 0, TimeUnit.SECONDS)) {
+            return productId;
+        }
+    }
+
+    @Benchmark
+    public Integer annotatedLock() {
+        return orderService.createOrder((Integer) args[0]);
+    }
+
+    /**
+     * 与 spring boot 的 AopAutoConfiguration 相同, 代理目标类
+     */
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class Config {
+
+        @Bean
+        public LocalLockProvider lockProvider() {
+            return new LocalLockProvider();
+        }
+
+        @Bean
+        public DistributedLockAspect distributedLockAspect(LocalLockProvider lockProvider) {
+            return new DistributedLockAspect(lockProvider, Collections.singletonList(lockProvider));
+        }
+
+        @Bean
+        public OrderService orderService() {
+            return new OrderService();
+        }
+    }
+
+    public static class OrderService {
+
+        @DistributedLock(key = KEY)
+        public Integer createOrder(Integer productId) {
+            return productId;
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(LockKeyBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
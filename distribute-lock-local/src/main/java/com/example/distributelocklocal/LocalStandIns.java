@@ -0,0 +1,172 @@
+package com.example.distributelocklocal;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.test.TestingServer;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.Profiles;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelocklocal
+ * @ClassName LocalStandIns
+ * @description local 环境：激活 local profile 时在进程内启动替身, 并把连接配置指向它们, 不需要任何远程服务：
+ *              redis 用 jedis-mock(支持 lua 脚本和发布订阅), zookeeper 用 curator 的 TestingServer,
+ *              mysql 用 H2 的 MySQL 模式, 启动时执行 distribute-demo/doc/db.sql 建表。
+ *              只启动应用用得到的替身(按 classpath 上有没有对应的客户端判断), 每个 JVM 只启动一次, 多个测试的 spring 上下文共用。
+ *              配置的优先级最高, 覆盖 application.yml 里的远程地址
+ * @date created in 2026-10-19 05:30
+ * @modified by
+ */
+@Slf4j
+public class LocalStandIns implements EnvironmentPostProcessor, Ordered {
+
+    public static final String PROFILE = "local";
+
+    /**
+     * 库名与 db.sql 里的 distribute 一致
+     */
+    public static final String H2_URL = "jdbc:h2:mem:distribute;MODE=MySQL;DB_CLOSE_DELAY=-1;DATABASE_TO_LOWER=TRUE;"
+            + "INIT=CREATE SCHEMA IF NOT EXISTS distribute\\;SET SCHEMA distribute";
+
+    public static final String H2_USERNAME = "sa";
+
+    /**
+     * jedis-mock 监听所有网卡, 统一用回环地址连接
+     */
+    public static final String LOOPBACK = "127.0.0.1";
+
+    private static final String PROPERTY_SOURCE = "localStandIns";
+
+    private static final String SCHEMA = "classpath:local/db.sql";
+
+    private static RedisServer redisServer;
+
+    private static TestingServer zookeeperServer;
+
+    private static boolean mysqlStarted;
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        if (!environment.acceptsProfiles(Profiles.of(PROFILE))) {
+            return;
+        }
+        ClassLoader classLoader = application != null ? application.getClassLoader() : getClass().getClassLoader();
+        Map<String, Object> properties = new LinkedHashMap<>();
+        if (ClassUtils.isPresent("org.springframework.data.redis.core.RedisTemplate", classLoader)
+                || ClassUtils.isPresent("org.redisson.api.RedissonClient", classLoader)) {
+            String[] address = redis().split(":");
+            properties.put("spring.redis.host", address[0]);
+            properties.put("spring.redis.port", address[1]);
+            // jedis-mock 不响应 PUNSUBSCRIBE, 关闭订阅时按命令超时返回, 默认要等 1 分钟
+            properties.put("spring.redis.timeout", "3s");
+        }
+        if (ClassUtils.isPresent("org.apache.curator.framework.CuratorFramework", classLoader)) {
+            properties.put("zookeeper.connect-string", zookeeper());
+        }
+        if (ClassUtils.isPresent("org.springframework.jdbc.core.JdbcTemplate", classLoader)) {
+            properties.put("spring.datasource.url", mysql());
+            properties.put("spring.datasource.username", H2_USERNAME);
+            properties.put("spring.datasource.password", "");
+            properties.put("spring.datasource.driver-class-name", "org.h2.Driver");
+        }
+        environment.getPropertySources().addFirst(new MapPropertySource(PROPERTY_SOURCE, properties));
+    }
+
+    /**
+     * 在读取完配置文件之后执行, application.yml 里激活的 local profile 也能生效
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    /**
+     * 启动 redis 替身
+     *
+     * @return host:port
+     */
+    public static synchronized String redis() {
+        if (redisServer == null) {
+            redisServer = newRedis(ServiceOptions.defaultOptions());
+            // 不注册关闭钩子：钩子和 spring 的关闭并发执行, 先停掉 redis 会让关闭中的客户端不停重连, 进程退出时端口自然释放
+            log.info("local 环境的 redis：{}:{}", LOOPBACK, redisServer.getBindPort());
+        }
+        return LOOPBACK + ":" + redisServer.getBindPort();
+    }
+
+    /**
+     * 另起一个 redis 替身, 不和 {@link #redis()} 共用, 由调用方停止; 测试用它让每个用例有一个干净的库
+     *
+     * @param options jedis-mock 的选项, 例如命令拦截器
+     * @return 已启动的 redis 替身, 用 {@link #LOOPBACK} 连接
+     */
+    public static RedisServer newRedis(ServiceOptions options) {
+        try {
+            return RedisServer.newRedisServer().setOptions(options).start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("启动 jedis-mock 失败", e);
+        }
+    }
+
+    /**
+     * 启动 zookeeper 替身
+     *
+     * @return 连接串
+     */
+    public static synchronized String zookeeper() {
+        if (zookeeperServer == null) {
+            try {
+                zookeeperServer = new TestingServer(true);
+            } catch (Exception e) {
+                throw new IllegalStateException("启动 zookeeper TestingServer 失败", e);
+            }
+            TestingServer server = zookeeperServer;
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                try {
+                    server.close();
+                } catch (IOException e) {
+                    log.warn("关闭 zookeeper TestingServer 失败", e);
+                }
+            }));
+            log.info("local 环境的 zookeeper：{}", zookeeperServer.getConnectString());
+        }
+        return zookeeperServer.getConnectString();
+    }
+
+    /**
+     * 创建 H2 内存库并建表, 内存库随 JVM 退出
+     *
+     * @return jdbc url
+     */
+    public static synchronized String mysql() {
+        if (!mysqlStarted) {
+            try (Connection connection = DriverManager.getConnection(H2_URL, H2_USERNAME, "");
+                 Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM '" + SCHEMA + "' CHARSET 'UTF-8'");
+            } catch (SQLException e) {
+                throw new IllegalStateException("初始化 H2 失败", e);
+            }
+            mysqlStarted = true;
+            log.info("local 环境的 mysql：{}", H2_URL);
+        }
+        return H2_URL;
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.example.distributelocklocal;
+
+import org.apache.zookeeper.CreateMode;
+import org.apache.zookeeper.ZooDefs;
+import org.apache.zookeeper.ZooKeeper;
+import org.junit.Test;
+import org.springframework.core.env.StandardEnvironment;
+import redis.clients.jedis.Jedis;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelocklocal
+ * @ClassName LocalStandInsTests
+ * @description
+ * @date created in 2026-10-19 05:40
+ * @modified by
+ */
+public class LocalStandInsTests {
+
+    @Test
+    public void testRedis() {
+        String[] address = LocalStandIns.redis().split(":");
+        try (Jedis jedis = new Jedis(address[0], Integer.parseInt(address[1]))) {
+            assertEquals("OK", jedis.set("order", "1"));
+            assertEquals(1L, jedis.eval("return redis.call('exists', KEYS[1])", 1, "order"));
+        }
+        assertEquals(String.join(":", address), LocalStandIns.redis());
+    }
+
+    @Test
+    public void testZookeeper() throws Exception {
+        ZooKeeper zooKeeper = new ZooKeeper(LocalStandIns.zookeeper(), 10000, event -> {
+        });
+        try {
+            zooKeeper.create("/order", new byte[0], ZooDefs.Ids.OPEN_ACL_UNSAFE, CreateMode.EPHEMERAL);
+            assertNotNull(zooKeeper.exists("/order", false));
+        } finally {
+            zooKeeper.close();
+        }
+    }
+
+    /**
+     * db.sql 里的表和数据都在
+     */
+    @Test
+    public void testMysql() throws Exception {
+        try (Connection connection = DriverManager.getConnection(LocalStandIns.mysql(), LocalStandIns.H2_USERNAME, "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("SELECT `count` FROM product WHERE id = 100100")) {
+                assertTrue(resultSet.next());
+                assertEquals(1, resultSet.getInt(1));
+            }
+            try (ResultSet resultSet = statement.executeQuery("SELECT id FROM distribute_lock WHERE business_code = 'demo' FOR UPDATE")) {
+                assertTrue(resultSet.next());
+            }
+        }
+    }
+
+    @Test
+    public void testOnlyWithLocalProfile() {
+        StandardEnvironment environment = new StandardEnvironment();
+        new LocalStandIns().postProcessEnvironment(environment, null);
+        assertFalse(environment.getPropertySources().contains("localStandIns"));
+
+        environment.setActiveProfiles(LocalStandIns.PROFILE);
+        new LocalStandIns().postProcessEnvironment(environment, null);
+        assertTrue(environment.getPropertySources().contains("localStandIns"));
+    }
+
+}
@@ -2,6 +2,7 @@ package com.example.distributelock.controller;
 
 import com.example.distributelock.dao.DistributeLockMapper;
 import com.example.distributelock.model.DistributeLock;
+import com.example.distributelockcore.LockMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -26,6 +27,11 @@ import java.util.concurrent.locks.ReentrantLock;
 @RestController
 public class DemoController {
 
+    /**
+     * 指标的 backend 标签
+     */
+    private static final String BACKEND = "mysql";
+
     @Resource
     private DistributeLockMapper distributeLockMapper;
 
@@ -51,19 +57,29 @@ public class DemoController {
     @Transactional(rollbackFor = Exception.class)
     public String singleLock() throws Exception {
         log.info("Entry method");
-        // 检索demo的锁
-        DistributeLock distributeLock = distributeLockMapper.selectDistributeLock("demo");
-        if (distributeLock == null) {
-            throw new Exception("分布式锁找不到");
-        }
-        log.info("Access lock");
+        // select ... for update 会一直阻塞到拿到行锁, 行锁在事务提交时释放, 持有时间按方法结束计算
+        LockMetrics.Sample sample = LockMetrics.global().startAcquire(BACKEND, "demo");
         try {
-            Thread.sleep(20000);
-            System.out.println("时间：" + LocalDateTime.now() + " 线程名：" + Thread.currentThread().getName());
-        } catch (InterruptedException e) {
-            e.printStackTrace();
+            // 检索demo的锁
+            DistributeLock distributeLock = distributeLockMapper.selectDistributeLock("demo");
+            if (distributeLock == null) {
+                sample.failed();
+                throw new Exception("分布式锁找不到");
+            }
+            sample.acquired();
+            log.info("Access lock");
+            try {
+                Thread.sleep(20000);
+                System.out.println("时间：" + LocalDateTime.now() + " 线程名：" + Thread.currentThread().getName());
+            } catch (InterruptedException e) {
+                e.printStackTrace();
+            }
+            return "success";
+        } finally {
+            // 查询本身失败(如行锁等待超时)记为 timeout, 已经记过结果的不会重复记
+            sample.timedOut();
+            sample.released();
         }
-        return "success";
     }
 
 
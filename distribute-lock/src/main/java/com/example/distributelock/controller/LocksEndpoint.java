@@ -0,0 +1,29 @@
+package com.example.distributelock.controller;
+
+import com.example.distributelock.lock.LockHistograms;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.controller
+ * @ClassName LocksEndpoint
+ * @description /actuator/locks：每个锁名的当前持有者, 以及等待时间、持有时间的 P50/P99/P999/最大值(毫秒);
+ *              interval 为上次访问以来, total 为开始统计以来
+ * @date created in 2026-10-19 01:40
+ * @modified by
+ */
+@Component
+@Endpoint(id = "locks")
+public class LocksEndpoint {
+
+    @ReadOperation
+    public Map<String, LockHistograms.Snapshot> locks() {
+        return LockHistograms.global().snapshot();
+    }
+
+}
@@ -1,11 +1,20 @@
 package com.example.distributelock.controller;
 
+import com.example.distributelock.lock.AsyncRedisLock;
 import com.example.distributelock.lock.RedisLock;
+import com.example.distributelock.lock.RedisLockSubscriber;
+import com.example.distributelock.lock.RedisLockWatchdog;
+import com.example.distributelock.lock.ReactiveRedisLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
 
 
 /**
@@ -26,6 +35,18 @@ public class RedisController {
     @Autowired
     private RedisTemplate redisTemplate;
 
+    @Autowired
+    private RedisLockSubscriber redisLockSubscriber;
+
+    @Autowired
+    private RedisLockWatchdog redisLockWatchdog;
+
+    @Autowired
+    private AsyncRedisLock asyncRedisLock;
+
+    @Autowired
+    private ReactiveRedisLock reactiveRedisLock;
+
     @RequestMapping("redisLock")
     public String redisLock() {
         log.info("进入方法");
@@ -47,8 +68,11 @@ public class RedisController {
 //        }
 
         // jdk1.7之后添加的写法 try后面加入
-        try (RedisLock redisLock = new RedisLock(redisTemplate, "eddieKey", 30)) {
-            if (redisLock.getLock()) {
+        // 抢不到锁时最多等待30秒, 等待期间靠释放通知唤醒, 不轮询redis
+        // 租期10秒, 业务执行15秒, 由看门狗续期; 进程挂掉后10秒内锁会自动释放
+        try (RedisLock redisLock = new RedisLock(redisTemplate, redisLockSubscriber, "eddieKey", 10)
+                .withWatchdog(redisLockWatchdog)) {
+            if (redisLock.lock(30, TimeUnit.SECONDS)) {
                 log.info("抢到锁了!");
                 Thread.sleep(15000);
             }
@@ -60,4 +84,34 @@ public class RedisController {
         return "success";
     }
 
+    /**
+     * 非阻塞写法：等待锁期间不占用 tomcat 线程, 抢到锁或超时后再异步返回
+     */
+    @RequestMapping("asyncRedisLock")
+    public CompletableFuture<String> asyncRedisLock() {
+        log.info("进入方法");
+        return asyncRedisLock.tryLock("eddieKey", 30, 10, TimeUnit.SECONDS)
+                .thenCompose(handle -> {
+                    if (handle == null) {
+                        return CompletableFuture.completedFuture("fail");
+                    }
+                    log.info("抢到锁了! fencing token：[{}]", handle.getFencingToken());
+                    return asyncRedisLock.release(handle).thenApply(released -> "success");
+                });
+    }
+
+    /**
+     * 响应式写法：与 redisLock 相同的等待和业务耗时, 但等锁、执行业务期间都不占用线程;
+     * 没有看门狗, 租期要覆盖业务耗时
+     */
+    @RequestMapping("reactiveRedisLock")
+    public Mono<String> reactiveRedisLock() {
+        log.info("进入方法");
+        Mono<String> business = Mono.delay(Duration.ofSeconds(15))
+                .doOnSubscribe(s -> log.info("抢到锁了!"))
+                .thenReturn("success");
+        return reactiveRedisLock.usingLock("eddieKey", 30, 20, TimeUnit.SECONDS, business)
+                .onErrorReturn(IllegalStateException.class, "fail");
+    }
+
 }
@@ -0,0 +1,156 @@
+package com.example.distributelock.lock;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AbstractRedisLock
+ * @description 各种 redis 锁共用的等待逻辑：子类只负责"抢一次", 抢不到时在这里等释放通知或持有者租期到期。
+ *              能用看门狗续期的锁继承 {@link AbstractRenewableRedisLock}
+ * @date created in 2026-10-18 15:30
+ * @modified by
+ */
+public abstract class AbstractRedisLock implements AutoCloseable {
+
+    protected RedisTemplate redisTemplate;
+
+    /**
+     * 锁名
+     */
+    protected String name;
+
+    /**
+     * redis键, 集群模式下是加了 hash tag 的锁名, 见 {@link RedisLockKeys#lockKey}
+     */
+    protected String key;
+
+    /**
+     * 单位：秒
+     */
+    protected int expireTime;
+
+    /**
+     * 释放通知的订阅者, 为空时等待者只能等到持有者的租期结束再重试
+     */
+    protected RedisLockSubscriber subscriber;
+
+    /**
+     * 抢锁失败后的等待策略
+     */
+    protected WaitStrategy waitStrategy = WaitStrategies.notifyDriven();
+
+    /**
+     * 本次 tryLock 指定的等待策略
+     */
+    private WaitStrategy callWaitStrategy;
+
+    protected AbstractRedisLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        this.redisTemplate = redisTemplate;
+        this.subscriber = subscriber;
+        this.name = key;
+        this.key = RedisLockKeys.lockKey(redisTemplate, key);
+        this.expireTime = expireTime;
+    }
+
+    /**
+     * 设置这把锁的等待策略, 默认等释放通知
+     */
+    public AbstractRedisLock withWaitStrategy(WaitStrategy waitStrategy) {
+        this.waitStrategy = waitStrategy;
+        return this;
+    }
+
+    /**
+     * 阻塞获取分布式锁, 租期为 {@link #defaultLeaseMillis()}
+     *
+     * @param waitTime 最长等待时间
+     */
+    public boolean lock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return tryLock(unit.toMillis(waitTime), defaultLeaseMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 没有指定租期时使用的租期(毫秒)
+     */
+    protected long defaultLeaseMillis() {
+        return TimeUnit.SECONDS.toMillis(expireTime);
+    }
+
+    /**
+     * 在 waitTime 内获取分布式锁：
+     * 抢锁失败后按等待策略等待再重试, 默认订阅释放通知, 只有收到通知或持有者的租期到期才重试, 不轮询 redis
+     *
+     * @param waitTime  最长等待时间
+     * @param leaseTime 租期
+     */
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long leaseMillis = unit.toMillis(leaseTime);
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        Long ttl = tryAcquire(leaseMillis);
+        if (ttl == null) {
+            return true;
+        }
+        if (waitTime <= 0) {
+            return false;
+        }
+        WaitStrategy strategy = callWaitStrategy != null ? callWaitStrategy : waitStrategy;
+        try (WaitStrategy.Waiter waiter = strategy.begin(subscriber, channel())) {
+            while (true) {
+                ttl = tryAcquire(leaseMillis);
+                if (ttl == null) {
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                waiter.await(ttl, remaining);
+            }
+        }
+    }
+
+    /**
+     * 与 {@link #tryLock(long, long, TimeUnit)} 相同, 只是本次使用指定的等待策略
+     */
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit, WaitStrategy strategy) throws InterruptedException {
+        // 经过子类重写的 tryLock, 子类在等待前后的处理(如公平锁放弃排队)照常执行
+        callWaitStrategy = strategy;
+        try {
+            return tryLock(waitTime, leaseTime, unit);
+        } finally {
+            callWaitStrategy = null;
+        }
+    }
+
+    /**
+     * 等待释放通知的频道, 默认所有等待者共用锁的释放频道
+     */
+    protected String channel() {
+        return RedisLockSubscriber.channel(key);
+    }
+
+    /**
+     * 抢一次锁
+     *
+     * @return null 表示抢到锁, 否则为持有者剩余的毫秒数
+     */
+    protected abstract Long tryAcquire(long leaseMillis);
+
+    /**
+     * 释放分布式锁
+     */
+    public abstract boolean unLock();
+
+    /**
+     * jdk1.7 出的特性
+     */
+    @Override
+    public void close() throws Exception {
+        unLock();
+    }
+
+}
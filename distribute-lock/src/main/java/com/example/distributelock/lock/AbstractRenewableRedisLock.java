@@ -0,0 +1,35 @@
+package com.example.distributelock.lock;
+
+import org.springframework.data.redis.core.RedisTemplate;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AbstractRenewableRedisLock
+ * @description 持有者记录在一个键上、可以由看门狗 PEXPIRE 续期的锁。
+ *              读锁、信号量的租期记录在 zset 的分数里, 看门狗续不了, 它们直接继承 {@link AbstractRedisLock}
+ * @date created in 2026-10-19 09:30
+ * @modified by
+ */
+public abstract class AbstractRenewableRedisLock extends AbstractRedisLock {
+
+    /**
+     * 续期看门狗, 为空时租期到了锁就会过期
+     */
+    protected RedisLockWatchdog watchdog;
+
+    protected AbstractRenewableRedisLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        super(redisTemplate, subscriber, key, expireTime);
+    }
+
+    /**
+     * 开启看门狗：持有期间每隔租期的 1/3 自动续期, 业务执行多久锁就持有多久;
+     * 进程挂掉后最多一个租期锁就会释放
+     */
+    public AbstractRenewableRedisLock withWatchdog(RedisLockWatchdog watchdog) {
+        this.watchdog = watchdog;
+        return this;
+    }
+
+}
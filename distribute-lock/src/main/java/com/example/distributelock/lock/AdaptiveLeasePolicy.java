@@ -0,0 +1,167 @@
+package com.example.distributelock.lock;
+
+import com.example.distributelockcore.LockNames;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AdaptiveLeasePolicy
+ * @description 根据实际持有时间自动计算租期：
+ *              按键前缀(order:1001、/order/1001 -> order, 见 {@link LockNames#prefix})统计持有时间的衰减直方图,
+ *              调用方不指定租期时取 P99 * 1.5 + 1 秒。租期太长, 持有者挂掉后所有人都要白等;
+ *              太短, 业务还没执行完锁就过期了。旧样本每 10 分钟权重减半, 业务耗时变化后租期会跟着变;
+ *              样本不足时使用默认的 30 秒
+ * @date created in 2026-10-18 23:20
+ * @modified by
+ */
+@Slf4j
+@Component
+public class AdaptiveLeasePolicy {
+
+    /**
+     * 样本不足时的租期
+     */
+    public static final long DEFAULT_LEASE_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private static final long MIN_LEASE_MILLIS = TimeUnit.SECONDS.toMillis(1);
+
+    private static final long MAX_LEASE_MILLIS = TimeUnit.MINUTES.toMillis(10);
+
+    private static final double PERCENTILE = 0.99;
+
+    private static final double MARGIN_FACTOR = 1.5;
+
+    private static final long MARGIN_MILLIS = 1000;
+
+    /**
+     * 至少有这么多(衰减后的)样本才按直方图计算
+     */
+    private static final double MIN_SAMPLES = 20;
+
+    private static final long HALF_LIFE_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    /**
+     * 最多统计的前缀数, 超出后共用一个直方图
+     */
+    private static final int MAX_PREFIXES = 1024;
+
+    private static final String OTHER_PREFIX = "*";
+
+    private final Map<String, DecayingHistogram> histograms = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次持有时间
+     */
+    public void record(String key, long holdTime, TimeUnit unit) {
+        histogram(LockNames.prefix(key)).record(unit.toMillis(holdTime), System.nanoTime());
+    }
+
+    /**
+     * 该键应使用的租期(毫秒)
+     */
+    public long leaseMillis(String key) {
+        String prefix = LockNames.prefix(key);
+        DecayingHistogram histogram = histograms.get(prefix);
+        if (histogram == null) {
+            histogram = histograms.get(OTHER_PREFIX);
+        }
+        long percentile = histogram == null ? -1 : histogram.percentile(PERCENTILE, MIN_SAMPLES, System.nanoTime());
+        if (percentile < 0) {
+            return DEFAULT_LEASE_MILLIS;
+        }
+        long lease = (long) (percentile * MARGIN_FACTOR) + MARGIN_MILLIS;
+        return Math.min(MAX_LEASE_MILLIS, Math.max(MIN_LEASE_MILLIS, lease));
+    }
+
+    private DecayingHistogram histogram(String prefix) {
+        DecayingHistogram histogram = histograms.get(prefix);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (histograms.size() >= MAX_PREFIXES) {
+            prefix = OTHER_PREFIX;
+        }
+        return histograms.computeIfAbsent(prefix, p -> new DecayingHistogram());
+    }
+
+    /**
+     * 对数分桶的直方图, 每个 2 倍区间分 4 个桶(误差不超过 19%), 覆盖 1 毫秒到约 17 分钟;
+     * 计数按时间指数衰减
+     */
+    static final class DecayingHistogram {
+
+        private static final int SUB_BUCKETS = 4;
+
+        private static final int BUCKETS = 20 * SUB_BUCKETS + 1;
+
+        /**
+         * 距上次衰减超过这个时间才重新衰减
+         */
+        private static final long DECAY_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        private final double[] counts = new double[BUCKETS];
+
+        private double total;
+
+        private long decayedAt = System.nanoTime();
+
+        synchronized void record(long millis, long now) {
+            decay(now);
+            counts[bucket(millis)]++;
+            total++;
+        }
+
+        /**
+         * @return 样本不足时为 -1
+         */
+        synchronized long percentile(double percentile, double minSamples, long now) {
+            decay(now);
+            if (total < minSamples) {
+                return -1;
+            }
+            double target = total * percentile;
+            double seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += counts[i];
+                if (seen >= target) {
+                    return upperBound(i);
+                }
+            }
+            return upperBound(BUCKETS - 1);
+        }
+
+        private void decay(long now) {
+            long elapsed = now - decayedAt;
+            if (elapsed < DECAY_INTERVAL_NANOS) {
+                return;
+            }
+            double factor = Math.pow(0.5, (double) elapsed / HALF_LIFE_NANOS);
+            total = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] *= factor;
+                total += counts[i];
+            }
+            decayedAt = now;
+        }
+
+        static int bucket(long millis) {
+            if (millis <= 1) {
+                return 0;
+            }
+            int bucket = (int) Math.ceil(Math.log(millis) / Math.log(2) * SUB_BUCKETS);
+            return Math.min(BUCKETS - 1, bucket);
+        }
+
+        static long upperBound(int bucket) {
+            return (long) Math.ceil(Math.pow(2, (double) bucket / SUB_BUCKETS));
+        }
+    }
+
+}
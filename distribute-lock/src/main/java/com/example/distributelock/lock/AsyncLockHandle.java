@@ -0,0 +1,63 @@
+package com.example.distributelock.lock;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AsyncLockHandle
+ * @description AsyncRedisLock、ReactiveRedisLock 一次加锁成功的凭证：续期、释放都凭它进行, 不依赖加锁的线程。
+ *              释放要交给发放它的客户端异步执行, 所以不实现 distribute-lock-core 的 LockHandle(close 时同步释放)
+ * @date created in 2026-10-18 20:40
+ * @modified by
+ */
+public class AsyncLockHandle {
+
+    /**
+     * redis键
+     */
+    private final String key;
+
+    /**
+     * redis值, 持有者的唯一标识
+     */
+    private final String value;
+
+    /**
+     * fencing token, 每次加锁单调递增
+     */
+    private final long fencingToken;
+
+    /**
+     * 租期, 单位：毫秒
+     */
+    private final long leaseMillis;
+
+    public AsyncLockHandle(String key, String value, long fencingToken, long leaseMillis) {
+        this.key = key;
+        this.value = value;
+        this.fencingToken = fencingToken;
+        this.leaseMillis = leaseMillis;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public long getLeaseMillis() {
+        return leaseMillis;
+    }
+
+    @Override
+    public String toString() {
+        return "AsyncLockHandle{key='" + key + "', fencingToken=" + fencingToken + "}";
+    }
+
+}
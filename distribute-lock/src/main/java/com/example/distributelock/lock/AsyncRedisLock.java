@@ -0,0 +1,251 @@
+package com.example.distributelock.lock;
+
+import io.lettuce.core.ScriptOutputType;
+import io.lettuce.core.cluster.api.async.RedisClusterAsyncCommands;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AsyncRedisLock
+ * @description 非阻塞的 redis 锁客户端：
+ *              基于 lettuce 的异步命令, 加锁、续期、释放都返回 CompletableFuture, 调用线程不等待网络往返;
+ *              抢不到锁时不占用线程等待, 收到释放通知或持有者租期到期时再异步重试,
+ *              一个节点可以同时有大量等待者。
+ *              与 RedisLock 使用相同的脚本和键结构, 可以和 RedisLock 互斥
+ * @date created in 2026-10-18 20:45
+ * @modified by
+ */
+@Slf4j
+@Component
+public class AsyncRedisLock implements DisposableBean {
+
+    private final RedisTemplate redisTemplate;
+
+    /**
+     * 整个生命周期只取一次连接, destroy 时关闭; 关闭之前原生的异步命令一直可用
+     */
+    private final RedisConnection connection;
+
+    private final RedisClusterAsyncCommands<byte[], byte[]> commands;
+
+    private final RedisLockSubscriber subscriber;
+
+    /**
+     * 只负责到点触发重试, 重试本身是异步命令, 一个线程足够
+     */
+    private final ScheduledExecutorService timer;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public AsyncRedisLock(RedisConnectionFactory connectionFactory, RedisTemplate redisTemplate,
+                          RedisLockSubscriber subscriber) {
+        this.redisTemplate = redisTemplate;
+        this.connection = connectionFactory.getConnection();
+        this.commands = (RedisClusterAsyncCommands<byte[], byte[]>) connection.getNativeConnection();
+        this.subscriber = subscriber;
+        this.timer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-lock-async");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 在 waitTime 内获取分布式锁
+     *
+     * @param waitTime  最长等待时间, 0 表示只尝试一次
+     * @param leaseTime 租期
+     * @return 抢到锁时为锁凭证, waitTime 内没有抢到时为 null
+     */
+    public CompletableFuture<AsyncLockHandle> tryLock(String key, long waitTime, long leaseTime, TimeUnit unit) {
+        Waiter waiter = new Waiter(RedisLockKeys.lockKey(redisTemplate, key), unit.toMillis(leaseTime), System.nanoTime() + unit.toNanos(waitTime));
+        waiter.attempt();
+        return waiter.result;
+    }
+
+    /**
+     * 续期
+     *
+     * @return false 表示锁已经不属于自己
+     */
+    public CompletableFuture<Boolean> renew(AsyncLockHandle handle) {
+        return eval(RedisLockScripts.RENEW, ScriptOutputType.BOOLEAN, rawKeys(handle.getKey()),
+                rawArgs(handle.getValue(), String.valueOf(handle.getLeaseMillis())))
+                .thenApply(Boolean.TRUE::equals);
+    }
+
+    /**
+     * 释放分布式锁
+     *
+     * @return false 表示锁已经不属于自己
+     */
+    public CompletableFuture<Boolean> release(AsyncLockHandle handle) {
+        return eval(RedisLockScripts.UNLOCK, ScriptOutputType.BOOLEAN, rawKeys(handle.getKey()),
+                rawArgs(handle.getValue(), RedisLockSubscriber.channel(handle.getKey())))
+                .thenApply(result -> {
+                    log.info("释放锁结果：[{}]", result);
+                    return Boolean.TRUE.equals(result);
+                });
+    }
+
+    /**
+     * 异步执行脚本：先 EVALSHA, 遇到 NOSCRIPT 再 EVAL
+     */
+    private <T> CompletableFuture<T> eval(RedisScript<?> script, ScriptOutputType type, byte[][] rawKeys, byte[][] rawArgs) {
+        CompletionStage<T> evalSha = commands.evalsha(script.getSha1(), type, rawKeys, rawArgs);
+        return evalSha.handle((result, e) -> {
+            if (e == null) {
+                return CompletableFuture.completedFuture(result);
+            }
+            if (RedisLockScripts.isNoScript(e)) {
+                return commands.<T>eval(script.getScriptAsString(), type, rawKeys, rawArgs).toCompletableFuture();
+            }
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }).thenCompose(future -> future).toCompletableFuture();
+    }
+
+    private byte[][] rawKeys(String... keys) {
+        byte[][] rawKeys = new byte[keys.length][];
+        for (int i = 0; i < keys.length; i++) {
+            rawKeys[i] = RedisLockKeys.encode(redisTemplate.getKeySerializer(), keys[i]);
+        }
+        return rawKeys;
+    }
+
+    private static byte[][] rawArgs(String... args) {
+        byte[][] rawArgs = new byte[args.length][];
+        for (int i = 0; i < args.length; i++) {
+            rawArgs[i] = RedisLockScripts.ARGS_SERIALIZER.serialize(args[i]);
+        }
+        return rawArgs;
+    }
+
+    @Override
+    public void destroy() {
+        timer.shutdownNow();
+        connection.close();
+    }
+
+    /**
+     * 一个异步等待者：每轮抢锁失败后, 释放通知或租期到期二者先到的一个触发下一轮
+     */
+    private class Waiter {
+
+        private final String key;
+
+        private final String value = LockOwners.next();
+
+        private final long leaseMillis;
+
+        private final long deadline;
+
+        /**
+         * 每轮重试的参数都一样, 只序列化一次
+         */
+        private final byte[][] lockKeys;
+
+        private final byte[][] lockArgs;
+
+        private final CompletableFuture<AsyncLockHandle> result = new CompletableFuture<>();
+
+        private volatile RedisLockSubscriber.Entry entry;
+
+        Waiter(String key, long leaseMillis, long deadline) {
+            this.key = key;
+            this.leaseMillis = leaseMillis;
+            this.deadline = deadline;
+            this.lockKeys = rawKeys(key, key + ":fencing");
+            this.lockArgs = rawArgs(value, String.valueOf(leaseMillis));
+        }
+
+        void attempt() {
+            // 在发出抢锁命令前记下, 抢锁失败后登记等待时据此发现中间错过的释放通知
+            long generation = entry == null ? 0 : entry.generation();
+            CompletableFuture<List<Long>> lock = eval(RedisLockScripts.LOCK, ScriptOutputType.MULTI, lockKeys, lockArgs);
+            lock.whenComplete((reply, e) -> {
+                if (e != null) {
+                    finish();
+                    result.completeExceptionally(e);
+                } else if (reply.get(0) == 1) {
+                    finish();
+                    AsyncLockHandle handle = new AsyncLockHandle(key, value, reply.get(1), leaseMillis);
+                    if (!result.complete(handle)) {
+                        // 调用方已经取消等待
+                        release(handle);
+                    }
+                } else {
+                    await(reply.get(1), generation);
+                }
+            });
+        }
+
+        private void await(long ttl, long generation) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0 || result.isDone()) {
+                finish();
+                result.complete(null);
+                return;
+            }
+            if (entry == null) {
+                // 先登记等待再重试, 避免错过登记之前发出的释放通知
+                entry = subscriber.subscribe(RedisLockSubscriber.channel(key));
+                attempt();
+                return;
+            }
+            // ttl < 0 表示持有者没有设置过期时间, 只能等通知
+            long waitNanos = ttl >= 0 ? Math.min(TimeUnit.MILLISECONDS.toNanos(ttl), remaining) : remaining;
+            AtomicBoolean fired = new AtomicBoolean();
+            RedisLockSubscriber.Entry current = entry;
+            AtomicReference<ScheduledFuture<?>> timeout = new AtomicReference<>();
+            Runnable listener = () -> {
+                if (fired.compareAndSet(false, true)) {
+                    ScheduledFuture<?> scheduled = timeout.get();
+                    if (scheduled != null) {
+                        scheduled.cancel(false);
+                    }
+                    attempt();
+                }
+            };
+            current.onRelease(generation, listener);
+            if (fired.get()) {
+                // 回调已经触发(包括登记时发现错过了通知), 不需要超时重试
+                return;
+            }
+            timeout.set(timer.schedule(() -> {
+                if (fired.compareAndSet(false, true)) {
+                    current.removeListener(listener);
+                    attempt();
+                }
+            }, waitNanos, TimeUnit.NANOSECONDS));
+        }
+
+        private void finish() {
+            if (entry != null) {
+                subscriber.unsubscribe(entry);
+                entry = null;
+            }
+        }
+    }
+
+}
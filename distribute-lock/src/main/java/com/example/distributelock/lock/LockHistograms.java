@@ -0,0 +1,258 @@
+package com.example.distributelock.lock;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName LockHistograms
+ * @description 按锁名记录等待时间、持有时间的 HdrHistogram, 以及当前持有者, 由 /actuator/locks 展示。
+ *              平均值看不出少数长时间持有锁、让其他人全部超时的请求, 要看 P99、P999 和最大值。
+ *              记录只是对 Recorder 的无锁写入, 锁名已经登记过时不分配内存; 快照由读取方交换 Recorder 内部的直方图,
+ *              不阻塞记录。最多保留 MAX_KEYS 个锁名, 超出时淘汰最久没有使用的
+ * @date created in 2026-10-19 01:20
+ * @modified by
+ */
+public class LockHistograms {
+
+    /**
+     * 默认最多保留的锁名数
+     */
+    public static final int MAX_KEYS = 128;
+
+    /**
+     * 单位：微秒, 最大 1 小时, 超出的按 1 小时记录
+     */
+    private static final long HIGHEST_MICROS = TimeUnit.HOURS.toMicros(1);
+
+    /**
+     * 2 位有效数字(误差 1%), 每个直方图约 20KB
+     */
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private static final LockHistograms GLOBAL = new LockHistograms(MAX_KEYS);
+
+    private final int maxKeys;
+
+    private final Map<String, KeyHistograms> keys = new ConcurrentHashMap<>();
+
+    public LockHistograms(int maxKeys) {
+        this.maxKeys = maxKeys;
+    }
+
+    public static LockHistograms global() {
+        return GLOBAL;
+    }
+
+    /**
+     * 记录一次等待时间(抢到或没抢到)
+     */
+    public void recordWait(String key, long waitNanos) {
+        KeyHistograms histograms = histograms(key);
+        histograms.wait.recordValue(toMicros(waitNanos));
+    }
+
+    /**
+     * 抢到锁, 登记当前持有者
+     */
+    public void holding(String key, String holder) {
+        histograms(key).holder = holder;
+    }
+
+    /**
+     * 释放锁, 记录持有时间; 当前持有者是 holder 时清空
+     */
+    public void released(String key, String holder, long holdNanos) {
+        KeyHistograms histograms = histograms(key);
+        histograms.hold.recordValue(toMicros(holdNanos));
+        KeyHistograms.HOLDER.compareAndSet(histograms, holder, null);
+    }
+
+    /**
+     * 所有锁名的快照, 按最近使用排序; 每次调用都会开始一个新的统计区间
+     */
+    public Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshots = new LinkedHashMap<>();
+        keys.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue().touchedAt, a.getValue().touchedAt))
+                .forEach(entry -> snapshots.put(entry.getKey(), entry.getValue().snapshot()));
+        return snapshots;
+    }
+
+    private KeyHistograms histograms(String key) {
+        KeyHistograms histograms = keys.get(key);
+        if (histograms == null) {
+            histograms = register(key);
+        }
+        histograms.touchedAt = System.nanoTime();
+        return histograms;
+    }
+
+    private synchronized KeyHistograms register(String key) {
+        KeyHistograms histograms = keys.get(key);
+        if (histograms != null) {
+            return histograms;
+        }
+        if (keys.size() >= maxKeys) {
+            evictEldest();
+        }
+        histograms = new KeyHistograms();
+        keys.put(key, histograms);
+        return histograms;
+    }
+
+    private void evictEldest() {
+        String eldest = null;
+        long eldestTouchedAt = Long.MAX_VALUE;
+        for (Map.Entry<String, KeyHistograms> entry : keys.entrySet()) {
+            if (eldest == null || entry.getValue().touchedAt - eldestTouchedAt < 0) {
+                eldest = entry.getKey();
+                eldestTouchedAt = entry.getValue().touchedAt;
+            }
+        }
+        if (eldest != null) {
+            keys.remove(eldest);
+        }
+    }
+
+    private static long toMicros(long nanos) {
+        return Math.min(HIGHEST_MICROS, Math.max(0, TimeUnit.NANOSECONDS.toMicros(nanos)));
+    }
+
+    private static final class KeyHistograms {
+
+        private static final AtomicReferenceFieldUpdater<KeyHistograms, String> HOLDER =
+                AtomicReferenceFieldUpdater.newUpdater(KeyHistograms.class, String.class, "holder");
+
+        private final Recorder wait = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+        private final Recorder hold = new Recorder(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+        /**
+         * 以下直方图只由读取方在 synchronized(this) 中使用
+         */
+        private Histogram waitInterval;
+
+        private Histogram holdInterval;
+
+        private final Histogram waitTotal = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+        private final Histogram holdTotal = new Histogram(HIGHEST_MICROS, SIGNIFICANT_DIGITS);
+
+        private volatile String holder;
+
+        private volatile long touchedAt = System.nanoTime();
+
+        private synchronized Snapshot snapshot() {
+            waitInterval = wait.getIntervalHistogram(waitInterval);
+            holdInterval = hold.getIntervalHistogram(holdInterval);
+            waitTotal.add(waitInterval);
+            holdTotal.add(holdInterval);
+            return new Snapshot(holder,
+                    new Distribution(waitInterval), new Distribution(waitTotal),
+                    new Distribution(holdInterval), new Distribution(holdTotal));
+        }
+    }
+
+    /**
+     * 一个锁名的快照, interval 为上次快照以来, total 为登记以来
+     */
+    public static final class Snapshot {
+
+        private final String holder;
+
+        private final Distribution waitInterval;
+
+        private final Distribution waitTotal;
+
+        private final Distribution holdInterval;
+
+        private final Distribution holdTotal;
+
+        private Snapshot(String holder, Distribution waitInterval, Distribution waitTotal,
+                         Distribution holdInterval, Distribution holdTotal) {
+            this.holder = holder;
+            this.waitInterval = waitInterval;
+            this.waitTotal = waitTotal;
+            this.holdInterval = holdInterval;
+            this.holdTotal = holdTotal;
+        }
+
+        public String getHolder() {
+            return holder;
+        }
+
+        public Distribution getWaitInterval() {
+            return waitInterval;
+        }
+
+        public Distribution getWaitTotal() {
+            return waitTotal;
+        }
+
+        public Distribution getHoldInterval() {
+            return holdInterval;
+        }
+
+        public Distribution getHoldTotal() {
+            return holdTotal;
+        }
+    }
+
+    /**
+     * 分布, 单位：毫秒
+     */
+    public static final class Distribution {
+
+        private final long count;
+
+        private final double p50;
+
+        private final double p99;
+
+        private final double p999;
+
+        private final double max;
+
+        private Distribution(Histogram histogram) {
+            this.count = histogram.getTotalCount();
+            this.p50 = millis(histogram.getValueAtPercentile(50));
+            this.p99 = millis(histogram.getValueAtPercentile(99));
+            this.p999 = millis(histogram.getValueAtPercentile(99.9));
+            this.max = millis(histogram.getMaxValue());
+        }
+
+        private static double millis(long micros) {
+            return micros / 1000.0;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public double getP50() {
+            return p50;
+        }
+
+        public double getP99() {
+            return p99;
+        }
+
+        public double getP999() {
+            return p999;
+        }
+
+        public double getMax() {
+            return max;
+        }
+    }
+
+}
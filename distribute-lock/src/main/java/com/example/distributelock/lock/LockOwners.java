@@ -0,0 +1,36 @@
+package com.example.distributelock.lock;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName LockOwners
+ * @description 锁持有者标识：节点id:线程id:序号。
+ *              节点id只在启动时随机生成一次, 之后每个标识只需一次自增,
+ *              不像每次 UUID.randomUUID() 那样走 SecureRandom, 高并发下也不会争用
+ * @date created in 2026-10-18 21:50
+ * @modified by
+ */
+public final class LockOwners {
+
+    /**
+     * 本 JVM 的节点id
+     */
+    public static final String NODE_ID = UUID.randomUUID().toString();
+
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
+    private LockOwners() {
+    }
+
+    /**
+     * 生成一个全局唯一的持有者标识
+     */
+    public static String next() {
+        return NODE_ID + ":" + Thread.currentThread().getId() + ":" + SEQUENCE.incrementAndGet();
+    }
+
+}
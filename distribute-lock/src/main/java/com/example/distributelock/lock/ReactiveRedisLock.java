@@ -0,0 +1,199 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisElementReader;
+import org.springframework.data.redis.serializer.RedisElementWriter;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName ReactiveRedisLock
+ * @description 响应式的 redis 锁, 给 WebFlux 等响应式调用方使用：
+ *              基于 ReactiveRedisTemplate, 不阻塞事件循环线程;
+ *              抢不到锁时等释放通知或持有者租期到期再重试, 等待期间不占用线程。
+ *              与 RedisLock 使用相同的脚本和键结构, 可以和 RedisLock 互斥
+ * @date created in 2026-10-18 21:20
+ * @modified by
+ */
+@Slf4j
+@Component
+public class ReactiveRedisLock {
+
+    /**
+     * usingLock 默认最长等待时间, 单位：秒
+     */
+    private static final long DEFAULT_WAIT_SECONDS = 30;
+
+    /**
+     * usingLock 默认租期, 单位：秒
+     */
+    private static final long DEFAULT_LEASE_SECONDS = 10;
+
+    private static final RedisElementWriter<String> ARGS_WRITER = RedisElementWriter.from(RedisLockScripts.ARGS_SERIALIZER);
+
+    /**
+     * 脚本返回的是整数或整数列表, 不会经过它; 原始类型才能适配各脚本不同的返回类型
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisElementReader RESULT_READER = RedisElementReader.from(RedisLockScripts.ARGS_SERIALIZER);
+
+    private final ReactiveRedisTemplate<String, String> reactiveRedisTemplate;
+
+    private final RedisLockSubscriber subscriber;
+
+    /**
+     * 是否给锁名加 hash tag, 见 {@link RedisLockKeys#lockKey}; 判断时要取一个阻塞连接, 所以放在构造时而不是事件循环线程上
+     */
+    private final boolean hashTags;
+
+    @Autowired
+    @SuppressWarnings("unchecked")
+    public ReactiveRedisLock(ReactiveRedisConnectionFactory connectionFactory, RedisTemplate redisTemplate,
+                             RedisLockSubscriber subscriber) {
+        // key 的序列化方式与 RedisTemplate 保持一致, 才能和 RedisLock 锁同一个键
+        RedisSerializationContext<String, String> context = RedisSerializationContext
+                .<String, String>newSerializationContext(RedisSerializer.string())
+                .key((RedisSerializer<String>) redisTemplate.getKeySerializer())
+                .build();
+        this.reactiveRedisTemplate = new ReactiveRedisTemplate<>(connectionFactory, context);
+        this.subscriber = subscriber;
+        this.hashTags = RedisLockKeys.usesHashTags(redisTemplate);
+    }
+
+    /**
+     * 在 waitTime 内获取分布式锁
+     *
+     * @param waitTime  最长等待时间, 0 表示只尝试一次
+     * @param leaseTime 租期
+     * @return 抢到锁时发出锁凭证, waitTime 内没有抢到时为空
+     */
+    public Mono<AsyncLockHandle> tryLock(String key, long waitTime, long leaseTime, TimeUnit unit) {
+        String redisKey = hashTags ? RedisLockKeys.hashTag(key) : key;
+        String value = LockOwners.next();
+        long leaseMillis = unit.toMillis(leaseTime);
+        if (waitTime <= 0) {
+            return acquire(redisKey, value, leaseMillis)
+                    .flatMap(reply -> isAcquired(reply) ? Mono.just(handle(redisKey, value, leaseMillis, reply)) : Mono.empty());
+        }
+        // 先登记等待再抢锁, 避免错过登记之前发出的释放通知; 结束、出错、取消时都会取消登记
+        return Mono.using(
+                () -> subscriber.subscribe(RedisLockSubscriber.channel(redisKey)),
+                entry -> {
+                    long deadline = System.nanoTime() + unit.toNanos(waitTime);
+                    return acquireOrWait(redisKey, value, leaseMillis, deadline, entry);
+                },
+                subscriber::unsubscribe);
+    }
+
+    /**
+     * 抢一次, 失败时等通知或租期到期后再抢, 直到 deadline
+     */
+    private Mono<AsyncLockHandle> acquireOrWait(String key, String value, long leaseMillis, long deadline,
+                                           RedisLockSubscriber.Entry entry) {
+        return Mono.defer(() -> {
+            // 在发出抢锁命令前记下, 抢锁失败后登记等待时据此发现中间错过的释放通知
+            long generation = entry.generation();
+            return acquire(key, value, leaseMillis).flatMap(reply -> {
+                if (isAcquired(reply)) {
+                    return Mono.just(handle(key, value, leaseMillis, reply));
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return Mono.empty();
+                }
+                // ttl < 0 表示持有者没有设置过期时间, 只能等通知
+                long ttl = ((Number) reply.get(1)).longValue();
+                long waitNanos = ttl >= 0 ? Math.min(TimeUnit.MILLISECONDS.toNanos(ttl), remaining) : remaining;
+                return awaitRelease(entry, generation, Duration.ofNanos(waitNanos))
+                        .then(acquireOrWait(key, value, leaseMillis, deadline, entry));
+            });
+        });
+    }
+
+    /**
+     * 抢一次锁
+     *
+     * @return {1, fencing token} 或 {0, 持有者剩余的毫秒数}
+     */
+    @SuppressWarnings("unchecked")
+    private Mono<List<?>> acquire(String key, String value, long leaseMillis) {
+        List<String> keys = Arrays.asList(key, key + ":fencing");
+        return reactiveRedisTemplate.execute(RedisLockScripts.LOCK, keys,
+                Arrays.asList(value, String.valueOf(leaseMillis)), ARGS_WRITER, RESULT_READER)
+                .next()
+                .map(reply -> (List<?>) reply);
+    }
+
+    private static boolean isAcquired(List<?> reply) {
+        return ((Number) reply.get(0)).longValue() == 1;
+    }
+
+    private static AsyncLockHandle handle(String key, String value, long leaseMillis, List<?> reply) {
+        return new AsyncLockHandle(key, value, ((Number) reply.get(1)).longValue(), leaseMillis);
+    }
+
+    /**
+     * 不占用线程地等待释放通知, 最多等 timeout
+     *
+     * @param generation 抢锁前的 {@link RedisLockSubscriber.Entry#generation()}
+     */
+    private static Mono<Void> awaitRelease(RedisLockSubscriber.Entry entry, long generation, Duration timeout) {
+        Mono<Void> notified = Mono.create(sink -> {
+            Runnable listener = sink::success;
+            entry.onRelease(generation, listener);
+            sink.onDispose(() -> entry.removeListener(listener));
+        });
+        return Mono.first(notified, Mono.delay(timeout).then());
+    }
+
+    /**
+     * 释放分布式锁
+     */
+    @SuppressWarnings("unchecked")
+    public Mono<Void> release(AsyncLockHandle handle) {
+        return reactiveRedisTemplate.execute(RedisLockScripts.UNLOCK, Collections.singletonList(handle.getKey()),
+                Arrays.asList(handle.getValue(), RedisLockSubscriber.channel(handle.getKey())),
+                ARGS_WRITER, RESULT_READER)
+                .next()
+                .doOnNext(result -> log.info("释放锁结果：[{}]", result))
+                .then();
+    }
+
+    /**
+     * 持有锁执行 action, 默认最长等待 30 秒、租期 10 秒
+     */
+    public <T> Mono<T> usingLock(String key, Mono<T> action) {
+        return usingLock(key, DEFAULT_WAIT_SECONDS, DEFAULT_LEASE_SECONDS, TimeUnit.SECONDS, action);
+    }
+
+    /**
+     * 持有锁执行 action：action 完成、出错或被取消时都会释放锁
+     *
+     * @throws IllegalStateException waitTime 内没有抢到锁(错误信号)
+     */
+    public <T> Mono<T> usingLock(String key, long waitTime, long leaseTime, TimeUnit unit, Mono<T> action) {
+        return tryLock(key, waitTime, leaseTime, unit)
+                .switchIfEmpty(Mono.error(() -> new IllegalStateException("没有抢到锁：" + key)))
+                .flatMap(handle -> action
+                        .flatMap(result -> release(handle).thenReturn(result))
+                        .switchIfEmpty(release(handle).then(Mono.empty()))
+                        .onErrorResume(e -> release(handle).then(Mono.error(e)))
+                        .doOnCancel(() -> release(handle).subscribe()));
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisFairLock
+ * @description 公平的 redis 锁：
+ *              抢不到锁的等待者按先后顺序进入 redis 中的等待队列(key:queue), 锁空闲时只有队首能抢到;
+ *              释放锁时脚本直接把锁交给队首的等待者, 并只通知这一个等待者(每个等待者有自己的通知频道),
+ *              高并发下不会有等待者饿死, 也不会每次释放都引起全部等待者重试。
+ *              等待者放弃等待时离开队列; 挂掉的等待者在其等待截止时间后被移出队列, 两种情况都会唤醒新的队首。
+ *              同一个键不要和 RedisLock 混用
+ * @date created in 2026-10-18 19:10
+ * @modified by
+ */
+@Slf4j
+public class RedisFairLock extends AbstractRenewableRedisLock {
+
+    /**
+     * redis值, 同时也是等待者id
+     */
+    private final String value;
+
+    private final List<String> keys;
+
+    private RedisLockWatchdog.Renewal renewal;
+
+    /**
+     * 本次 tryLock 是否会等待, 只有会等待的才进入等待队列
+     */
+    private boolean waiting;
+
+    /**
+     * 本次 tryLock 放弃等待的时间点(System.nanoTime); 队列里的截止时间由脚本按 redis 的时间换算
+     */
+    private long giveUpAt;
+
+    public RedisFairLock(RedisTemplate redisTemplate, String key, int expireTime) {
+        this(redisTemplate, null, key, expireTime);
+    }
+
+    public RedisFairLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        super(redisTemplate, subscriber, key, expireTime);
+        this.value = LockOwners.next();
+        this.keys = Arrays.asList(this.key, this.key + ":queue", this.key + ":timeouts", this.key + ":leases");
+    }
+
+    @Override
+    public RedisFairLock withWatchdog(RedisLockWatchdog watchdog) {
+        super.withWatchdog(watchdog);
+        return this;
+    }
+
+    @Override
+    public RedisFairLock withWaitStrategy(WaitStrategy waitStrategy) {
+        super.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * 获取分布式锁, 只尝试一次
+     */
+    public boolean getLock() {
+        try {
+            return tryLock(0, expireTime, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // 不等待时不会被中断
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        waiting = waitTime > 0;
+        giveUpAt = System.nanoTime() + unit.toNanos(waitTime);
+        boolean acquired = false;
+        try {
+            acquired = super.tryLock(waitTime, leaseTime, unit);
+            return acquired;
+        } finally {
+            // 超时或者被中断都要离开队列, 否则空闲的锁要给这个已经不在等的队首一直留到它的截止时间
+            if (!acquired && waiting) {
+                cancel();
+            }
+        }
+    }
+
+    /**
+     * 离开等待队列, 锁空闲时唤醒新的队首
+     */
+    private void cancel() {
+        Boolean handedOff = RedisLockScripts.execute(redisTemplate, RedisLockScripts.FAIR_CANCEL, keys,
+                value, RedisLockSubscriber.channel(key));
+        if (Boolean.TRUE.equals(handedOff)) {
+            // 放弃的同时锁刚好交接给了自己, 转交给下一个等待者
+            unLock();
+        }
+    }
+
+    /**
+     * 只等待交接给自己的通知
+     */
+    @Override
+    protected String channel() {
+        return RedisLockSubscriber.channel(key) + ":" + value;
+    }
+
+    @Override
+    protected Long tryAcquire(long leaseMillis) {
+        long remainingWait = waiting ? Math.max(1, TimeUnit.NANOSECONDS.toMillis(giveUpAt - System.nanoTime())) : 0;
+        Long ttl = RedisLockScripts.execute(redisTemplate, RedisLockScripts.FAIR_LOCK, keys,
+                value, String.valueOf(leaseMillis), String.valueOf(remainingWait), RedisLockSubscriber.channel(key));
+        if (ttl == null && watchdog != null && renewal == null) {
+            renewal = watchdog.watch(RedisLockScripts.RENEW, key, value, leaseMillis);
+        }
+        return ttl;
+    }
+
+    @Override
+    public boolean unLock() {
+        if (renewal != null) {
+            renewal.cancel();
+            renewal = null;
+        }
+        Boolean result = RedisLockScripts.execute(redisTemplate, RedisLockScripts.FAIR_UNLOCK, keys,
+                value, RedisLockSubscriber.channel(key));
+        log.info("释放锁结果：[{}]", result);
+        return result;
+    }
+
+}
@@ -1,15 +1,15 @@
 package com.example.distributelock.lock;
 
+import com.example.distributelockcore.LockMetrics;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
 import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.script.RedisScript;
-import org.springframework.data.redis.core.types.Expiration;
 
 import java.util.Arrays;
 import java.util.List;
-import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author eddie.lee
@@ -21,80 +21,302 @@ import java.util.UUID;
  * @modified by
  */
 @Slf4j
-public class RedisLock implements AutoCloseable {
-
-    private RedisTemplate redisTemplate;
+public class RedisLock extends AbstractRenewableRedisLock {
 
     /**
-     * redis键
+     * 指标的 backend 标签
      */
-    private String key;
+    public static final String BACKEND = "redis";
 
     /**
      * redis值
      */
     private String value;
 
+    private RedisLockWatchdog.Renewal renewal;
+
+    private long fencingToken = -1;
+
+    /**
+     * 自适应租期, 为空时租期固定为 expireTime
+     */
+    private AdaptiveLeasePolicy leasePolicy;
+
+    /**
+     * 加锁成功的时间(System.nanoTime), 0 表示未持有
+     */
+    private long acquiredAt;
+
+    private LockMetrics metrics = LockMetrics.global();
+
+    private LockHistograms histograms = LockHistograms.global();
+
+    /**
+     * 锁状态的本地缓存, 为空时每次抢锁都访问 redis
+     */
+    private RedisLockTracker tracker;
+
+    /**
+     * 持有锁期间的计时
+     */
+    private LockMetrics.Sample sample;
+
+    /**
+     * 加锁脚本的 KEYS 和 ARGV：键、fencing 计数器键、值、租期; 每把锁只编码一次, 重试时复用
+     */
+    private final byte[][] lockArgs;
+
+    /**
+     * 释放脚本的 KEYS 和 ARGV：键、值、释放频道
+     */
+    private final byte[][] unlockArgs;
+
+    /**
+     * lockArgs 中租期对应的毫秒数
+     */
+    private long encodedLeaseMillis = -1;
+
     /**
-     * 单位：秒
+     * 复用的回调, 不必每次加锁、释放都新建
      */
-    private int expireTime;
+    private final RedisCallback<List<Object>> lockCallback = this::evalLock;
+
+    private final RedisCallback<Boolean> unlockCallback = this::evalUnlock;
 
     public RedisLock(RedisTemplate redisTemplate, String key, int expireTime) {
-        this.key = key;
-        this.expireTime = expireTime;
-        this.redisTemplate = redisTemplate;
+        this(redisTemplate, null, key, expireTime);
+    }
+
+    /**
+     * 不指定租期, 需要配合 {@link #withAdaptiveLease(AdaptiveLeasePolicy)} 按实际持有时间计算
+     */
+    public RedisLock(RedisTemplate redisTemplate, String key) {
+        this(redisTemplate, null, key, 0);
+    }
+
+    public RedisLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key) {
+        this(redisTemplate, subscriber, key, 0);
+    }
+
+    public RedisLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        super(redisTemplate, subscriber, key, expireTime);
         // 可以传入, 也可以自己生成
-        this.value = UUID.randomUUID().toString();
+        this.value = LockOwners.next();
+        byte[] rawKey = RedisLockKeys.encode(redisTemplate.getKeySerializer(), this.key);
+        byte[] rawValue = RedisLockScripts.ARGS_SERIALIZER.serialize(value);
+        this.lockArgs = new byte[][]{rawKey, RedisLockKeys.encode(redisTemplate.getKeySerializer(), fencingKey(this.key)), rawValue, null};
+        this.unlockArgs = new byte[][]{rawKey, rawValue, RedisLockScripts.ARGS_SERIALIZER.serialize(RedisLockSubscriber.channel(this.key))};
+    }
+
+    @Override
+    public RedisLock withWatchdog(RedisLockWatchdog watchdog) {
+        super.withWatchdog(watchdog);
+        return this;
+    }
+
+    @Override
+    public RedisLock withWaitStrategy(WaitStrategy waitStrategy) {
+        super.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * 记录每次的持有时间; 构造时没有指定租期(expireTime 为 0)的锁, 租期由它按键前缀的持有时间计算
+     */
+    public RedisLock withAdaptiveLease(AdaptiveLeasePolicy leasePolicy) {
+        this.leasePolicy = leasePolicy;
+        return this;
+    }
+
+    /**
+     * 指标默认注册到 Metrics.globalRegistry
+     */
+    public RedisLock withMetrics(LockMetrics metrics) {
+        this.metrics = metrics;
+        return this;
+    }
+
+    /**
+     * 等待、持有时间的直方图默认记录到 LockHistograms.global()
+     */
+    public RedisLock withHistograms(LockHistograms histograms) {
+        this.histograms = histograms;
+        return this;
+    }
+
+    /**
+     * 已知被其他人持有时抢锁直接失败, 不访问 redis, 直到收到释放通知或持有者租期到期
+     */
+    public RedisLock withTracker(RedisLockTracker tracker) {
+        this.tracker = tracker;
+        return this;
     }
 
     /**
      * 获取分布式锁
      */
     public boolean getLock() {
-        RedisCallback<Boolean> redisCallback = connection -> {
-            // 设置NX
-            RedisStringCommands.SetOption setOption = RedisStringCommands.SetOption.ifAbsent();
-            // 设置过期时间
-            Expiration expiration = Expiration.seconds(expireTime);
+        long start = System.nanoTime();
+        LockMetrics.Sample sample = metrics.startAcquire(BACKEND, name);
+        // 与 tryLock 共用加锁脚本, 同样会发放 fencing token
+        boolean acquired = false;
+        try {
+            acquired = tryAcquire(defaultLeaseMillis()) == null;
+        } finally {
+            onAcquireFinished(sample, start, acquired, false);
+        }
+        return acquired;
+    }
 
-            // 序列化 key value
-            byte[] eddieKey = redisTemplate.getKeySerializer().serialize(key);
-            byte[] redisValue = redisTemplate.getKeySerializer().serialize(value);
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        LockMetrics.Sample sample = metrics.startAcquire(BACKEND, name);
+        boolean acquired = false;
+        try {
+            acquired = super.tryLock(waitTime, leaseTime, unit);
+        } finally {
+            onAcquireFinished(sample, start, acquired, waitTime > 0);
+        }
+        return acquired;
+    }
 
-            // 执行 setnx 操作
-            assert eddieKey != null;
-            assert redisValue != null;
-            return connection.set(eddieKey, redisValue, expiration, setOption);
-        };
-        // 获取分布式锁
-        return (boolean) redisTemplate.execute(redisCallback);
+    private void onAcquireFinished(LockMetrics.Sample sample, long start, boolean acquired, boolean waited) {
+        sample.finish(acquired, waited);
+        histograms.recordWait(name, System.nanoTime() - start);
+        if (acquired) {
+            this.sample = sample;
+            histograms.holding(name, value);
+        }
+    }
+
+    @Override
+    protected long defaultLeaseMillis() {
+        if (expireTime > 0) {
+            return super.defaultLeaseMillis();
+        }
+        return leasePolicy != null ? leasePolicy.leaseMillis(name) : AdaptiveLeasePolicy.DEFAULT_LEASE_MILLIS;
     }
 
     /**
-     * 释放分布式锁
+     * 本次持有锁的 fencing token：
+     * 同一个键每次加锁成功都会得到一个更大的值, 写共享资源时带上它,
+     * 资源端拒绝比已见过的更小的 token, 这样租期过期后(如长时间 GC)的旧持有者就写不进去了
+     *
+     * @return 未持有锁时为 -1
      */
-    public boolean unLock() {
-        // lua脚本
-        String luaScript = "if redis.call(\"get\",KEYS[1]) == ARGV[1] then\n" +
-                "    return redis.call(\"del\",KEYS[1])\n" +
-                "else\n" +
-                "    return 0\n" +
-                "end";
-        RedisScript<Boolean> redisScript = RedisScript.of(luaScript, Boolean.class);
-        List<String> keys = Arrays.asList(key);
-        Boolean result = (Boolean) redisTemplate.execute(redisScript, keys, value);
-        log.info("释放锁结果：[{}]", result);
-        return result;
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    /**
+     * 不重新加锁, 给当前持有者换一个新的 fencing token, 锁在本地交给下一个线程时使用(见 {@link RedisTwoTierLock})
+     *
+     * @return 新的 token, 锁已经丢失时为 -1
+     */
+    long nextFencingToken() {
+        Long token = (Long) redisTemplate.execute((RedisCallback<Long>) connection -> RedisLockScripts.evalSha(
+                connection, RedisLockScripts.FENCING_TOKEN, ReturnType.INTEGER, 2, Arrays.copyOf(lockArgs, 3)));
+        fencingToken = token == null ? -1 : token;
+        return fencingToken;
+    }
+
+    /**
+     * 不重新加锁, 把当前持有者的租期重置为 leaseMillis, 锁在本地交给下一个线程时使用(见 {@link RedisTwoTierLock})
+     *
+     * @return 锁已经过期或被别人拿走时为 false
+     */
+    boolean extend(long leaseMillis) {
+        byte[][] renewArgs = {lockArgs[0], lockArgs[2], RedisLockScripts.ARGS_SERIALIZER.serialize(String.valueOf(leaseMillis))};
+        Boolean extended = (Boolean) redisTemplate.execute((RedisCallback<Boolean>) connection -> RedisLockScripts.evalSha(
+                connection, RedisLockScripts.RENEW, ReturnType.BOOLEAN, 1, renewArgs));
+        return Boolean.TRUE.equals(extended);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected Long tryAcquire(long leaseMillis) {
+        long stamp = 0;
+        if (tracker != null) {
+            Long held = tracker.heldMillis(key);
+            if (held != null) {
+                return held;
+            }
+            stamp = tracker.stamp(key);
+        }
+        if (leaseMillis != encodedLeaseMillis) {
+            lockArgs[3] = RedisLockScripts.ARGS_SERIALIZER.serialize(String.valueOf(leaseMillis));
+            encodedLeaseMillis = leaseMillis;
+        }
+        List<Object> result = (List<Object>) redisTemplate.execute(lockCallback);
+        if ((Long) result.get(0) == 0) {
+            Long ttl = (Long) result.get(1);
+            if (tracker != null) {
+                tracker.held(key, stamp, ttl);
+            }
+            return ttl;
+        }
+        if (tracker != null) {
+            // 同一个 JVM 里其他抢这把锁的实例也不必访问 redis
+            tracker.held(key, stamp, leaseMillis);
+        }
+        fencingToken = (Long) result.get(1);
+        onAcquired(leaseMillis);
+        return null;
+    }
+
+    private List<Object> evalLock(RedisConnection connection) {
+        return RedisLockScripts.evalSha(connection, RedisLockScripts.LOCK, ReturnType.MULTI, 2, lockArgs);
+    }
 
+    private Boolean evalUnlock(RedisConnection connection) {
+        return RedisLockScripts.evalSha(connection, RedisLockScripts.UNLOCK, ReturnType.BOOLEAN, 1, unlockArgs);
     }
 
     /**
-     * jdk1.7 出的特性
+     * fencing token 计数器的键, 不过期
      */
+    private static String fencingKey(String key) {
+        return key + ":fencing";
+    }
+
+    private void onAcquired(long leaseMillis) {
+        acquiredAt = System.nanoTime();
+        if (watchdog != null) {
+            renewal = watchdog.watch(RedisLockScripts.RENEW, key, value, leaseMillis);
+        }
+    }
+
     @Override
-    public void close() throws Exception {
-        unLock();
+    public boolean unLock() {
+        // 没有抢到锁(如 try-with-resources 里 getLock 失败)时不访问 redis, 也不能让本地缓存失效：锁还在别人手里
+        if (acquiredAt == 0) {
+            return false;
+        }
+        // 先停止续期再释放
+        if (renewal != null) {
+            renewal.cancel();
+            renewal = null;
+        }
+        fencingToken = -1;
+        long holdNanos = System.nanoTime() - acquiredAt;
+        histograms.released(name, value, holdNanos);
+        if (leasePolicy != null) {
+            leasePolicy.record(name, holdNanos, TimeUnit.NANOSECONDS);
+        }
+        acquiredAt = 0;
+        if (sample != null) {
+            sample.released();
+            sample = null;
+        }
+        // 共享的预加载脚本, 走 EVALSHA
+        Boolean result = (Boolean) redisTemplate.execute(unlockCallback);
+        if (tracker != null) {
+            tracker.invalidate(key);
+        }
+        log.info("释放锁结果：[{}]", result);
+        return result;
+
     }
 
 }
@@ -0,0 +1,119 @@
+package com.example.distributelock.lock;
+
+import org.springframework.data.redis.connection.RedisClusterConnection;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockKeys
+ * @description 锁的键编码缓存：
+ *              RedisTemplate 默认的 key 序列化器是 JDK 序列化, 每次序列化都要新建 ObjectOutputStream;
+ *              热点键(如 order、smsKey)只编码一次, 之后直接复用 byte[]。
+ *              按序列化器分别缓存, 保证和 RedisTemplate 编码出的键完全一致; 缓存满了之后新键不再缓存。
+ *              另外负责集群模式下锁名到 redis 键的映射, 见 {@link #lockKey}
+ * @date created in 2026-10-18 21:55
+ * @modified by
+ */
+public final class RedisLockKeys {
+
+    /**
+     * 每个序列化器最多缓存的键数
+     */
+    private static final int MAX_CACHED_KEYS = 4096;
+
+    private static final Map<RedisSerializer<?>, Map<String, byte[]>> CACHES = new ConcurrentHashMap<>();
+
+    /**
+     * 连接工厂 -> 是否给锁名加 hash tag
+     */
+    private static final Map<RedisConnectionFactory, Boolean> HASH_TAGS = new ConcurrentHashMap<>();
+
+    private RedisLockKeys() {
+    }
+
+    /**
+     * 锁名在 redis 中的键。
+     * 集群模式下, 同一个脚本操作的锁键和辅助键(key:fencing、key:queue 等)必须在同一个 slot, 否则报 CROSSSLOT;
+     * 这里给锁名加上 hash tag(order:1001 -> {order:1001}), 辅助键都在它后面追加后缀, slot 只由 tag 中的锁名决定,
+     * 不同的锁仍然分散到各个分片。锁名本身已经带有 hash tag 时原样使用, 调用方可以借此让几把锁落在同一个 slot。
+     * 单机模式下键不变, 与升级前的节点锁的是同一个键
+     */
+    public static String lockKey(RedisTemplate redisTemplate, String key) {
+        return usesHashTags(redisTemplate) ? hashTag(key) : key;
+    }
+
+    /**
+     * 锁名已经带有 hash tag 时原样返回, 否则整个锁名作为 hash tag
+     */
+    public static String hashTag(String key) {
+        return hasHashTag(key) ? key : "{" + key + "}";
+    }
+
+    /**
+     * 与 redis 的规则一致：第一个 { 之后第一个 } 之前的内容不为空
+     */
+    static boolean hasHashTag(String key) {
+        int open = key.indexOf('{');
+        return open >= 0 && key.indexOf('}', open + 1) > open + 1;
+    }
+
+    /**
+     * 是否给锁名加 hash tag, 默认集群连接才加; 第一次调用时取一个连接判断, 之后复用结果
+     */
+    public static boolean usesHashTags(RedisTemplate redisTemplate) {
+        RedisConnectionFactory factory = redisTemplate.getConnectionFactory();
+        if (factory == null) {
+            return false;
+        }
+        Boolean hashTags = HASH_TAGS.get(factory);
+        if (hashTags == null) {
+            hashTags = HASH_TAGS.computeIfAbsent(factory, RedisLockKeys::isCluster);
+        }
+        return hashTags;
+    }
+
+    /**
+     * 覆盖自动判断, 例如通过代理(不是集群连接)访问集群时打开; 必须在创建锁之前设置
+     */
+    public static void useHashTags(RedisConnectionFactory factory, boolean hashTags) {
+        HASH_TAGS.put(factory, hashTags);
+    }
+
+    private static boolean isCluster(RedisConnectionFactory factory) {
+        RedisConnection connection = factory.getConnection();
+        try {
+            return connection instanceof RedisClusterConnection;
+        } finally {
+            connection.close();
+        }
+    }
+
+    /**
+     * 编码键, 返回的数组是共享的, 不能修改
+     */
+    @SuppressWarnings("unchecked")
+    public static byte[] encode(RedisSerializer serializer, String key) {
+        Map<String, byte[]> cache = CACHES.get(serializer);
+        if (cache == null) {
+            cache = CACHES.computeIfAbsent(serializer, s -> new ConcurrentHashMap<>());
+        }
+        byte[] raw = cache.get(key);
+        if (raw != null) {
+            return raw;
+        }
+        raw = serializer.serialize(key);
+        if (cache.size() < MAX_CACHED_KEYS) {
+            cache.putIfAbsent(key, raw);
+        }
+        return raw;
+    }
+
+}
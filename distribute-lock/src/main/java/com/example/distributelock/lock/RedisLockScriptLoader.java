@@ -0,0 +1,40 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockScriptLoader
+ * @description 应用启动后把锁脚本一次性 SCRIPT LOAD 到 redis
+ * @date created in 2026-10-18 10:20
+ * @modified by
+ */
+@Slf4j
+@Component
+public class RedisLockScriptLoader implements ApplicationRunner {
+
+    @Autowired
+    private RedisTemplate redisTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            redisTemplate.execute((RedisCallback<Void>) connection -> {
+                RedisLockScripts.loadAll(connection);
+                return null;
+            });
+        } catch (Exception e) {
+            // 预加载失败不影响使用, 首次执行时会回退到 EVAL
+            log.warn("预加载锁脚本失败：[{}]", e.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,236 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockScripts
+ * @description 锁相关 lua 脚本的注册表：
+ *              所有脚本只编译一次(sha1 只计算一次), 被所有 RedisLock 对象共享;
+ *              启动时通过 SCRIPT LOAD 预加载, 执行时走 EVALSHA, 服务端返回 NOSCRIPT 时自动回退到 EVAL。
+ *              脚本一律按 UTF-8 发送, sha1 也按 UTF-8 计算, 与平台默认编码无关。
+ *              租期截止时间、等待截止时间一律在脚本里用 redis 的 TIME 计算, 不用客户端的时钟：
+ *              时钟快了几秒的客户端会把别人还没到期的读者、许可当成过期清掉。
+ *              TIME 之后还要写, redis 5 之前需要先调用 redis.replicate_commands()
+ * @date created in 2026-10-18 10:12
+ * @modified by
+ */
+@Slf4j
+public final class RedisLockScripts {
+
+    /**
+     * 脚本参数统一按 UTF-8 字符串编码, 数字参数需先转成字符串
+     */
+    public static final RedisSerializer<String> ARGS_SERIALIZER = RedisSerializer.string();
+
+    private static final List<RedisScript<?>> SCRIPTS = new ArrayList<>();
+
+    /**
+     * 加锁：SET NX PX, 成功时返回 {1, fencing token}, 失败时返回 {0, 持有者剩余的毫秒数}
+     */
+    public static final RedisScript<List> LOCK = register("lua/lock.lua", List.class);
+
+    /**
+     * 释放锁：值相等才删除, 并向等待者发布释放通知
+     */
+    public static final RedisScript<Boolean> UNLOCK = register("lua/unlock.lua", Boolean.class);
+
+    /**
+     * 重新发放 fencing token：仍是持有者才 INCR, 不重新加锁
+     */
+    public static final RedisScript<Long> FENCING_TOKEN = register("lua/fencing_token.lua", Long.class);
+
+    /**
+     * 续期：值相等才 PEXPIRE
+     */
+    public static final RedisScript<Boolean> RENEW = register("lua/renew.lua", Boolean.class);
+
+    /**
+     * 可重入加锁：hash 记录持有者及重入次数
+     */
+    public static final RedisScript<Long> REENTRANT_LOCK = register("lua/reentrant_lock.lua", Long.class);
+
+    /**
+     * 可重入释放：重入次数减到 0 才删除并通知等待者
+     */
+    public static final RedisScript<Long> REENTRANT_UNLOCK = register("lua/reentrant_unlock.lua", Long.class);
+
+    /**
+     * 可重入续期：持有者才 PEXPIRE
+     */
+    public static final RedisScript<Boolean> REENTRANT_RENEW = register("lua/reentrant_renew.lua", Boolean.class);
+
+    /**
+     * 多键加锁：全部空闲才一起加锁, 否则一个都不加
+     */
+    public static final RedisScript<Long> MULTI_LOCK = register("lua/multi_lock.lua", Long.class);
+
+    /**
+     * 多键释放：释放仍属于自己的键并通知等待者
+     */
+    public static final RedisScript<Long> MULTI_UNLOCK = register("lua/multi_unlock.lua", Long.class);
+
+    /**
+     * 读锁加锁：没有写锁、也没有等待中的写者时共享加锁
+     */
+    public static final RedisScript<Long> READ_LOCK = register("lua/read_lock.lua", Long.class);
+
+    /**
+     * 读锁释放：最后一个读者离开时唤醒全部等待者
+     */
+    public static final RedisScript<Boolean> READ_UNLOCK = register("lua/read_unlock.lua", Boolean.class);
+
+    /**
+     * 写锁加锁：独占, 需要等待时登记写者等待标记, 阻止新的读者进入
+     */
+    public static final RedisScript<Long> WRITE_LOCK = register("lua/write_lock.lua", Long.class);
+
+    /**
+     * 写者放弃等待：清除写者等待标记
+     */
+    public static final RedisScript<Boolean> WRITE_CANCEL = register("lua/write_cancel.lua", Boolean.class);
+
+    /**
+     * 信号量获取：先回收过期的许可, 剩余许可足够才一次性发放 n 个
+     */
+    public static final RedisScript<Long> SEMAPHORE_ACQUIRE = register("lua/semaphore_acquire.lua", Long.class);
+
+    /**
+     * 信号量释放：归还自己的许可并唤醒全部等待者
+     */
+    public static final RedisScript<Long> SEMAPHORE_RELEASE = register("lua/semaphore_release.lua", Long.class);
+
+    /**
+     * 信号量可用许可数：总数减去还没到期的许可
+     */
+    public static final RedisScript<Long> SEMAPHORE_AVAILABLE = register("lua/semaphore_available.lua", Long.class);
+
+    /**
+     * 公平加锁：按等待队列先后顺序, 只有队首的等待者能抢到空闲的锁
+     */
+    public static final RedisScript<Long> FAIR_LOCK = register("lua/fair_lock.lua", Long.class);
+
+    /**
+     * 公平释放：直接把锁交给队首的等待者, 只唤醒这一个等待者
+     */
+    public static final RedisScript<Boolean> FAIR_UNLOCK = register("lua/fair_unlock.lua", Boolean.class);
+
+    /**
+     * 公平锁放弃等待：离开等待队列, 返回期间是否已经被交接了锁
+     */
+    public static final RedisScript<Boolean> FAIR_CANCEL = register("lua/fair_cancel.lua", Boolean.class);
+
+    private RedisLockScripts() {
+    }
+
+    private static <T> RedisScript<T> register(String location, Class<T> resultType) {
+        DefaultRedisScript<T> script = new Utf8RedisScript<>();
+        script.setLocation(new ClassPathResource(location));
+        script.setResultType(resultType);
+        SCRIPTS.add(script);
+        return script;
+    }
+
+    /**
+     * DefaultRedisScript 按平台默认编码计算 sha1, 而 SCRIPT LOAD、EVAL 发送的是 UTF-8;
+     * 平台编码不是 UTF-8、脚本里又有非 ASCII 字符时两边对不上, EVALSHA 永远 NOSCRIPT, 每次都退回 EVAL
+     */
+    private static final class Utf8RedisScript<T> extends DefaultRedisScript<T> {
+
+        private volatile String sha1;
+
+        @Override
+        public String getSha1() {
+            String sha1 = this.sha1;
+            if (sha1 == null) {
+                sha1 = sha1Hex(getScriptAsString().getBytes(StandardCharsets.UTF_8));
+                this.sha1 = sha1;
+            }
+            return sha1;
+        }
+    }
+
+    static String sha1Hex(byte[] bytes) {
+        try {
+            return String.format("%040x", new BigInteger(1, MessageDigest.getInstance("SHA-1").digest(bytes)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * 已注册的全部脚本
+     */
+    public static List<RedisScript<?>> all() {
+        return Collections.unmodifiableList(SCRIPTS);
+    }
+
+    /**
+     * 执行脚本：RedisTemplate 内部先 EVALSHA, 遇到 NOSCRIPT 再 EVAL
+     *
+     * @param keys 按模板的 key 序列化器序列化
+     * @param args 按 {@link #ARGS_SERIALIZER} 序列化, 必须是字符串
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T execute(RedisTemplate redisTemplate, RedisScript<T> script, List<String> keys, Object... args) {
+        return (T) redisTemplate.execute(script, ARGS_SERIALIZER, null, keys, args);
+    }
+
+    /**
+     * 在已有连接上执行脚本, 参数已经编码好：先 EVALSHA, 遇到 NOSCRIPT 再 EVAL。
+     * 不经过 RedisTemplate 的脚本执行器, 没有每次调用的键、参数序列化和中间集合
+     *
+     * @param keysAndArgs 前 numKeys 个为 KEYS, 其余为 ARGV
+     */
+    public static <T> T evalSha(RedisConnection connection, RedisScript<?> script, ReturnType returnType,
+                                int numKeys, byte[][] keysAndArgs) {
+        try {
+            return connection.evalSha(script.getSha1(), returnType, numKeys, keysAndArgs);
+        } catch (RuntimeException e) {
+            if (!isNoScript(e)) {
+                throw e;
+            }
+            return connection.eval(script.getScriptAsString().getBytes(StandardCharsets.UTF_8), returnType, numKeys, keysAndArgs);
+        }
+    }
+
+    /**
+     * 是否因为脚本还没加载而失败(redis 重启或执行过 SCRIPT FLUSH)
+     */
+    public static boolean isNoScript(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause.getMessage() != null && cause.getMessage().contains("NOSCRIPT")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * SCRIPT LOAD 预加载全部脚本
+     */
+    public static void loadAll(RedisConnection connection) {
+        for (RedisScript<?> script : SCRIPTS) {
+            String sha1 = connection.scriptLoad(script.getScriptAsString().getBytes(StandardCharsets.UTF_8));
+            log.info("预加载锁脚本：[{}]", sha1);
+        }
+    }
+
+}
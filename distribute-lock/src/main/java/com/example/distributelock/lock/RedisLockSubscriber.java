@@ -0,0 +1,201 @@
+package com.example.distributelock.lock;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.PatternTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockSubscriber
+ * @description 锁释放通知的订阅者：
+ *              每把锁有自己的释放频道, 释放锁的脚本 PUBLISH 后唤醒一个本地等待者去重试。
+ *              整个 JVM 只在启动时 PSUBSCRIBE 一次, 等待者只在本地登记, 进入等待时不需要再和 redis 交互,
+ *              也不会因为订阅还没生效而错过通知
+ * @date created in 2026-10-18 11:05
+ * @modified by
+ */
+@Component
+public class RedisLockSubscriber implements MessageListener, DisposableBean {
+
+    /**
+     * 释放频道前缀
+     */
+    public static final String CHANNEL_PREFIX = "redis_lock_channel:";
+
+    /**
+     * 唤醒全部等待者的消息
+     */
+    public static final String WAKE_ALL_MESSAGE = "1";
+
+    private final RedisMessageListenerContainer container;
+
+    /**
+     * 频道 -> 本地等待者
+     */
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    /**
+     * 每条释放通知都会回调, 参数为锁的 redis 键, 见 RedisLockTracker
+     */
+    private final List<Consumer<String>> releaseListeners = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public RedisLockSubscriber(RedisConnectionFactory connectionFactory) {
+        this.container = new RedisMessageListenerContainer();
+        this.container.setConnectionFactory(connectionFactory);
+        this.container.addMessageListener(this, new PatternTopic(CHANNEL_PREFIX + "*"));
+        this.container.afterPropertiesSet();
+        this.container.start();
+    }
+
+    /**
+     * 锁的释放频道
+     */
+    public static String channel(String key) {
+        return CHANNEL_PREFIX + key;
+    }
+
+    /**
+     * 监听所有锁的释放, 在订阅线程上执行, 不能阻塞
+     */
+    public void addReleaseListener(Consumer<String> listener) {
+        releaseListeners.add(listener);
+    }
+
+    /**
+     * 登记等待者, 引用计数 +1
+     */
+    public synchronized Entry subscribe(String channel) {
+        Entry entry = entries.computeIfAbsent(channel, Entry::new);
+        entry.refs++;
+        return entry;
+    }
+
+    /**
+     * 引用计数 -1, 最后一个等待者离开时移除
+     */
+    public synchronized void unsubscribe(Entry entry) {
+        if (--entry.refs == 0) {
+            entries.remove(entry.channel);
+        }
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String channel = new String(message.getChannel(), StandardCharsets.UTF_8);
+        // 先让本地缓存失效, 再唤醒等待者, 被唤醒的重试不会读到过时的缓存
+        for (Consumer<String> listener : releaseListeners) {
+            listener.accept(channel.substring(CHANNEL_PREFIX.length()));
+        }
+        Entry entry = entries.get(channel);
+        if (entry == null) {
+            return;
+        }
+        // 先记下这次释放再取回调, 晚于这里登记的回调能从 generation 看出错过了这条通知
+        entry.generation.incrementAndGet();
+        // 消息体为 1 时唤醒全部等待者(如读锁可以同时进入), 否则只唤醒一个
+        if (WAKE_ALL_MESSAGE.equals(new String(message.getBody(), StandardCharsets.UTF_8))) {
+            entry.latch.release(Math.max(1, entry.refs));
+            for (Runnable listener; (listener = entry.listeners.poll()) != null; ) {
+                listener.run();
+            }
+        } else {
+            entry.latch.release();
+            Runnable listener = entry.listeners.poll();
+            if (listener != null) {
+                listener.run();
+            }
+        }
+    }
+
+    @Override
+    public void destroy() throws Exception {
+        container.destroy();
+    }
+
+    public static class Entry {
+
+        private final String channel;
+
+        /**
+         * 每条释放通知放行一个(或全部)等待者
+         */
+        private final Semaphore latch = new Semaphore(0);
+
+        /**
+         * 异步等待者的一次性回调, 在订阅线程上执行, 不能阻塞
+         */
+        private final Queue<Runnable> listeners = new ConcurrentLinkedQueue<>();
+
+        /**
+         * 收到过的释放通知条数
+         */
+        private final AtomicLong generation = new AtomicLong();
+
+        private volatile int refs;
+
+        Entry(String channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * 等待释放通知
+         *
+         * @return 是否收到通知, false 表示等待超时
+         */
+        public boolean await(long timeout, TimeUnit unit) throws InterruptedException {
+            return latch.tryAcquire(timeout, unit);
+        }
+
+        /**
+         * 抢锁之前调用, 结果交给 {@link #onRelease(long, Runnable)}
+         *
+         * @return 到目前为止收到的释放通知条数
+         */
+        public long generation() {
+            return generation.get();
+        }
+
+        /**
+         * 不占用线程地等待下一条释放通知。
+         * 抢锁失败到登记回调之间锁可能已经释放, 那条通知找不到回调就丢了;
+         * 所以抢锁前先记下 generation, 登记时发现它变了就立即回调, 不再等下一条
+         *
+         * @param generation 抢锁前的 {@link #generation()}
+         */
+        public void onRelease(long generation, Runnable listener) {
+            listeners.add(listener);
+            // onMessage 已经取走回调时 remove 失败, 不会重复回调
+            if (this.generation.get() != generation && listeners.remove(listener)) {
+                listener.run();
+            }
+        }
+
+        /**
+         * 取消还没触发的回调
+         */
+        public void removeListener(Runnable listener) {
+            listeners.remove(listener);
+        }
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.example.distributelock.lock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockTracker
+ * @description 锁状态的本地缓存(可选), 整个 JVM 共用一个：
+ *              抢锁失败时记下"这个键被持有, 还剩多少毫秒", 之后同一个键的抢锁直接失败, 不再发 SET NX,
+ *              直到收到释放通知(失效)或持有者的租期到期。热点键上轮询的大部分往返只是为了得知锁还被持有, 这部分全部省掉。
+ *              失效通知复用 RedisLockSubscriber 已经订阅的释放频道, 而不是 RESP3 client tracking:
+ *              当前的 Lettuce 5.1 不支持 RESP3, 锁的释放本来就会 PUBLISH, 效果相同, 也不要求 redis 6。
+ *              订阅断线重连期间可能漏掉释放通知, 所以每条缓存最多保留 maxCacheMillis
+ * @date created in 2026-10-19 02:40
+ * @modified by
+ */
+@Component
+public class RedisLockTracker {
+
+    /**
+     * 默认每条缓存最多保留的毫秒数
+     */
+    public static final long DEFAULT_MAX_CACHE_MILLIS = 5000;
+
+    /**
+     * 最多缓存的键数, 满了之后新键不再缓存
+     */
+    private static final int MAX_KEYS = 10000;
+
+    /**
+     * 失效计数的分段数(2的幂)
+     */
+    private static final int STRIPES = 64;
+
+    /**
+     * redis键 -> 已知被持有到什么时候(System.nanoTime)
+     */
+    private final Map<String, Long> heldUntil = new ConcurrentHashMap<>();
+
+    /**
+     * 按键分段的失效计数：抢锁前记下, 抢锁失败后计数变了说明期间收到过释放通知, 结果已经过时, 不能缓存
+     */
+    private final AtomicLongArray invalidations = new AtomicLongArray(STRIPES);
+
+    private final long maxCacheNanos;
+
+    @Autowired
+    public RedisLockTracker(RedisLockSubscriber subscriber) {
+        this(subscriber, DEFAULT_MAX_CACHE_MILLIS);
+    }
+
+    public RedisLockTracker(RedisLockSubscriber subscriber, long maxCacheMillis) {
+        this.maxCacheNanos = TimeUnit.MILLISECONDS.toNanos(maxCacheMillis);
+        subscriber.addReleaseListener(this::invalidate);
+    }
+
+    /**
+     * 已知被持有时返回持有者剩余的毫秒数, 否则为 null, 需要去 redis 抢
+     */
+    public Long heldMillis(String key) {
+        Long until = heldUntil.get(key);
+        if (until == null) {
+            return null;
+        }
+        long remaining = until - System.nanoTime();
+        if (remaining <= 0) {
+            heldUntil.remove(key, until);
+            return null;
+        }
+        return Math.max(1, TimeUnit.NANOSECONDS.toMillis(remaining));
+    }
+
+    /**
+     * 抢锁前调用, 结果传给 {@link #held}
+     */
+    public long stamp(String key) {
+        return invalidations.get(stripe(key));
+    }
+
+    /**
+     * 抢锁失败(或自己抢到)后记下键被持有
+     *
+     * @param stamp      抢锁前的 {@link #stamp}
+     * @param holdMillis 持有者剩余的毫秒数
+     */
+    public void held(String key, long stamp, long holdMillis) {
+        if (holdMillis <= 0) {
+            return;
+        }
+        if (heldUntil.size() >= MAX_KEYS && !heldUntil.containsKey(key)) {
+            purgeExpired();
+            if (heldUntil.size() >= MAX_KEYS) {
+                return;
+            }
+        }
+        heldUntil.put(key, System.nanoTime() + Math.min(maxCacheNanos, TimeUnit.MILLISECONDS.toNanos(holdMillis)));
+        // 写入之后再检查, 与 invalidate 的"先计数再删除"配合, 不会留下过时的缓存
+        if (invalidations.get(stripe(key)) != stamp) {
+            heldUntil.remove(key);
+        }
+    }
+
+    /**
+     * 键被释放, 丢弃缓存
+     */
+    public void invalidate(String key) {
+        invalidations.incrementAndGet(stripe(key));
+        heldUntil.remove(key);
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        for (Iterator<Long> it = heldUntil.values().iterator(); it.hasNext(); ) {
+            if (it.next() - now <= 0) {
+                it.remove();
+            }
+        }
+    }
+
+    private static int stripe(String key) {
+        int h = key.hashCode();
+        return (h ^ (h >>> 16)) & (STRIPES - 1);
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockWatchdog
+ * @description 锁续期看门狗(可选), 整个 JVM 共用一个：
+ *              基于时间轮, 所有持有中的锁按下次续期时间挂到槽上, 只有一个线程推进时间轮;
+ *              同一个槽到期的锁用一次 pipeline 批量执行"校验持有者 + PEXPIRE"脚本续期,
+ *              而不是每把锁一个定时器、一次网络往返
+ * @date created in 2026-10-18 14:02
+ * @modified by
+ */
+@Slf4j
+@Component
+public class RedisLockWatchdog implements DisposableBean {
+
+    /**
+     * 时间轮每格的毫秒数
+     */
+    private static final long TICK_MILLIS = 100;
+
+    /**
+     * 时间轮格数(2的幂), 一圈 51.2 秒, 更远的续期用圈数表示
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final RedisTemplate redisTemplate;
+
+    /**
+     * 只由时间轮线程访问
+     */
+    private final List<Queue<Renewal>> wheel = new ArrayList<>(WHEEL_SIZE);
+
+    /**
+     * 新登记的续期先进入队列, 由时间轮线程挂到槽上
+     */
+    private final Queue<Renewal> pending = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService ticker;
+
+    private long tick;
+
+    @Autowired
+    public RedisLockWatchdog(RedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        for (int i = 0; i < WHEEL_SIZE; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "redis-lock-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.ticker.scheduleAtFixedRate(this::advance, TICK_MILLIS, TICK_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 登记一把已经抢到的锁, 每隔租期的 1/3 续期一次
+     *
+     * @param renewScript 校验持有者并续期的脚本, KEYS[1] 为锁的键, ARGV 为持有者和租期(毫秒)
+     * @param leaseMillis 每次续期的租期
+     * @return 释放锁前需要 {@link Renewal#cancel()}
+     */
+    public Renewal watch(RedisScript<Boolean> renewScript, String key, String value, long leaseMillis) {
+        Renewal renewal = new Renewal(
+                renewScript.getSha1(),
+                RedisLockKeys.encode(redisTemplate.getKeySerializer(), key),
+                RedisLockScripts.ARGS_SERIALIZER.serialize(value),
+                leaseMillis);
+        pending.add(renewal);
+        return renewal;
+    }
+
+    /**
+     * 推进一格
+     */
+    private void advance() {
+        try {
+            tick++;
+            for (Renewal renewal; (renewal = pending.poll()) != null; ) {
+                schedule(renewal);
+            }
+            List<Renewal> due = new ArrayList<>();
+            Iterator<Renewal> iterator = wheel.get((int) (tick & MASK)).iterator();
+            while (iterator.hasNext()) {
+                Renewal renewal = iterator.next();
+                if (renewal.cancelled) {
+                    iterator.remove();
+                } else if (renewal.remainingRounds > 0) {
+                    renewal.remainingRounds--;
+                } else {
+                    iterator.remove();
+                    due.add(renewal);
+                }
+            }
+            if (!due.isEmpty()) {
+                renew(due);
+            }
+        } catch (Throwable e) {
+            // 异常不能抛出, 否则后续的 tick 不再执行
+            log.error("锁续期失败", e);
+        }
+    }
+
+    private void schedule(Renewal renewal) {
+        long ticks = Math.max(1, renewal.leaseMillis / 3 / TICK_MILLIS);
+        renewal.remainingRounds = ticks / WHEEL_SIZE;
+        wheel.get((int) ((tick + ticks) & MASK)).add(renewal);
+    }
+
+    /**
+     * 一次 pipeline 续期整批锁, 失去锁的不再续期
+     */
+    private void renew(List<Renewal> due) {
+        List<Object> results;
+        try {
+            results = renewPipelined(due);
+        } catch (Exception e) {
+            if (!RedisLockScripts.isNoScript(e)) {
+                // 租期还剩 2/3, 下一轮再试
+                log.warn("锁续期失败, 下一轮重试：[{}]", e.getMessage());
+                due.forEach(this::schedule);
+                return;
+            }
+            try {
+                redisTemplate.execute((RedisCallback<Void>) connection -> {
+                    RedisLockScripts.loadAll(connection);
+                    return null;
+                });
+                results = renewPipelined(due);
+            } catch (Exception retry) {
+                // 重新加载脚本或重试时断线、主从切换, 同样下一轮再试, 不能让这一批锁就此不再续期
+                log.warn("重新加载脚本后锁续期失败, 下一轮重试：[{}]", retry.getMessage());
+                due.forEach(this::schedule);
+                return;
+            }
+        }
+        for (int i = 0; i < due.size(); i++) {
+            Renewal renewal = due.get(i);
+            if (renewal.cancelled) {
+                continue;
+            }
+            if (Boolean.TRUE.equals(results.get(i))) {
+                schedule(renewal);
+            } else {
+                log.warn("锁已丢失, 停止续期：[{}]", redisTemplate.getKeySerializer().deserialize(renewal.key));
+            }
+        }
+    }
+
+    private List<Object> renewPipelined(List<Renewal> due) {
+        return redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (Renewal renewal : due) {
+                connection.evalSha(renewal.sha1, ReturnType.BOOLEAN, 1, renewal.key, renewal.value, renewal.lease);
+            }
+            return null;
+        });
+    }
+
+    @Override
+    public void destroy() {
+        ticker.shutdownNow();
+    }
+
+    public static class Renewal {
+
+        private final String sha1;
+
+        private final byte[] key;
+
+        private final byte[] value;
+
+        private final byte[] lease;
+
+        private final long leaseMillis;
+
+        private volatile boolean cancelled;
+
+        private long remainingRounds;
+
+        Renewal(String sha1, byte[] key, byte[] value, long leaseMillis) {
+            this.sha1 = sha1;
+            this.key = key;
+            this.value = value;
+            this.leaseMillis = leaseMillis;
+            this.lease = RedisLockScripts.ARGS_SERIALIZER.serialize(String.valueOf(leaseMillis));
+        }
+
+        /**
+         * 停止续期, 从时间轮上的移除延后到所在槽被推进时
+         */
+        public void cancel() {
+            cancelled = true;
+        }
+    }
+
+}
@@ -0,0 +1,106 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisMultiLock
+ * @description 多键锁：一次脚本调用原子地锁住一组键(全部成功或全部失败), 释放也只需一次调用。
+ *              例如一个订单包含多个商品, 按商品加锁只需一次网络往返, 也不需要部分成功后的回滚;
+ *              与 RedisLock 使用相同的键和值结构, 可以和单键的 RedisLock 互斥。
+ *              集群模式下一次脚本调用只能操作同一个 slot 的键, 这组锁名需要带有相同的 hash tag, 如 {order:1001}:item:1
+ * @date created in 2026-10-18 16:40
+ * @modified by
+ */
+@Slf4j
+public class RedisMultiLock implements AutoCloseable {
+
+    private RedisTemplate redisTemplate;
+
+    /**
+     * redis值, 所有键共用
+     */
+    private String value;
+
+    /**
+     * 已经锁住的键
+     */
+    private List<String> keys = Collections.emptyList();
+
+    public RedisMultiLock(RedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+        this.value = LockOwners.next();
+    }
+
+    /**
+     * 一次性锁住全部键
+     *
+     * @param keys      锁名
+     * @param leaseTime 租期
+     * @return 是否全部锁住, false 时一个键都没有锁
+     */
+    public boolean tryLockAll(List<String> keys, long leaseTime, TimeUnit unit) {
+        if (!this.keys.isEmpty()) {
+            throw new IllegalStateException("已经持有锁：" + this.keys);
+        }
+        List<String> lockKeys = lockKeys(keys);
+        Long ttl = RedisLockScripts.execute(redisTemplate, RedisLockScripts.MULTI_LOCK, lockKeys,
+                value, String.valueOf(unit.toMillis(leaseTime)));
+        if (ttl != null) {
+            return false;
+        }
+        this.keys = lockKeys;
+        return true;
+    }
+
+    /**
+     * 一次性释放全部键
+     *
+     * @return 释放的键数量
+     */
+    public long unLockAll() {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Object[] args = new Object[keys.size() + 1];
+        args[0] = value;
+        for (int i = 0; i < keys.size(); i++) {
+            args[i + 1] = RedisLockSubscriber.channel(keys.get(i));
+        }
+        Long released = RedisLockScripts.execute(redisTemplate, RedisLockScripts.MULTI_UNLOCK, keys, args);
+        log.info("释放锁结果：[{}/{}]", released, keys.size());
+        keys = Collections.emptyList();
+        return released;
+    }
+
+    /**
+     * 锁名对应的 redis 键; 集群模式下不在同一个 slot 时脚本一定失败, 提前报错
+     */
+    private List<String> lockKeys(List<String> names) {
+        List<String> lockKeys = new ArrayList<>(names.size());
+        byte[][] rawKeys = new byte[names.size()][];
+        for (int i = 0; i < names.size(); i++) {
+            lockKeys.add(RedisLockKeys.lockKey(redisTemplate, names.get(i)));
+            rawKeys[i] = RedisLockKeys.encode(redisTemplate.getKeySerializer(), lockKeys.get(i));
+        }
+        if (RedisLockKeys.usesHashTags(redisTemplate) && !ClusterSlotHashUtil.isSameSlotForAllKeys(rawKeys)) {
+            throw new IllegalArgumentException("集群模式下多键锁的锁名需要带有相同的 hash tag：" + names);
+        }
+        return lockKeys;
+    }
+
+    @Override
+    public void close() throws Exception {
+        unLockAll();
+    }
+
+}
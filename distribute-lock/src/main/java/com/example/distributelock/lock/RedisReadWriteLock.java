@@ -0,0 +1,160 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisReadWriteLock
+ * @description redis 读写锁：
+ *              读锁共享, 任意多个读者可以同时持有; 写锁独占;
+ *              写者优先, 有写者在等待时新的读者不能进入, 避免写者被源源不断的读者饿死;
+ *              每次加锁、释放都是一次 lua 脚本调用。
+ *              键结构：key 为写锁, key:readers 为读者 zset(持有者 -> 租期截止时间, redis 服务端时间), key:writer_waiting 为写者等待标记
+ * @date created in 2026-10-18 17:20
+ * @modified by
+ */
+@Slf4j
+public class RedisReadWriteLock {
+
+    /**
+     * 写者等待标记在下次重试之后多保留的毫秒数
+     */
+    private static final long WAITING_FLAG_MARGIN_MILLIS = 1000;
+
+    private final ReadLock readLock;
+
+    private final WriteLock writeLock;
+
+    public RedisReadWriteLock(RedisTemplate redisTemplate, String key, int expireTime) {
+        this(redisTemplate, null, key, expireTime);
+    }
+
+    public RedisReadWriteLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        this.readLock = new ReadLock(redisTemplate, subscriber, key, expireTime);
+        this.writeLock = new WriteLock(redisTemplate, subscriber, key, expireTime);
+    }
+
+    public ReadLock readLock() {
+        return readLock;
+    }
+
+    public WriteLock writeLock() {
+        return writeLock;
+    }
+
+    private static String readersKey(String key) {
+        return key + ":readers";
+    }
+
+    private static String writerWaitingKey(String key) {
+        return key + ":writer_waiting";
+    }
+
+    public static class ReadLock extends AbstractRedisLock {
+
+        private final String owner = LockOwners.next();
+
+        ReadLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+            super(redisTemplate, subscriber, key, expireTime);
+        }
+
+        @Override
+        public ReadLock withWaitStrategy(WaitStrategy waitStrategy) {
+            super.withWaitStrategy(waitStrategy);
+            return this;
+        }
+
+        @Override
+        protected Long tryAcquire(long leaseMillis) {
+            List<String> keys = Arrays.asList(key, readersKey(key), writerWaitingKey(key));
+            return RedisLockScripts.execute(redisTemplate, RedisLockScripts.READ_LOCK, keys,
+                    owner, String.valueOf(leaseMillis));
+        }
+
+        @Override
+        public boolean unLock() {
+            List<String> keys = Collections.singletonList(readersKey(key));
+            Boolean result = RedisLockScripts.execute(redisTemplate, RedisLockScripts.READ_UNLOCK, keys,
+                    owner, RedisLockSubscriber.channel(key));
+            log.info("释放读锁结果：[{}]", result);
+            return result;
+        }
+    }
+
+    public static class WriteLock extends AbstractRenewableRedisLock {
+
+        private final String owner = LockOwners.next();
+
+        private RedisLockWatchdog.Renewal renewal;
+
+        /**
+         * 本次 tryLock 是否会等待, 只有会等待的写者才登记等待标记
+         */
+        private boolean waiting;
+
+        WriteLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+            super(redisTemplate, subscriber, key, expireTime);
+        }
+
+        @Override
+        public WriteLock withWatchdog(RedisLockWatchdog watchdog) {
+            super.withWatchdog(watchdog);
+            return this;
+        }
+
+        @Override
+        public WriteLock withWaitStrategy(WaitStrategy waitStrategy) {
+            super.withWaitStrategy(waitStrategy);
+            return this;
+        }
+
+        @Override
+        public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+            waiting = waitTime > 0;
+            if (super.tryLock(waitTime, leaseTime, unit)) {
+                return true;
+            }
+            if (waiting) {
+                // 放弃等待, 让被挡住的读者进入
+                RedisLockScripts.execute(redisTemplate, RedisLockScripts.WRITE_CANCEL,
+                        Collections.singletonList(writerWaitingKey(key)),
+                        owner, RedisLockSubscriber.channel(key));
+            }
+            return false;
+        }
+
+        @Override
+        protected Long tryAcquire(long leaseMillis) {
+            List<String> keys = Arrays.asList(key, readersKey(key), writerWaitingKey(key));
+            Long ttl = RedisLockScripts.execute(redisTemplate, RedisLockScripts.WRITE_LOCK, keys,
+                    owner, String.valueOf(leaseMillis), String.valueOf(waiting ? WAITING_FLAG_MARGIN_MILLIS : 0));
+            if (ttl == null && watchdog != null) {
+                renewal = watchdog.watch(RedisLockScripts.RENEW, key, owner, leaseMillis);
+            }
+            return ttl;
+        }
+
+        @Override
+        public boolean unLock() {
+            if (renewal != null) {
+                renewal.cancel();
+                renewal = null;
+            }
+            // 写锁释放后读者可以一起进入, 唤醒全部等待者
+            Boolean result = RedisLockScripts.execute(redisTemplate, RedisLockScripts.UNLOCK,
+                    Collections.singletonList(key),
+                    owner, RedisLockSubscriber.channel(key), RedisLockSubscriber.WAKE_ALL_MESSAGE);
+            log.info("释放写锁结果：[{}]", result);
+            return result;
+        }
+    }
+
+}
@@ -0,0 +1,255 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisRedLock
+ * @description 多个独立 redis 节点上的 Redlock：
+ *              并行向 N 个节点发送 SET NX PX, 每个节点单独超时(超时的请求被中断, 不占着线程), 多数节点(N/2+1)成功且剩余有效期为正才算抢到锁;
+ *              凑够多数节点就返回, 加锁耗时取决于多数节点中最慢的那个, 而不是所有节点耗时之和;
+ *              抢锁失败或释放时并行向全部节点释放。
+ *              有效期 = 租期 - 加锁耗时(单调时钟) - 时钟漂移, 业务必须在有效期内完成
+ * @date created in 2026-10-18 19:50
+ * @modified by
+ */
+@Slf4j
+public class RedisRedLock implements AutoCloseable {
+
+    /**
+     * 节点请求线程数的上限, 每轮加锁或释放每个节点占一个线程
+     */
+    static final int NODE_THREADS = 16;
+
+    /**
+     * 所有 RedisRedLock 共用的节点请求线程, 线程数有上限;
+     * 超时的请求以中断的方式取消, lettuce 的同步命令可以被中断, 卡住的节点不会一直占着线程
+     */
+    private static final ThreadPoolExecutor EXECUTOR = new ThreadPoolExecutor(NODE_THREADS, NODE_THREADS,
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "redis-redlock");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        EXECUTOR.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 时钟漂移系数
+     */
+    private static final double CLOCK_DRIFT_FACTOR = 0.01;
+
+    /**
+     * 独立的 redis 节点
+     */
+    private final List<RedisTemplate> nodes;
+
+    private final String key;
+
+    /**
+     * 单位：秒
+     */
+    private final int expireTime;
+
+    private final String value;
+
+    /**
+     * 单个节点的超时时间(毫秒), 应远小于租期
+     */
+    private long nodeTimeoutMillis = 50;
+
+    /**
+     * 锁有效期的截止时间(System.nanoTime), 0 表示未持有
+     */
+    private long validUntil;
+
+    public RedisRedLock(List<RedisTemplate> nodes, String key, int expireTime) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("至少需要一个 redis 节点");
+        }
+        this.nodes = new ArrayList<>(nodes);
+        this.key = key;
+        this.expireTime = expireTime;
+        this.value = LockOwners.next();
+    }
+
+    /**
+     * 设置单个节点的超时时间, 超时的节点视为加锁失败
+     */
+    public RedisRedLock withNodeTimeout(long timeout, TimeUnit unit) {
+        this.nodeTimeoutMillis = unit.toMillis(timeout);
+        return this;
+    }
+
+    /**
+     * 获取分布式锁, 只尝试一轮
+     */
+    public boolean getLock() {
+        try {
+            return tryLock(0, expireTime, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 在 waitTime 内获取分布式锁, 每轮失败后随机退避再重试, 避免多个客户端同时抢锁导致谁都凑不够多数
+     *
+     * @param waitTime  最长等待时间
+     * @param leaseTime 租期
+     */
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long leaseMillis = unit.toMillis(leaseTime);
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        while (true) {
+            if (tryAcquire(leaseMillis)) {
+                return true;
+            }
+            long remaining = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (remaining <= 0) {
+                return false;
+            }
+            long backoff = ThreadLocalRandom.current().nextLong(nodeTimeoutMillis, nodeTimeoutMillis * 4 + 1);
+            Thread.sleep(Math.min(backoff, remaining));
+        }
+    }
+
+    /**
+     * 抢一轮锁
+     */
+    private boolean tryAcquire(long leaseMillis) throws InterruptedException {
+        long start = System.nanoTime();
+        int quorum = nodes.size() / 2 + 1;
+        CompletionService<Boolean> completion = new ExecutorCompletionService<>(EXECUTOR);
+        List<Future<Boolean>> futures = new ArrayList<>(nodes.size());
+        for (RedisTemplate node : nodes) {
+            futures.add(completion.submit(() -> setIfAbsent(node, leaseMillis)));
+        }
+        long timeoutAt = start + TimeUnit.MILLISECONDS.toNanos(nodeTimeoutMillis);
+        int acquired = 0;
+        int failed = 0;
+        try {
+            // 凑够多数节点, 或者不可能再凑够时立即结束
+            while (acquired < quorum && nodes.size() - failed >= quorum) {
+                Future<Boolean> done = completion.poll(timeoutAt - System.nanoTime(), TimeUnit.NANOSECONDS);
+                if (done == null) {
+                    break;
+                }
+                if (succeeded(done)) {
+                    acquired++;
+                } else {
+                    failed++;
+                }
+            }
+        } finally {
+            // 不再等的节点中断掉, 结果不重要：加锁失败和 unLock 都会向全部节点释放
+            futures.forEach(future -> future.cancel(true));
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long validity = leaseMillis - elapsedMillis - (long) (leaseMillis * CLOCK_DRIFT_FACTOR) - 2;
+        if (acquired >= quorum && validity > 0) {
+            validUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(validity);
+            return true;
+        }
+        log.info("Redlock 加锁失败：[{}/{}], 有效期 [{}ms]", acquired, nodes.size(), validity);
+        // 还没返回的节点之后也可能加锁成功, 一律释放
+        releaseAll();
+        return false;
+    }
+
+    private boolean setIfAbsent(RedisTemplate node, long leaseMillis) {
+        byte[] rawKey = node.getKeySerializer().serialize(key);
+        byte[] rawValue = RedisLockScripts.ARGS_SERIALIZER.serialize(value);
+        Boolean result = (Boolean) node.execute((RedisCallback<Boolean>) connection ->
+                connection.set(rawKey, rawValue, Expiration.milliseconds(leaseMillis),
+                        RedisStringCommands.SetOption.SET_IF_ABSENT));
+        return Boolean.TRUE.equals(result);
+    }
+
+    private static boolean succeeded(Future<Boolean> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                throw (InterruptedException) e;
+            }
+            log.warn("Redlock 节点加锁失败：[{}]", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * 锁剩余的有效时间, 0 表示已经失效或未持有
+     */
+    public long getValidityMillis() {
+        if (validUntil == 0) {
+            return 0;
+        }
+        return Math.max(0, TimeUnit.NANOSECONDS.toMillis(validUntil - System.nanoTime()));
+    }
+
+    /**
+     * 并行向全部节点释放
+     *
+     * @return 释放的节点数
+     */
+    public int unLock() {
+        validUntil = 0;
+        int released = releaseAll();
+        log.info("释放锁结果：[{}/{}]", released, nodes.size());
+        return released;
+    }
+
+    private int releaseAll() {
+        List<String> keys = Collections.singletonList(key);
+        List<Future<Boolean>> futures = new ArrayList<>(nodes.size());
+        for (RedisTemplate node : nodes) {
+            futures.add(EXECUTOR.submit(() -> RedisLockScripts.execute(node, RedisLockScripts.UNLOCK, keys,
+                    value, RedisLockSubscriber.channel(key))));
+        }
+        int released = 0;
+        long timeoutAt = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(nodeTimeoutMillis);
+        for (Future<Boolean> future : futures) {
+            try {
+                if (Boolean.TRUE.equals(future.get(Math.max(0, timeoutAt - System.nanoTime()), TimeUnit.NANOSECONDS))) {
+                    released++;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // 释放不了的节点等租期到期
+                log.warn("Redlock 节点释放失败：[{}]", e.getMessage());
+            } finally {
+                // 超时的节点同样中断掉, 不占着线程
+                future.cancel(true);
+            }
+        }
+        return released;
+    }
+
+    @Override
+    public void close() throws Exception {
+        unLock();
+    }
+
+}
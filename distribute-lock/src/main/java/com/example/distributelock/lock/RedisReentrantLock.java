@@ -0,0 +1,135 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisReentrantLock
+ * @description 可重入的 redis 锁：
+ *              redis 中用 hash 记录持有者(节点id:线程id)及重入次数;
+ *              同一线程再次加锁只在本地计数 +1, 不访问 redis, 只有最外层的加锁、释放才访问 redis。
+ *              同一个键不要和 RedisLock 混用
+ * @date created in 2026-10-18 15:50
+ * @modified by
+ */
+@Slf4j
+public class RedisReentrantLock extends AbstractRenewableRedisLock {
+
+    /**
+     * 当前线程持有的锁：键 -> 重入次数, 跨 RedisReentrantLock 对象共享
+     */
+    private static final ThreadLocal<Map<String, Hold>> HOLDS = ThreadLocal.withInitial(HashMap::new);
+
+    public RedisReentrantLock(RedisTemplate redisTemplate, String key, int expireTime) {
+        this(redisTemplate, null, key, expireTime);
+    }
+
+    public RedisReentrantLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        super(redisTemplate, subscriber, key, expireTime);
+    }
+
+    @Override
+    public RedisReentrantLock withWatchdog(RedisLockWatchdog watchdog) {
+        super.withWatchdog(watchdog);
+        return this;
+    }
+
+    @Override
+    public RedisReentrantLock withWaitStrategy(WaitStrategy waitStrategy) {
+        super.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * 获取分布式锁, 只尝试一次
+     */
+    public boolean getLock() {
+        try {
+            return tryLock(0, expireTime, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // 不等待时不会被中断
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        // 重入：本地计数即可
+        Hold hold = HOLDS.get().get(key);
+        if (hold != null) {
+            hold.count++;
+            return true;
+        }
+        return super.tryLock(waitTime, leaseTime, unit);
+    }
+
+    @Override
+    protected Long tryAcquire(long leaseMillis) {
+        List<String> keys = Collections.singletonList(key);
+        Long ttl = RedisLockScripts.execute(redisTemplate, RedisLockScripts.REENTRANT_LOCK, keys,
+                owner(), String.valueOf(leaseMillis));
+        if (ttl == null) {
+            Hold hold = new Hold();
+            if (watchdog != null) {
+                hold.renewal = watchdog.watch(RedisLockScripts.REENTRANT_RENEW, key, owner(), leaseMillis);
+            }
+            HOLDS.get().put(key, hold);
+        }
+        return ttl;
+    }
+
+    /**
+     * 当前线程是否持有该锁
+     */
+    public boolean isHeldByCurrentThread() {
+        return HOLDS.get().containsKey(key);
+    }
+
+    @Override
+    public boolean unLock() {
+        Map<String, Hold> holds = HOLDS.get();
+        Hold hold = holds.get(key);
+        if (hold == null) {
+            // 没有持有(包括没抢到锁时 close)
+            return false;
+        }
+        if (--hold.count > 0) {
+            return false;
+        }
+        holds.remove(key);
+        // 先停止续期再释放
+        if (hold.renewal != null) {
+            hold.renewal.cancel();
+        }
+        List<String> keys = Collections.singletonList(key);
+        Long result = RedisLockScripts.execute(redisTemplate, RedisLockScripts.REENTRANT_UNLOCK, keys,
+                owner(), RedisLockSubscriber.channel(key));
+        log.info("释放锁结果：[{}]", result);
+        return result != null && result == 1;
+    }
+
+    /**
+     * 持有者：节点id:线程id
+     */
+    private static String owner() {
+        return LockOwners.NODE_ID + ":" + Thread.currentThread().getId();
+    }
+
+    private static class Hold {
+
+        private int count = 1;
+
+        private RedisLockWatchdog.Renewal renewal;
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisSemaphore
+ * @description redis 计数信号量：最多 permits 个持有者同时执行, 例如限制同时发送短信的节点数、
+ *              或者下游只允许 N 个并发会话。
+ *              许可放在 zset 中(许可id -> 租期截止时间, redis 服务端时间), 每个许可单独过期, 持有者挂掉后许可到期自动回收;
+ *              一次可以获取多个许可, 释放后通过释放通知唤醒等待者
+ * @date created in 2026-10-18 18:40
+ * @modified by
+ */
+@Slf4j
+public class RedisSemaphore extends AbstractRedisLock {
+
+    /**
+     * 许可总数
+     */
+    private final int permits;
+
+    /**
+     * 持有者id, 许可id为 value:1..value:n
+     */
+    private final String value;
+
+    /**
+     * 本次要获取的许可数
+     */
+    private int requested = 1;
+
+    /**
+     * 当前持有的许可数
+     */
+    private int held;
+
+    public RedisSemaphore(RedisTemplate redisTemplate, String key, int permits, int expireTime) {
+        this(redisTemplate, null, key, permits, expireTime);
+    }
+
+    public RedisSemaphore(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int permits, int expireTime) {
+        super(redisTemplate, subscriber, key, expireTime);
+        if (permits <= 0) {
+            throw new IllegalArgumentException("许可总数必须大于0：" + permits);
+        }
+        this.permits = permits;
+        this.value = LockOwners.next();
+    }
+
+    @Override
+    public RedisSemaphore withWaitStrategy(WaitStrategy waitStrategy) {
+        super.withWaitStrategy(waitStrategy);
+        return this;
+    }
+
+    /**
+     * 获取一个许可, 只尝试一次
+     */
+    public boolean getLock() {
+        try {
+            return acquire(1, 0, expireTime, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            // 不等待时不会被中断
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 阻塞获取一个许可, 租期为 expireTime
+     */
+    @Override
+    public boolean lock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return acquire(1, unit.toMillis(waitTime), TimeUnit.SECONDS.toMillis(expireTime), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在 waitTime 内一次性获取 n 个许可, 要么全部拿到, 要么一个都不拿
+     *
+     * @param n         许可数
+     * @param waitTime  最长等待时间
+     * @param leaseTime 租期
+     */
+    public boolean acquire(int n, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        if (n <= 0 || n > permits) {
+            throw new IllegalArgumentException("许可数必须在 1 到 " + permits + " 之间：" + n);
+        }
+        if (held > 0) {
+            throw new IllegalStateException("已经持有许可：" + held);
+        }
+        requested = n;
+        return tryLock(waitTime, leaseTime, unit);
+    }
+
+    @Override
+    protected Long tryAcquire(long leaseMillis) {
+        List<String> keys = Collections.singletonList(key);
+        Long ttl = RedisLockScripts.execute(redisTemplate, RedisLockScripts.SEMAPHORE_ACQUIRE, keys,
+                value, String.valueOf(requested), String.valueOf(permits), String.valueOf(leaseMillis));
+        if (ttl == null) {
+            held = requested;
+        }
+        return ttl;
+    }
+
+    /**
+     * 当前可用的许可数(已过期未回收的算作可用), 按 redis 服务端的时间计算, 各个节点看到的结果一致
+     */
+    public long availablePermits() {
+        Long available = RedisLockScripts.execute(redisTemplate, RedisLockScripts.SEMAPHORE_AVAILABLE,
+                Collections.singletonList(key), String.valueOf(permits));
+        return available == null ? permits : available;
+    }
+
+    /**
+     * 归还持有的全部许可
+     */
+    @Override
+    public boolean unLock() {
+        if (held == 0) {
+            return false;
+        }
+        List<String> keys = Collections.singletonList(key);
+        Long released = RedisLockScripts.execute(redisTemplate, RedisLockScripts.SEMAPHORE_RELEASE, keys,
+                value, String.valueOf(held), RedisLockSubscriber.channel(key));
+        log.info("释放许可结果：[{}/{}]", released, held);
+        held = 0;
+        return released != null && released > 0;
+    }
+
+}
@@ -0,0 +1,308 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisTwoTierLock
+ * @description 两级锁：本地锁 + redis 锁。
+ *              同一个 JVM 里的线程先在本地按键排队(公平的 ReentrantLock), 只有排到队首的线程才去 redis 抢锁,
+ *              200 个线程抢同一个键时, 打到 redis 的请求数只和节点数有关, 和线程数无关。
+ *              释放时如果本地还有人在排队、且租期还剩足够的时间, 就不释放 redis 锁, 直接交给下一个本地线程;
+ *              连续交接 maxLocalHandOffs 次后一定会释放 redis 锁, 让其他节点也有机会拿到。
+ *              本地交接过来的持有者第一次取 fencing token 时, 在 redis 上校验仍持有锁并重新发放一个,
+ *              连续的持有者拿到的 token 也是递增的; 不取 token 就没有这次往返
+ * @date created in 2026-10-18 22:40
+ * @modified by
+ */
+@Slf4j
+public class RedisTwoTierLock implements AutoCloseable {
+
+    /**
+     * redis 连接 -> 键 -> 本地锁, 没有线程使用时移除
+     */
+    private static final Map<RedisTemplate, Map<String, Local>> LOCALS = new ConcurrentHashMap<>();
+
+    /**
+     * 租期剩余不到 1/DIVISOR 时不再本地交接
+     */
+    private static final int HAND_OFF_MIN_REMAINING_DIVISOR = 3;
+
+    private final RedisTemplate redisTemplate;
+
+    private final RedisLockSubscriber subscriber;
+
+    private final String key;
+
+    /**
+     * 单位：秒
+     */
+    private final int expireTime;
+
+    private RedisLockWatchdog watchdog;
+
+    /**
+     * 最多连续本地交接的次数
+     */
+    private int maxLocalHandOffs = 16;
+
+    /**
+     * 持有锁时不为空
+     */
+    private Local local;
+
+    public RedisTwoTierLock(RedisTemplate redisTemplate, String key, int expireTime) {
+        this(redisTemplate, null, key, expireTime);
+    }
+
+    public RedisTwoTierLock(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String key, int expireTime) {
+        this.redisTemplate = redisTemplate;
+        this.subscriber = subscriber;
+        this.key = key;
+        this.expireTime = expireTime;
+    }
+
+    /**
+     * 开启看门狗, 续期期间本地交接不受租期剩余时间的限制
+     */
+    public RedisTwoTierLock withWatchdog(RedisLockWatchdog watchdog) {
+        this.watchdog = watchdog;
+        return this;
+    }
+
+    /**
+     * 设置最多连续本地交接的次数, 0 表示每次都释放 redis 锁
+     */
+    public RedisTwoTierLock withMaxLocalHandOffs(int maxLocalHandOffs) {
+        this.maxLocalHandOffs = maxLocalHandOffs;
+        return this;
+    }
+
+    /**
+     * 获取分布式锁, 不等待
+     */
+    public boolean getLock() {
+        try {
+            return tryLock(0, expireTime, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 阻塞获取分布式锁, 租期为 expireTime
+     *
+     * @param waitTime 最长等待时间, 包括本地排队和等 redis 锁的时间
+     */
+    public boolean lock(long waitTime, TimeUnit unit) throws InterruptedException {
+        return tryLock(unit.toMillis(waitTime), TimeUnit.SECONDS.toMillis(expireTime), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 在 waitTime 内获取分布式锁：先本地排队, 排到后复用交接过来的 redis 锁, 没有再去 redis 抢
+     *
+     * @param waitTime  最长等待时间
+     * @param leaseTime 租期
+     */
+    public boolean tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        if (local != null) {
+            throw new IllegalStateException("已经持有锁：" + key);
+        }
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
+        Local local = acquireLocal();
+        boolean locked = false;
+        boolean acquired = false;
+        try {
+            locked = local.lock.tryLock(waitTime, unit);
+            if (locked) {
+                // 同一个线程重入时外层已经持有 redis 锁
+                acquired = local.lock.getHoldCount() > 1
+                        || local.acquireRemote(this, deadline, unit.toMillis(leaseTime));
+            }
+        } finally {
+            if (!acquired) {
+                if (locked) {
+                    local.lock.unlock();
+                }
+                releaseLocal(local);
+            }
+        }
+        if (acquired) {
+            this.local = local;
+        }
+        return acquired;
+    }
+
+    /**
+     * 本次持有锁的 fencing token, 比之前所有持有者(包括本地交接前的)的都大
+     *
+     * @return 未持有锁时为 -1, 交接过来的锁已经丢失时也为 -1
+     */
+    public long getFencingToken() {
+        return local == null ? -1 : local.fencingToken();
+    }
+
+    /**
+     * 释放锁：本地还有人排队时把 redis 锁交给下一个线程, 否则释放 redis 锁
+     */
+    public boolean unLock() {
+        if (local == null) {
+            return false;
+        }
+        Local local = this.local;
+        this.local = null;
+        try {
+            return local.release(maxLocalHandOffs);
+        } finally {
+            releaseLocal(local);
+        }
+    }
+
+    private Local acquireLocal() {
+        return LOCALS.computeIfAbsent(redisTemplate, t -> new ConcurrentHashMap<>())
+                .compute(key, (k, local) -> {
+                    if (local == null) {
+                        local = new Local(k);
+                    }
+                    local.refs++;
+                    return local;
+                });
+    }
+
+    private void releaseLocal(Local local) {
+        LOCALS.get(redisTemplate).computeIfPresent(key, (k, current) -> --current.refs == 0 ? null : current);
+        // 最后一个线程离开时, 交接出去但没人接手的 redis 锁(排队的线程都超时了)由它释放
+        if (local.refs == 0) {
+            local.releaseOrphan();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        unLock();
+    }
+
+    private static final class Local {
+
+        private final String key;
+
+        /**
+         * 第一级锁, 公平锁保证本地按排队顺序交接
+         */
+        private final ReentrantLock lock = new ReentrantLock(true);
+
+        /**
+         * 使用中(持有或排队)的线程数, 在 LOCALS.compute 中修改
+         */
+        private volatile int refs;
+
+        /**
+         * 以下字段只在持有 lock 时访问
+         */
+        private RedisLock remote;
+
+        private boolean remoteHeld;
+
+        /**
+         * redis 锁的租期截止时间(System.nanoTime)
+         */
+        private long leaseDeadline;
+
+        private long leaseNanos;
+
+        private boolean renewing;
+
+        private int handOffs;
+
+        /**
+         * remote 的 token 是否属于当前持有者, 本地交接后为 false, 用到时再重新发放
+         */
+        private boolean tokenIssued;
+
+        private Local(String key) {
+            this.key = key;
+        }
+
+        private boolean acquireRemote(RedisTwoTierLock owner, long deadline, long leaseMillis) throws InterruptedException {
+            long now = System.nanoTime();
+            if (remoteHeld) {
+                // 没有看门狗时剩下的是上一个持有者的租期, 按自己的租期续上再接手
+                if (renewing || leaseDeadline - now > 0 && remote.extend(leaseMillis)) {
+                    if (!renewing) {
+                        leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+                        leaseDeadline = now + leaseNanos;
+                    }
+                    log.debug("本地交接锁：[{}], 第 [{}] 次", key, handOffs);
+                    tokenIssued = false;
+                    return true;
+                }
+                // 排队太久, 交接过来的租期已经过期或锁已经丢失, 重新抢
+                releaseRemote();
+            }
+            remote = new RedisLock(owner.redisTemplate, owner.subscriber, key, owner.expireTime)
+                    .withWatchdog(owner.watchdog);
+            if (!remote.tryLock(Math.max(0, TimeUnit.NANOSECONDS.toMillis(deadline - now)), leaseMillis, TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+            remoteHeld = true;
+            tokenIssued = true;
+            handOffs = 0;
+            renewing = owner.watchdog != null;
+            leaseNanos = TimeUnit.MILLISECONDS.toNanos(leaseMillis);
+            leaseDeadline = now + leaseNanos;
+            return true;
+        }
+
+        private long fencingToken() {
+            if (!tokenIssued) {
+                remote.nextFencingToken();
+                tokenIssued = true;
+            }
+            return remote.getFencingToken();
+        }
+
+        private boolean release(int maxLocalHandOffs) {
+            try {
+                if (lock.getHoldCount() > 1) {
+                    return true;
+                }
+                if (lock.hasQueuedThreads() && handOffs < maxLocalHandOffs
+                        && (renewing || leaseDeadline - System.nanoTime() >= leaseNanos / HAND_OFF_MIN_REMAINING_DIVISOR)) {
+                    handOffs++;
+                    return true;
+                }
+                return releaseRemote();
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private boolean releaseRemote() {
+            remoteHeld = false;
+            return remote.unLock();
+        }
+
+        private void releaseOrphan() {
+            // 已经没有其他线程使用, tryLock 只是为了看到上一个持有者写入的状态
+            if (lock.tryLock()) {
+                try {
+                    if (remoteHeld) {
+                        releaseRemote();
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.example.distributelock.lock;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName WaitStrategies
+ * @description 内置的等待策略：
+ *              fixed               固定间隔轮询, 释放后最多一个间隔就能抢到, redis 请求数 = 线程数 / 间隔;
+ *              decorrelatedJitter  指数退避 + 去相关抖动, 等待者越等越稀疏, 且不会同时醒来;
+ *              ttl                 睡到持有者的租期结束, 请求最少, 但提前释放的锁要等到租期结束才能抢;
+ *              notifyDriven        默认, 等释放通知(没有订阅者时同 ttl), 锁一释放就唤醒一个等待者
+ * @date created in 2026-10-18 23:55
+ * @modified by
+ */
+public final class WaitStrategies {
+
+    /**
+     * 持有者没有过期时间时, ttl 策略的轮询间隔
+     */
+    private static final long NO_TTL_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final WaitStrategy TTL = (subscriber, channel) -> (ttlMillis, remainingNanos) ->
+            TimeUnit.NANOSECONDS.sleep(ttlNanos(ttlMillis, remainingNanos, NO_TTL_POLL_NANOS));
+
+    private static final WaitStrategy NOTIFY_DRIVEN = NotifyWaiter::new;
+
+    private WaitStrategies() {
+    }
+
+    /**
+     * 固定间隔轮询
+     */
+    public static WaitStrategy fixed(long interval, TimeUnit unit) {
+        long intervalNanos = unit.toNanos(interval);
+        return (subscriber, channel) -> (ttlMillis, remainingNanos) ->
+                TimeUnit.NANOSECONDS.sleep(Math.min(intervalNanos, remainingNanos));
+    }
+
+    /**
+     * 指数退避 + 去相关抖动：每次等待 random(base, 上次等待 * 3), 不超过 cap
+     */
+    public static WaitStrategy decorrelatedJitter(long base, long cap, TimeUnit unit) {
+        long baseNanos = unit.toNanos(base);
+        long capNanos = unit.toNanos(cap);
+        if (baseNanos <= 0 || capNanos < baseNanos) {
+            throw new IllegalArgumentException("退避时间必须满足 0 < base <= cap");
+        }
+        return (subscriber, channel) -> new JitterWaiter(baseNanos, capNanos);
+    }
+
+    /**
+     * 睡到持有者的租期结束
+     */
+    public static WaitStrategy ttl() {
+        return TTL;
+    }
+
+    /**
+     * 等释放通知, 最多等到持有者的租期结束
+     */
+    public static WaitStrategy notifyDriven() {
+        return NOTIFY_DRIVEN;
+    }
+
+    private static long ttlNanos(long ttlMillis, long remainingNanos, long noTtlNanos) {
+        // ttl 为 0 时至少等 1 毫秒, 避免空转
+        long waitNanos = ttlMillis >= 0 ? TimeUnit.MILLISECONDS.toNanos(Math.max(1, ttlMillis)) : noTtlNanos;
+        return Math.min(waitNanos, remainingNanos);
+    }
+
+    private static final class JitterWaiter implements WaitStrategy.Waiter {
+
+        private final long baseNanos;
+
+        private final long capNanos;
+
+        private long sleepNanos;
+
+        private JitterWaiter(long baseNanos, long capNanos) {
+            this.baseNanos = baseNanos;
+            this.capNanos = capNanos;
+            this.sleepNanos = baseNanos;
+        }
+
+        @Override
+        public void await(long ttlMillis, long remainingNanos) throws InterruptedException {
+            long upper = Math.min(capNanos, sleepNanos * 3);
+            sleepNanos = upper > baseNanos ? ThreadLocalRandom.current().nextLong(baseNanos, upper + 1) : baseNanos;
+            TimeUnit.NANOSECONDS.sleep(Math.min(sleepNanos, remainingNanos));
+        }
+    }
+
+    private static final class NotifyWaiter implements WaitStrategy.Waiter {
+
+        private final RedisLockSubscriber subscriber;
+
+        private final RedisLockSubscriber.Entry entry;
+
+        /**
+         * 先登记等待再重试, 避免错过登记之前发出的释放通知
+         */
+        private NotifyWaiter(RedisLockSubscriber subscriber, String channel) {
+            this.subscriber = subscriber;
+            this.entry = subscriber != null ? subscriber.subscribe(channel) : new RedisLockSubscriber.Entry(channel);
+        }
+
+        @Override
+        public void await(long ttlMillis, long remainingNanos) throws InterruptedException {
+            // ttl < 0 表示持有者没有设置过期时间, 只能等通知
+            entry.await(ttlMillis >= 0 ? ttlNanos(ttlMillis, remainingNanos, remainingNanos) : remainingNanos,
+                    TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public void close() {
+            if (subscriber != null) {
+                subscriber.unsubscribe(entry);
+            }
+        }
+    }
+
+}
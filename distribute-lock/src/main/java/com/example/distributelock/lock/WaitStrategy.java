@@ -0,0 +1,40 @@
+package com.example.distributelock.lock;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName WaitStrategy
+ * @description 抢锁失败后怎么等：决定了重试打到 redis 的请求数, 也决定了锁释放后多久能抢到。
+ *              内置实现见 {@link WaitStrategies}, 可以按锁({@link AbstractRedisLock#withWaitStrategy})
+ *              或按次({@link AbstractRedisLock#tryLock(long, long, java.util.concurrent.TimeUnit, WaitStrategy)})指定
+ * @date created in 2026-10-18 23:50
+ * @modified by
+ */
+public interface WaitStrategy {
+
+    /**
+     * 开始一次 tryLock 的等待, 在第一次抢锁失败后、重试之前调用
+     *
+     * @param subscriber 释放通知的订阅者, 可能为空
+     * @param channel    锁的释放频道
+     * @return 只在本次 tryLock 内使用, 结束后关闭
+     */
+    Waiter begin(RedisLockSubscriber subscriber, String channel);
+
+    interface Waiter extends AutoCloseable {
+
+        /**
+         * 抢锁失败后等待, 返回后重试
+         *
+         * @param ttlMillis      持有者剩余的租期(毫秒), 小于 0 表示没有过期时间
+         * @param remainingNanos 剩余的等待时间, 大于 0
+         */
+        void await(long ttlMillis, long remainingNanos) throws InterruptedException;
+
+        @Override
+        default void close() {
+        }
+    }
+
+}
@@ -0,0 +1,38 @@
+package com.example.distributelock.provider;
+
+import com.example.distributelockcore.LockProvider;
+import com.example.distributelockcore.RoutingLockProvider;
+import com.example.distributelockcore.aop.DistributedLockAspect;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.provider
+ * @ClassName LockProviderConfig
+ * @description 注入 LockProvider 时得到按配置路由的实现, 需要指定后端时直接注入 RedisLockProvider 等;
+ *              方法上加 @DistributedLock 时同样按配置路由, 或者用 backend 指定
+ * @date created in 2026-10-19 03:40
+ * @modified by
+ */
+@Configuration
+@EnableConfigurationProperties(LockRoutingProperties.class)
+public class LockProviderConfig {
+
+    @Bean
+    @Primary
+    public RoutingLockProvider routingLockProvider(List<LockProvider> providers, LockRoutingProperties properties) {
+        return RoutingLockProvider.of(providers, properties.getDefaultBackend(), properties.getRoutes());
+    }
+
+    @Bean
+    public DistributedLockAspect distributedLockAspect(RoutingLockProvider routingLockProvider, List<LockProvider> providers) {
+        return new DistributedLockAspect(routingLockProvider, providers);
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.example.distributelock.provider;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.provider
+ * @ClassName LockRoutingProperties
+ * @description 锁后端的路由配置：
+ *              lock.default-backend 默认后端, lock.routes.<锁名前缀> 该前缀使用的后端(redis、mysql)
+ * @date created in 2026-10-19 03:40
+ * @modified by
+ */
+@ConfigurationProperties(prefix = "lock")
+public class LockRoutingProperties {
+
+    private String defaultBackend = "redis";
+
+    private Map<String, String> routes = new LinkedHashMap<>();
+
+    public String getDefaultBackend() {
+        return defaultBackend;
+    }
+
+    public void setDefaultBackend(String defaultBackend) {
+        this.defaultBackend = defaultBackend;
+    }
+
+    public Map<String, String> getRoutes() {
+        return routes;
+    }
+
+    public void setRoutes(Map<String, String> routes) {
+        this.routes = routes;
+    }
+
+}
@@ -0,0 +1,275 @@
+package com.example.distributelock.provider;
+
+import com.example.distributelockcore.AbstractLockHandle;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockException;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockMetrics;
+import com.example.distributelockcore.LockProvider;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.provider
+ * @ClassName MysqlLockProvider
+ * @description distribute_lock 表行锁的 LockProvider 实现, 与 DistributeLockMapper.selectDistributeLock 相同的
+ *              SELECT ... FOR UPDATE, 锁名即 business_code, 行必须事先存在。
+ *              加锁时从连接池取一个独立的连接开启事务, 持有期间一直占用, release 时结束事务并归还;
+ *              不参与调用方的 spring 事务, 否则行锁会随调用方的事务提前释放。
+ *              等待时间通过 innodb_lock_wait_timeout 控制, 只能精确到秒(向上取整); 只尝试一次时用 NOWAIT(MySQL 8)。
+ *              行锁没有租期, 忽略 leaseTime, 连接断开时由 MySQL 回滚事务释放。
+ *              也支持 H2(MODE=MySQL), 用于本地的替身：等待时间改用 H2 的 LOCK_TIMEOUT(毫秒)
+ * @date created in 2026-10-19 03:30
+ * @modified by
+ */
+@Slf4j
+@Component
+public class MysqlLockProvider implements LockProvider {
+
+    public static final String BACKEND = "mysql";
+
+    private static final String SELECT_FOR_UPDATE = "SELECT id FROM distribute_lock WHERE business_code = ? FOR UPDATE";
+
+    /**
+     * 行锁等待超时
+     */
+    private static final int ER_LOCK_WAIT_TIMEOUT = 1205;
+
+    /**
+     * NOWAIT 时行锁被占用
+     */
+    private static final int ER_LOCK_NOWAIT = 3572;
+
+    /**
+     * H2 的锁等待超时
+     */
+    private static final int H2_LOCK_TIMEOUT = 50200;
+
+    /**
+     * H2 的 LOCK_TIMEOUT 默认值(毫秒)
+     */
+    private static final int H2_DEFAULT_LOCK_TIMEOUT = 1000;
+
+    private final DataSource dataSource;
+
+    private final LockMetrics metrics;
+
+    /**
+     * 第一次取到连接时按数据库产品确定
+     */
+    private volatile Dialect dialect;
+
+    @Autowired
+    public MysqlLockProvider(DataSource dataSource) {
+        this(dataSource, LockMetrics.global());
+    }
+
+    public MysqlLockProvider(DataSource dataSource, LockMetrics metrics) {
+        this.dataSource = dataSource;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                return acquire(name, unit.toMillis(waitTime));
+            }
+        };
+    }
+
+    private LockHandle acquire(String name, long waitMillis) throws InterruptedException {
+        if (Thread.interrupted()) {
+            throw new InterruptedException();
+        }
+        LockMetrics.Sample sample = metrics.startAcquire(BACKEND, name);
+        Connection connection = null;
+        Dialect dialect = this.dialect;
+        String restoreSql = null;
+        try {
+            connection = dataSource.getConnection();
+            if (dialect == null) {
+                dialect = this.dialect = Dialect.of(connection);
+            }
+            connection.setAutoCommit(false);
+            String waitTimeoutSql = dialect.waitTimeoutSql(waitMillis);
+            if (waitTimeoutSql != null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(waitTimeoutSql);
+                }
+                restoreSql = dialect.restoreSql();
+            }
+            try (PreparedStatement statement = connection.prepareStatement(dialect.selectForUpdate(waitMillis))) {
+                statement.setString(1, name);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    if (!resultSet.next()) {
+                        throw new LockException("分布式锁找不到：" + name);
+                    }
+                }
+            }
+            sample.acquired();
+            Handle handle = new Handle(name, connection, restoreSql, sample);
+            connection = null;
+            return handle;
+        } catch (SQLException e) {
+            if (dialect != null && dialect.isLockTimeout(e)) {
+                sample.finish(false, waitMillis > 0);
+                return null;
+            }
+            throw new LockException("mysql 加锁失败：" + name, e);
+        } finally {
+            // 没有抢到或出错, 已经记过结果的不会重复记
+            sample.failed();
+            if (connection != null) {
+                endTransaction(connection, restoreSql);
+            }
+        }
+    }
+
+    /**
+     * 结束事务(释放行锁), 恢复会话设置, 归还连接
+     *
+     * @param restoreSql 恢复等待超时设置的语句, 没有改过时为 null
+     */
+    private static void endTransaction(Connection connection, String restoreSql) {
+        try {
+            connection.rollback();
+            if (restoreSql != null) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(restoreSql);
+                }
+            }
+            connection.setAutoCommit(true);
+        } catch (SQLException e) {
+            log.warn("结束锁事务失败", e);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("归还连接失败", e);
+            }
+        }
+    }
+
+    private static class Handle extends AbstractLockHandle {
+
+        private final Connection connection;
+
+        private final String restoreSql;
+
+        private final LockMetrics.Sample sample;
+
+        Handle(String name, Connection connection, String restoreSql, LockMetrics.Sample sample) {
+            super(name, BACKEND, -1);
+            this.connection = connection;
+            this.restoreSql = restoreSql;
+            this.sample = sample;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            sample.released();
+            try {
+                // 连接已经断开时行锁早已随事务回滚释放
+                boolean held = connection.isValid(1);
+                endTransaction(connection, restoreSql);
+                return held;
+            } catch (SQLException e) {
+                endTransaction(connection, restoreSql);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * 不同数据库设置锁等待时间的方式
+     */
+    private enum Dialect {
+
+        MYSQL {
+            @Override
+            String selectForUpdate(long waitMillis) {
+                return waitMillis <= 0 ? SELECT_FOR_UPDATE + " NOWAIT" : SELECT_FOR_UPDATE;
+            }
+
+            @Override
+            String waitTimeoutSql(long waitMillis) {
+                return waitMillis <= 0 ? null
+                        : "SET SESSION innodb_lock_wait_timeout = " + Math.max(1, (waitMillis + 999) / 1000);
+            }
+
+            @Override
+            String restoreSql() {
+                return "SET SESSION innodb_lock_wait_timeout = DEFAULT";
+            }
+
+            @Override
+            boolean isLockTimeout(SQLException e) {
+                return e.getErrorCode() == ER_LOCK_WAIT_TIMEOUT || e.getErrorCode() == ER_LOCK_NOWAIT;
+            }
+        },
+
+        /**
+         * H2 1.4 不支持 NOWAIT, 只尝试一次时等待 1 毫秒
+         */
+        H2 {
+            @Override
+            String selectForUpdate(long waitMillis) {
+                return SELECT_FOR_UPDATE;
+            }
+
+            @Override
+            String waitTimeoutSql(long waitMillis) {
+                return "SET LOCK_TIMEOUT " + Math.max(1, Math.min(waitMillis, Integer.MAX_VALUE));
+            }
+
+            @Override
+            String restoreSql() {
+                return "SET LOCK_TIMEOUT " + H2_DEFAULT_LOCK_TIMEOUT;
+            }
+
+            @Override
+            boolean isLockTimeout(SQLException e) {
+                return e.getErrorCode() == H2_LOCK_TIMEOUT;
+            }
+        };
+
+        static Dialect of(Connection connection) throws SQLException {
+            return "H2".equals(connection.getMetaData().getDatabaseProductName()) ? H2 : MYSQL;
+        }
+
+        abstract String selectForUpdate(long waitMillis);
+
+        /**
+         * @return 设置等待时间的语句, 不需要设置时为 null
+         */
+        abstract String waitTimeoutSql(long waitMillis);
+
+        abstract String restoreSql();
+
+        abstract boolean isLockTimeout(SQLException e);
+    }
+
+}
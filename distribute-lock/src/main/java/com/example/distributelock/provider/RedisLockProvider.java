@@ -0,0 +1,90 @@
+package com.example.distributelock.provider;
+
+import com.example.distributelock.lock.AdaptiveLeasePolicy;
+import com.example.distributelock.lock.RedisLock;
+import com.example.distributelock.lock.RedisLockSubscriber;
+import com.example.distributelockcore.AbstractLockHandle;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockException;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.provider
+ * @ClassName RedisLockProvider
+ * @description {@link RedisLock} 的 LockProvider 实现：每次加锁新建一个 RedisLock, 等待时订阅释放通知;
+ *              leaseTime <= 0 时租期按 AdaptiveLeasePolicy 根据实际持有时间计算
+ * @date created in 2026-10-19 03:30
+ * @modified by
+ */
+@Component
+public class RedisLockProvider implements LockProvider {
+
+    private final RedisTemplate redisTemplate;
+
+    private final RedisLockSubscriber subscriber;
+
+    private final AdaptiveLeasePolicy leasePolicy;
+
+    @Autowired
+    public RedisLockProvider(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, AdaptiveLeasePolicy leasePolicy) {
+        this.redisTemplate = redisTemplate;
+        this.subscriber = subscriber;
+        this.leasePolicy = leasePolicy;
+    }
+
+    @Override
+    public String getBackend() {
+        return RedisLock.BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                RedisLock lock = new RedisLock(redisTemplate, subscriber, name).withAdaptiveLease(leasePolicy);
+                boolean acquired;
+                try {
+                    acquired = leaseTime > 0 ? lock.tryLock(waitTime, leaseTime, unit) : lock.lock(waitTime, unit);
+                } catch (DataAccessException e) {
+                    throw new LockException("redis 加锁失败：" + name, e);
+                }
+                return acquired ? new Handle(name, lock) : null;
+            }
+        };
+    }
+
+    private static class Handle extends AbstractLockHandle {
+
+        private final RedisLock lock;
+
+        Handle(String name, RedisLock lock) {
+            super(name, RedisLock.BACKEND, lock.getFencingToken());
+            this.lock = lock;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            try {
+                return lock.unLock();
+            } catch (DataAccessException e) {
+                throw new LockException("redis 释放锁失败：" + getName(), e);
+            }
+        }
+    }
+
+}
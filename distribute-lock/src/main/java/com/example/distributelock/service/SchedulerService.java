@@ -1,5 +1,6 @@
 package com.example.distributelock.service;
 
+import com.example.distributelock.lock.AdaptiveLeasePolicy;
 import com.example.distributelock.lock.RedisLock;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -23,13 +24,18 @@ public class SchedulerService {
     @Autowired
     private RedisTemplate redisTemplate;
 
+    @Autowired
+    private AdaptiveLeasePolicy adaptiveLeasePolicy;
+
     /**
      * 使用redis.setnx实现分布式锁：
      *      每5秒发送短信给用户
+     *      不写死租期, 按实际发送耗时自动计算, 持有者挂掉后其他节点不用白等 30 秒
      */
     @Scheduled(cron = "0/5 * * * * ?")
     public void sendSms() {
-        try (RedisLock redisLock = new RedisLock(redisTemplate, "smsKey", 30)) {
+        try (RedisLock redisLock = new RedisLock(redisTemplate, "smsKey")
+                .withAdaptiveLease(adaptiveLeasePolicy)) {
             if (redisLock.getLock()) {
                 log.info("向 13800138000 发送一条趣味短信! ");
             }
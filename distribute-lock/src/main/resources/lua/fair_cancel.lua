@@ -0,0 +1,20 @@
+-- fair give-up: leave the waiter queue
+-- returns 1 when the lock was handed to us meanwhile (the caller must release it), otherwise 0
+-- KEYS[1] lock key
+-- KEYS[2] waiter queue list
+-- KEYS[3] waiter timeouts zset
+-- KEYS[4] waiter leases hash
+-- ARGV[1] owner id
+-- ARGV[2] release channel, the waiter's channel is ARGV[2]:owner
+redis.call("lrem", KEYS[2], 1, ARGV[1])
+redis.call("zrem", KEYS[3], ARGV[1])
+redis.call("hdel", KEYS[4], ARGV[1])
+if redis.call("get", KEYS[1]) == ARGV[1] then
+    return 1
+end
+-- the lock is free and reserved for the new head, which may be sleeping until our deadline
+local head = redis.call("lindex", KEYS[2], 0)
+if head and redis.call("exists", KEYS[1]) == 0 then
+    redis.call("publish", ARGV[2] .. ":" .. head, 0)
+end
+return 0
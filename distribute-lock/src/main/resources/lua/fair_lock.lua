@@ -0,0 +1,66 @@
+-- fair acquire: FIFO waiter queue, the lock only goes to the head of the queue
+-- returns nil when acquired (or already handed off to us), otherwise the ms to wait for
+-- KEYS[1] lock key
+-- KEYS[2] waiter queue list (owner ids)
+-- KEYS[3] waiter timeouts zset (owner -> give-up deadline, server time in ms)
+-- KEYS[4] waiter leases hash (owner -> lease in ms, used on hand-off)
+-- ARGV[1] owner id
+-- ARGV[2] lease (ms)
+-- ARGV[3] remaining wait (ms), 0 to not join the queue
+-- ARGV[4] release channel, the waiter's channel is ARGV[4]:owner
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+-- drop waiters at the head that gave up or died
+local dropped = false
+while true do
+    local head = redis.call("lindex", KEYS[2], 0)
+    if not head then
+        break
+    end
+    local deadline = redis.call("zscore", KEYS[3], head)
+    if deadline and tonumber(deadline) > now then
+        break
+    end
+    redis.call("lpop", KEYS[2])
+    redis.call("zrem", KEYS[3], head)
+    redis.call("hdel", KEYS[4], head)
+    dropped = true
+end
+local holder = redis.call("get", KEYS[1])
+if holder == ARGV[1] then
+    return nil
+end
+local head = redis.call("lindex", KEYS[2], 0)
+if not holder and (not head or head == ARGV[1]) then
+    redis.call("set", KEYS[1], ARGV[1], "PX", ARGV[2])
+    if head then
+        redis.call("lpop", KEYS[2])
+        redis.call("zrem", KEYS[3], ARGV[1])
+        redis.call("hdel", KEYS[4], ARGV[1])
+    end
+    return nil
+end
+local wait = tonumber(ARGV[3])
+if wait > 0 then
+    if redis.call("zadd", KEYS[3], now + wait, ARGV[1]) == 1 then
+        redis.call("rpush", KEYS[2], ARGV[1])
+    end
+    redis.call("hset", KEYS[4], ARGV[1], ARGV[2])
+    -- the queue lives as long as its last waiter
+    local last = redis.call("zrange", KEYS[3], -1, -1, "WITHSCORES")
+    for i = 2, 4 do
+        redis.call("pexpire", KEYS[i], math.ceil(tonumber(last[2]) - now))
+    end
+end
+if holder then
+    return redis.call("pttl", KEYS[1])
+end
+-- free but reserved for the head waiter; a new head may still be sleeping
+-- until the deadline of the waiter just dropped, so wake it up
+if dropped then
+    redis.call("publish", ARGV[4] .. ":" .. head, 0)
+end
+return tonumber(redis.call("zscore", KEYS[3], head)) - now
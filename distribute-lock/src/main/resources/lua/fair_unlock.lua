@@ -0,0 +1,33 @@
+-- fair release: hand the lock straight to the head waiter and wake up only that waiter
+-- returns 1 when released, 0 when not the holder
+-- KEYS[1] lock key
+-- KEYS[2] waiter queue list (owner ids)
+-- KEYS[3] waiter timeouts zset (owner -> give-up deadline, server time in ms)
+-- KEYS[4] waiter leases hash (owner -> lease in ms)
+-- ARGV[1] owner id
+-- ARGV[2] release channel, the waiter's channel is ARGV[2]:owner
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+if redis.call("get", KEYS[1]) ~= ARGV[1] then
+    return 0
+end
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+while true do
+    local head = redis.call("lpop", KEYS[2])
+    if not head then
+        break
+    end
+    local deadline = redis.call("zscore", KEYS[3], head)
+    local lease = redis.call("hget", KEYS[4], head)
+    redis.call("zrem", KEYS[3], head)
+    redis.call("hdel", KEYS[4], head)
+    if deadline and lease and tonumber(deadline) > now then
+        redis.call("set", KEYS[1], head, "PX", lease)
+        redis.call("publish", ARGV[2] .. ":" .. head, 0)
+        return 1
+    end
+end
+redis.call("del", KEYS[1])
+return 1
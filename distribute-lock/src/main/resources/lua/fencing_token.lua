@@ -0,0 +1,10 @@
+-- issue a new fencing token to the current holder without re-acquiring
+-- used when a held lock is passed to another thread locally
+-- returns the new token, or nil when ARGV[1] no longer holds the lock
+-- KEYS[1] lock key
+-- KEYS[2] fencing counter key (never expires)
+-- ARGV[1] lock value
+if redis.call("get", KEYS[1]) == ARGV[1] then
+    return redis.call("incr", KEYS[2])
+end
+return nil
@@ -0,0 +1,10 @@
+-- acquire: SET NX PX and issue a fencing token from the per-key counter
+-- returns {1, token} when acquired, otherwise {0, holder's remaining ttl (ms)}
+-- KEYS[1] lock key
+-- KEYS[2] fencing counter key (never expires)
+-- ARGV[1] lock value
+-- ARGV[2] lease (ms)
+if redis.call("set", KEYS[1], ARGV[1], "NX", "PX", ARGV[2]) then
+    return {1, redis.call("incr", KEYS[2])}
+end
+return {0, redis.call("pttl", KEYS[1])}
@@ -0,0 +1,14 @@
+-- multi-key acquire: all or nothing in one call
+-- returns nil when every key was acquired, otherwise the remaining ttl (ms) of the first held key
+-- KEYS[1..n] lock keys
+-- ARGV[1] lock value
+-- ARGV[2] lease (ms)
+for i = 1, #KEYS do
+    if redis.call("exists", KEYS[i]) == 1 then
+        return redis.call("pttl", KEYS[i])
+    end
+end
+for i = 1, #KEYS do
+    redis.call("set", KEYS[i], ARGV[1], "PX", ARGV[2])
+end
+return nil
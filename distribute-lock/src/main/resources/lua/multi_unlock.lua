@@ -0,0 +1,14 @@
+-- multi-key release: delete every key still owned by us and notify its waiters
+-- returns the number of keys released
+-- KEYS[1..n] lock keys
+-- ARGV[1] lock value
+-- ARGV[1 + i] release channel of KEYS[i]
+local released = 0
+for i = 1, #KEYS do
+    if redis.call("get", KEYS[i]) == ARGV[1] then
+        redis.call("del", KEYS[i])
+        redis.call("publish", ARGV[1 + i], 0)
+        released = released + 1
+    end
+end
+return released
@@ -0,0 +1,26 @@
+-- read acquire: shared unless a writer holds the lock or is waiting for it
+-- returns nil when acquired, otherwise the remaining ttl (ms) to wait for
+-- KEYS[1] write lock key
+-- KEYS[2] readers zset (owner -> lease deadline, server time in ms)
+-- KEYS[3] waiting writer flag
+-- ARGV[1] owner id
+-- ARGV[2] lease (ms)
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+local ttl = redis.call("pttl", KEYS[1])
+if ttl ~= -2 then
+    return ttl
+end
+local waiting = redis.call("pttl", KEYS[3])
+if waiting > 0 then
+    return waiting
+end
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call("zremrangebyscore", KEYS[2], "-inf", now)
+redis.call("zadd", KEYS[2], now + tonumber(ARGV[2]), ARGV[1])
+if redis.call("pttl", KEYS[2]) < tonumber(ARGV[2]) then
+    redis.call("pexpire", KEYS[2], ARGV[2])
+end
+return nil
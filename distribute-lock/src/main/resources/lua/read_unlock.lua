@@ -0,0 +1,18 @@
+-- read release: the last reader out wakes up everyone waiting
+-- returns 1 when released, 0 when not a reader
+-- KEYS[1] readers zset (owner -> lease deadline, server time in ms)
+-- ARGV[1] owner id
+-- ARGV[2] release channel
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+if redis.call("zrem", KEYS[1], ARGV[1]) == 0 then
+    return 0
+end
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+redis.call("zremrangebyscore", KEYS[1], "-inf", now)
+if redis.call("zcard", KEYS[1]) == 0 then
+    redis.call("publish", ARGV[2], 1)
+end
+return 1
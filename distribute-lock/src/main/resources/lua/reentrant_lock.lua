@@ -0,0 +1,11 @@
+-- reentrant acquire: hash of owner -> hold count
+-- returns nil when acquired, otherwise the holder's remaining ttl (ms)
+-- KEYS[1] lock key
+-- ARGV[1] owner id
+-- ARGV[2] lease (ms)
+if redis.call("exists", KEYS[1]) == 0 or redis.call("hexists", KEYS[1], ARGV[1]) == 1 then
+    redis.call("hincrby", KEYS[1], ARGV[1], 1)
+    redis.call("pexpire", KEYS[1], ARGV[2])
+    return nil
+end
+return redis.call("pttl", KEYS[1])
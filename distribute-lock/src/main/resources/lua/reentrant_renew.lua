@@ -0,0 +1,9 @@
+-- reentrant renew: only the owner may extend the lease
+-- KEYS[1] lock key
+-- ARGV[1] owner id
+-- ARGV[2] lease (ms)
+if redis.call("hexists", KEYS[1], ARGV[1]) == 1 then
+    return redis.call("pexpire", KEYS[1], ARGV[2])
+else
+    return 0
+end
@@ -0,0 +1,14 @@
+-- reentrant release: decrement the owner's hold count, delete and notify waiters at zero
+-- returns nil when not the owner, 0 when still held, 1 when released
+-- KEYS[1] lock key
+-- ARGV[1] owner id
+-- ARGV[2] release channel
+if redis.call("hexists", KEYS[1], ARGV[1]) == 0 then
+    return nil
+end
+if redis.call("hincrby", KEYS[1], ARGV[1], -1) > 0 then
+    return 0
+end
+redis.call("del", KEYS[1])
+redis.call("publish", ARGV[2], 0)
+return 1
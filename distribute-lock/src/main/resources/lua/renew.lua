@@ -0,0 +1,9 @@
+-- renew: only the holder (same value) may extend the lease
+-- KEYS[1] lock key
+-- ARGV[1] lock value
+-- ARGV[2] lease (ms)
+if redis.call("get", KEYS[1]) == ARGV[1] then
+    return redis.call("pexpire", KEYS[1], ARGV[2])
+else
+    return 0
+end
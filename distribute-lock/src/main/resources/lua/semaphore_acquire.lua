@@ -0,0 +1,27 @@
+-- semaphore acquire: n permits at once, expired permits are reclaimed first
+-- returns nil when acquired, otherwise the ms until enough permits expire
+-- KEYS[1] permits zset (permit id -> lease deadline, server time in ms)
+-- ARGV[1] owner id, permit ids are owner:1..owner:n
+-- ARGV[2] n
+-- ARGV[3] total permits
+-- ARGV[4] lease (ms)
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+local n = tonumber(ARGV[2])
+redis.call("zremrangebyscore", KEYS[1], "-inf", now)
+local short = redis.call("zcard", KEYS[1]) + n - tonumber(ARGV[3])
+if short > 0 then
+    local expiring = redis.call("zrange", KEYS[1], short - 1, short - 1, "WITHSCORES")
+    return tonumber(expiring[2]) - now
+end
+local deadline = now + tonumber(ARGV[4])
+for i = 1, n do
+    redis.call("zadd", KEYS[1], deadline, ARGV[1] .. ":" .. i)
+end
+if redis.call("pttl", KEYS[1]) < tonumber(ARGV[4]) then
+    redis.call("pexpire", KEYS[1], ARGV[4])
+end
+return nil
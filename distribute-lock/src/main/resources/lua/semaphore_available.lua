@@ -0,0 +1,6 @@
+-- semaphore availability: permits not held by an unexpired lease
+-- KEYS[1] permits zset (permit id -> lease deadline, server time in ms)
+-- ARGV[1] total permits
+local time = redis.call("time")
+local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+return tonumber(ARGV[1]) - redis.call("zcount", KEYS[1], "(" .. now, "+inf")
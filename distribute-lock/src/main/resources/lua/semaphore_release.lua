@@ -0,0 +1,14 @@
+-- semaphore release: give back this owner's permits and wake up everyone waiting
+-- returns the number of permits released (expired ones are not counted)
+-- KEYS[1] permits zset
+-- ARGV[1] owner id
+-- ARGV[2] n
+-- ARGV[3] release channel
+local released = 0
+for i = 1, tonumber(ARGV[2]) do
+    released = released + redis.call("zrem", KEYS[1], ARGV[1] .. ":" .. i)
+end
+if released > 0 then
+    redis.call("publish", ARGV[3], 1)
+end
+return released
@@ -0,0 +1,12 @@
+-- release: only the holder (same value) may delete, then notify waiters
+-- KEYS[1] lock key
+-- ARGV[1] lock value
+-- ARGV[2] release channel
+-- ARGV[3] optional message, 1 wakes up every waiter (default 0 wakes up one)
+if redis.call("get", KEYS[1]) == ARGV[1] then
+    redis.call("del", KEYS[1])
+    redis.call("publish", ARGV[2], ARGV[3] or 0)
+    return 1
+else
+    return 0
+end
@@ -0,0 +1,10 @@
+-- a writer gave up waiting: drop its waiting flag so readers can proceed
+-- KEYS[1] waiting writer flag
+-- ARGV[1] owner id
+-- ARGV[2] release channel
+if redis.call("get", KEYS[1]) == ARGV[1] then
+    redis.call("del", KEYS[1])
+    redis.call("publish", ARGV[2], 1)
+    return 1
+end
+return 0
@@ -0,0 +1,31 @@
+-- write acquire: exclusive, waits for the write holder and all readers
+-- a writer that is going to wait sets the waiting flag so new readers back off
+-- returns nil when acquired, otherwise the remaining ttl (ms) to wait for
+-- KEYS[1] write lock key
+-- KEYS[2] readers zset (owner -> lease deadline, server time in ms)
+-- KEYS[3] waiting writer flag
+-- ARGV[1] owner id
+-- ARGV[2] lease (ms)
+-- ARGV[3] extra ttl (ms) of the waiting flag, 0 when the writer will not wait
+if redis.replicate_commands then
+    redis.replicate_commands()
+end
+local ttl = redis.call("pttl", KEYS[1])
+if ttl == -2 then
+    local time = redis.call("time")
+    local now = tonumber(time[1]) * 1000 + math.floor(tonumber(time[2]) / 1000)
+    redis.call("zremrangebyscore", KEYS[2], "-inf", now)
+    local last = redis.call("zrange", KEYS[2], -1, -1, "WITHSCORES")
+    if #last == 0 then
+        redis.call("set", KEYS[1], ARGV[1], "PX", ARGV[2])
+        if redis.call("get", KEYS[3]) == ARGV[1] then
+            redis.call("del", KEYS[3])
+        end
+        return nil
+    end
+    ttl = tonumber(last[2]) - now
+end
+if tonumber(ARGV[3]) > 0 then
+    redis.call("set", KEYS[3], ARGV[1], "PX", math.max(ttl, 0) + tonumber(ARGV[3]))
+end
+return ttl
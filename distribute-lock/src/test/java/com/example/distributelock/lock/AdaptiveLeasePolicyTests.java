@@ -0,0 +1,83 @@
+package com.example.distributelock.lock;
+
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AdaptiveLeasePolicyTests
+ * @description
+ * @date created in 2026-10-18 23:35
+ * @modified by
+ */
+public class AdaptiveLeasePolicyTests {
+
+    @Test
+    public void testDefaultLeaseWithoutSamples() {
+        AdaptiveLeasePolicy policy = new AdaptiveLeasePolicy();
+        for (int i = 0; i < 10; i++) {
+            policy.record("order:" + i, 200, TimeUnit.MILLISECONDS);
+        }
+        assertEquals(AdaptiveLeasePolicy.DEFAULT_LEASE_MILLIS, policy.leaseMillis("order:1"));
+        assertEquals(AdaptiveLeasePolicy.DEFAULT_LEASE_MILLIS, policy.leaseMillis("smsKey"));
+    }
+
+    @Test
+    public void testLeaseFollowsHighPercentile() {
+        AdaptiveLeasePolicy policy = new AdaptiveLeasePolicy();
+        for (int i = 0; i < 1000; i++) {
+            policy.record("order:" + i, i % 100 == 0 ? 2000 : 200, TimeUnit.MILLISECONDS);
+        }
+        // P99 落在 200ms 所在的桶, 1% 的慢请求不会把租期拉到 2 秒以上
+        long lease = policy.leaseMillis("order:1001");
+        assertTrue(lease > 200 * 1.5 + 1000 && lease < 1400);
+
+        for (int i = 0; i < 100; i++) {
+            policy.record("order:" + i, 5000, TimeUnit.MILLISECONDS);
+        }
+        lease = policy.leaseMillis("order:1001");
+        assertTrue(lease >= 5000 * 1.5 + 1000 && lease < 5000 * 1.2 * 1.5 + 1000);
+
+        // 其他前缀不受影响
+        assertEquals(AdaptiveLeasePolicy.DEFAULT_LEASE_MILLIS, policy.leaseMillis("smsKey"));
+    }
+
+    @Test
+    public void testOldSamplesDecay() {
+        AdaptiveLeasePolicy.DecayingHistogram histogram = new AdaptiveLeasePolicy.DecayingHistogram();
+        long now = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            histogram.record(5000, now);
+        }
+        assertTrue(histogram.percentile(0.99, 20, now) >= 5000);
+
+        // 一小时后(6 个半衰期)旧样本只剩 1/64, 新的耗时占主导
+        now += TimeUnit.HOURS.toNanos(1);
+        assertEquals(-1, histogram.percentile(0.99, 20, now));
+        for (int i = 0; i < 100; i++) {
+            histogram.record(100, now);
+        }
+        long percentile = histogram.percentile(0.9, 20, now);
+        assertTrue(percentile >= 100 && percentile < 120);
+    }
+
+    /**
+     * 与路由、指标使用同一个前缀规则, order:1001 和 /order/1001 共用一个直方图
+     */
+    @Test
+    public void testSlashAndColonShareHistogram() {
+        AdaptiveLeasePolicy policy = new AdaptiveLeasePolicy();
+        for (int i = 0; i < 100; i++) {
+            policy.record("/order/" + i, 5000, TimeUnit.MILLISECONDS);
+        }
+        assertTrue(policy.leaseMillis("order:1001") >= 5000 * 1.5 + 1000);
+        assertEquals(AdaptiveLeasePolicy.DEFAULT_LEASE_MILLIS, policy.leaseMillis("smsKey"));
+    }
+
+}
@@ -0,0 +1,153 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.datastructures.Slice;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName AsyncRedisLockTests
+ * @description
+ * @date created in 2026-10-19 11:00
+ * @modified by
+ */
+public class AsyncRedisLockTests {
+
+    private static final String KEY = "order";
+
+    /**
+     * 大于 0 时倒数抢锁命令, 数到的那一次抢锁失败后、结果返回之前释放锁;
+     * 释放通知因此落在抢锁失败和登记等待之间
+     */
+    private final AtomicInteger releaseAfterAttempt = new AtomicInteger();
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        // jedis-mock 执行 EVALSHA 时会把参数里的 sha1 换成脚本, 先判断再执行
+        boolean release = "evalsha".equalsIgnoreCase(name) && RedisLockScripts.LOCK.getSha1().equals(params.get(0).toString())
+                && releaseAfterAttempt.decrementAndGet() == 0;
+        Slice reply = MockExecutor.proceed(state, name, params);
+        if (release) {
+            LocalRedis.releaseLock(state, this.redisTemplate.getKeySerializer().serialize(KEY), KEY);
+        }
+        return reply;
+    }));
+
+    private RedisTemplate redisTemplate;
+
+    private AsyncRedisLock asyncRedisLock;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        asyncRedisLock = new AsyncRedisLock(redis.factory(), redisTemplate, redis.subscriber());
+    }
+
+    @After
+    public void tearDown() {
+        asyncRedisLock.destroy();
+    }
+
+    @Test
+    public void testExclusive() throws Exception {
+        AsyncLockHandle holder = asyncRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS);
+        assertNotNull(holder);
+        assertNull(asyncRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS));
+        assertFalse(new RedisLock(redisTemplate, KEY, 10).getLock());
+
+        assertTrue(asyncRedisLock.renew(holder).get(1, TimeUnit.SECONDS));
+        assertTrue(asyncRedisLock.release(holder).get(1, TimeUnit.SECONDS));
+        assertFalse(asyncRedisLock.release(holder).get(1, TimeUnit.SECONDS));
+        assertFalse(asyncRedisLock.renew(holder).get(1, TimeUnit.SECONDS));
+
+        AsyncLockHandle next = asyncRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS);
+        assertTrue(next.getFencingToken() > holder.getFencingToken());
+        assertTrue(asyncRedisLock.release(next).get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 等待者不占线程, RedisLock 释放时被通知唤醒, 不必等到持有者的租期结束
+     */
+    @Test
+    public void testWaiterWokenOnRelease() throws Exception {
+        RedisLock holder = new RedisLock(redisTemplate, KEY, 30);
+        assertTrue(holder.getLock());
+        CompletableFuture<AsyncLockHandle> waiter = asyncRedisLock.tryLock(KEY, 10, 10, TimeUnit.SECONDS);
+        Thread.sleep(200);
+        assertFalse(waiter.isDone());
+
+        assertTrue(holder.unLock());
+        AsyncLockHandle handle = waiter.get(2, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertTrue(asyncRedisLock.release(handle).get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 释放通知落在抢锁失败之后、登记回调之前, 等待者也要马上重试, 不能等到持有者 30 秒的租期结束
+     */
+    @Test
+    public void testReleaseBeforeListenerRegistered() throws Exception {
+        assertTrue(new RedisLock(redisTemplate, KEY, 30).getLock());
+        // 第一次抢锁失败后登记等待者再抢一次, 在第二次之后释放
+        releaseAfterAttempt.set(2);
+        AsyncLockHandle handle = asyncRedisLock.tryLock(KEY, 10, 10, TimeUnit.SECONDS).get(2, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertTrue(asyncRedisLock.release(handle).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testWaitTimesOut() throws Exception {
+        AsyncLockHandle holder = asyncRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS);
+        long start = System.nanoTime();
+        assertNull(asyncRedisLock.tryLock(KEY, 300, 10000, TimeUnit.MILLISECONDS).get(2, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertTrue(asyncRedisLock.release(holder).get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 持有者挂掉不释放, 等待者在租期到期后拿到锁
+     */
+    @Test
+    public void testWaiterRetriesAfterLeaseExpires() throws Exception {
+        assertNotNull(asyncRedisLock.tryLock(KEY, 0, 300, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS));
+        AsyncLockHandle handle = asyncRedisLock.tryLock(KEY, 5, 10, TimeUnit.SECONDS).get(2, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertTrue(asyncRedisLock.release(handle).get(1, TimeUnit.SECONDS));
+    }
+
+    /**
+     * 脚本缓存被清空后退回 EVAL, 每次调用都复用构造时取到的连接
+     */
+    @Test
+    public void testScriptFlushFallsBackToEval() throws Exception {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptFlush();
+            return null;
+        });
+        for (int i = 0; i < 3; i++) {
+            AsyncLockHandle handle = asyncRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).get(1, TimeUnit.SECONDS);
+            assertNotNull(handle);
+            assertEquals(KEY, handle.getKey());
+            assertTrue(asyncRedisLock.release(handle).get(1, TimeUnit.SECONDS));
+        }
+    }
+
+}
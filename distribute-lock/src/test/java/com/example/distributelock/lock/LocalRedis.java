@@ -0,0 +1,142 @@
+package com.example.distributelock.lock;
+
+import com.example.distributelocklocal.LocalStandIns;
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.datastructures.Slice;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import com.github.fppt.jedismock.storage.OperationExecutorState;
+import org.junit.rules.ExternalResource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName LocalRedis
+ * @description 测试用的 redis：每个用例用 LocalStandIns 另起一个 jedis-mock, 用例结束时断开所有连接并停掉。
+ *              默认连接、RedisTemplate 和 RedisLockSubscriber 第一次用到时才创建; connect() 另建连接, 模拟同一个 redis 的多个节点。
+ *              jedis-mock 不响应 PUNSUBSCRIBE, 订阅者不单独关闭, 随连接一起断开
+ * @date created in 2026-10-19 22:10
+ * @modified by
+ */
+public class LocalRedis extends ExternalResource {
+
+    private final ServiceOptions options;
+
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+
+    private RedisServer server;
+
+    private LettuceConnectionFactory factory;
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    public LocalRedis() {
+        this(ServiceOptions.defaultOptions());
+    }
+
+    /**
+     * @param options jedis-mock 的选项, 例如统计或注入失败的命令拦截器
+     */
+    public LocalRedis(ServiceOptions options) {
+        this.options = options;
+    }
+
+    @Override
+    protected void before() {
+        server = LocalStandIns.newRedis(options);
+    }
+
+    @Override
+    protected void after() {
+        factories.forEach(LettuceConnectionFactory::destroy);
+        factories.clear();
+        factory = null;
+        redisTemplate = null;
+        subscriber = null;
+        try {
+            server.stop();
+        } catch (IOException e) {
+            throw new UncheckedIOException("停止 jedis-mock 失败", e);
+        }
+    }
+
+    public RedisServer server() {
+        return server;
+    }
+
+    public LettuceConnectionFactory factory() {
+        if (factory == null) {
+            factory = connect();
+        }
+        return factory;
+    }
+
+    public RedisTemplate redisTemplate() {
+        if (redisTemplate == null) {
+            redisTemplate = template(factory());
+        }
+        return redisTemplate;
+    }
+
+    public RedisLockSubscriber subscriber() {
+        if (subscriber == null) {
+            subscriber = new RedisLockSubscriber(factory());
+        }
+        return subscriber;
+    }
+
+    /**
+     * 新建一个到替身的连接, 用例结束时断开
+     */
+    public LettuceConnectionFactory connect() {
+        return connect(LocalStandIns.LOOPBACK, server.getBindPort());
+    }
+
+    /**
+     * 连接任意地址, 例如另一个替身或者没有服务监听的端口; 用例结束时断开
+     */
+    public LettuceConnectionFactory connect(String host, int port) {
+        LettuceConnectionFactory connectionFactory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(host, port));
+        connectionFactory.afterPropertiesSet();
+        factories.add(connectionFactory);
+        return connectionFactory;
+    }
+
+    /**
+     * 在命令拦截器里替持有者释放锁：删除键并发出释放通知, 再等通知送到订阅者。
+     * jedis-mock 逐条执行命令, 拦截器返回之前其他连接发来的释放排不上, 所以只能在这里释放
+     *
+     * @param rawKey 锁的键序列化后的字节
+     * @param key    锁名, 用来确定释放频道
+     */
+    public static void releaseLock(OperationExecutorState state, byte[] rawKey, String key) {
+        MockExecutor.proceed(state, "del", Collections.singletonList(Slice.create(rawKey)));
+        MockExecutor.proceed(state, "publish", Arrays.asList(Slice.create(RedisLockSubscriber.channel(key)), Slice.create("0")));
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public static RedisTemplate template(LettuceConnectionFactory connectionFactory) {
+        RedisTemplate template = new RedisTemplate();
+        template.setConnectionFactory(connectionFactory);
+        template.afterPropertiesSet();
+        return template;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.example.distributelock.lock;
+
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName LockHistogramsTests
+ * @description
+ * @date created in 2026-10-19 01:45
+ * @modified by
+ */
+public class LockHistogramsTests {
+
+    @Test
+    public void testSnapshot() {
+        LockHistograms histograms = new LockHistograms(LockHistograms.MAX_KEYS);
+        for (int i = 1; i <= 1000; i++) {
+            histograms.recordWait("order", TimeUnit.MILLISECONDS.toNanos(i));
+            histograms.holding("order", "owner-" + i);
+            histograms.released("order", "owner-" + i, TimeUnit.MILLISECONDS.toNanos(10));
+        }
+        histograms.holding("order", "owner-last");
+
+        LockHistograms.Snapshot snapshot = histograms.snapshot().get("order");
+        assertEquals("owner-last", snapshot.getHolder());
+        assertEquals(1000, snapshot.getWaitInterval().getCount());
+        assertEquals(500, snapshot.getWaitInterval().getP50(), 5);
+        assertEquals(990, snapshot.getWaitInterval().getP99(), 10);
+        assertEquals(1000, snapshot.getWaitInterval().getMax(), 10);
+        assertEquals(10, snapshot.getHoldInterval().getP999(), 0.1);
+
+        // 新的统计区间, total 保留
+        histograms.released("order", "owner-last", TimeUnit.SECONDS.toNanos(5));
+        snapshot = histograms.snapshot().get("order");
+        assertNull(snapshot.getHolder());
+        assertEquals(0, snapshot.getWaitInterval().getCount());
+        assertEquals(1, snapshot.getHoldInterval().getCount());
+        assertEquals(1001, snapshot.getHoldTotal().getCount());
+        assertEquals(5000, snapshot.getHoldTotal().getMax(), 50);
+    }
+
+    /**
+     * 释放时只清空自己登记的持有者
+     */
+    @Test
+    public void testReleaseKeepsNewerHolder() {
+        LockHistograms histograms = new LockHistograms(LockHistograms.MAX_KEYS);
+        histograms.holding("order", "expired-owner");
+        histograms.holding("order", "new-owner");
+        histograms.released("order", "expired-owner", 1);
+        assertEquals("new-owner", histograms.snapshot().get("order").getHolder());
+    }
+
+    @Test
+    public void testLeastRecentlyUsedKeyIsEvicted() {
+        LockHistograms histograms = new LockHistograms(3);
+        histograms.recordWait("a", 1);
+        histograms.recordWait("b", 1);
+        histograms.recordWait("c", 1);
+        histograms.recordWait("a", 1);
+        histograms.recordWait("d", 1);
+
+        Map<String, LockHistograms.Snapshot> snapshot = histograms.snapshot();
+        assertEquals(3, snapshot.size());
+        assertFalse(snapshot.containsKey("b"));
+        assertEquals("d", snapshot.keySet().iterator().next());
+    }
+
+    /**
+     * 锁名登记之后, 记录不分配内存
+     */
+    @Test
+    public void testRecordingDoesNotAllocate() {
+        LockHistograms histograms = new LockHistograms(LockHistograms.MAX_KEYS);
+        String holder = "owner";
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long threadId = Thread.currentThread().getId();
+        // 预热, 让 JIT 编译完记录路径
+        record(histograms, holder, 200_000);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        record(histograms, holder, 100_000);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        assertTrue("分配了 " + allocated + " 字节", allocated < 1024);
+    }
+
+    private static void record(LockHistograms histograms, String holder, int times) {
+        for (int i = 0; i < times; i++) {
+            histograms.recordWait("order", i);
+            histograms.holding("order", holder);
+            histograms.released("order", holder, i);
+        }
+    }
+
+}
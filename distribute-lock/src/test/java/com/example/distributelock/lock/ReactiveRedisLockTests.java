@@ -0,0 +1,152 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.datastructures.Slice;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName ReactiveRedisLockTests
+ * @description
+ * @date created in 2026-10-19 11:20
+ * @modified by
+ */
+public class ReactiveRedisLockTests {
+
+    private static final String KEY = "order";
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(2);
+
+    /**
+     * 大于 0 时倒数抢锁命令, 数到的那一次抢锁失败后、结果返回之前释放锁;
+     * 释放通知因此落在抢锁失败和登记等待之间
+     */
+    private final AtomicInteger releaseAfterAttempt = new AtomicInteger();
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        // jedis-mock 执行 EVALSHA 时会把参数里的 sha1 换成脚本, 先判断再执行
+        boolean release = "evalsha".equalsIgnoreCase(name) && RedisLockScripts.LOCK.getSha1().equals(params.get(0).toString())
+                && releaseAfterAttempt.decrementAndGet() == 0;
+        Slice reply = MockExecutor.proceed(state, name, params);
+        if (release) {
+            LocalRedis.releaseLock(state, this.redisTemplate.getKeySerializer().serialize(KEY), KEY);
+        }
+        return reply;
+    }));
+
+    private RedisTemplate redisTemplate;
+
+    private ReactiveRedisLock reactiveRedisLock;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        reactiveRedisLock = new ReactiveRedisLock(redis.factory(), redisTemplate, redis.subscriber());
+    }
+
+    @Test
+    public void testExclusive() {
+        AsyncLockHandle holder = reactiveRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).block(TIMEOUT);
+        assertNotNull(holder);
+        assertNull(reactiveRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).block(TIMEOUT));
+        assertFalse(new RedisLock(redisTemplate, KEY, 10).getLock());
+
+        reactiveRedisLock.release(holder).block(TIMEOUT);
+        AsyncLockHandle next = reactiveRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).block(TIMEOUT);
+        assertTrue(next.getFencingToken() > holder.getFencingToken());
+        reactiveRedisLock.release(next).block(TIMEOUT);
+        assertFalse(redisTemplate.hasKey(KEY));
+    }
+
+    /**
+     * 等待者在 RedisLock 释放时被通知唤醒, 不必等到持有者的租期结束
+     */
+    @Test
+    public void testWaiterWokenOnRelease() throws Exception {
+        RedisLock holder = new RedisLock(redisTemplate, KEY, 30);
+        assertTrue(holder.getLock());
+        CompletableFuture<AsyncLockHandle> waiter = reactiveRedisLock.tryLock(KEY, 10, 10, TimeUnit.SECONDS).toFuture();
+        Thread.sleep(200);
+        assertFalse(waiter.isDone());
+
+        assertTrue(holder.unLock());
+        AsyncLockHandle handle = waiter.get(2, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        reactiveRedisLock.release(handle).block(TIMEOUT);
+    }
+
+    /**
+     * 释放通知落在抢锁失败之后、登记回调之前, 等待者也要马上重试, 不能等到持有者 30 秒的租期结束
+     */
+    @Test
+    public void testReleaseBeforeListenerRegistered() {
+        assertTrue(new RedisLock(redisTemplate, KEY, 30).getLock());
+        // 先登记等待者再抢锁, 在第一次抢锁之后释放
+        releaseAfterAttempt.set(1);
+        AsyncLockHandle handle = reactiveRedisLock.tryLock(KEY, 10, 10, TimeUnit.SECONDS).block(TIMEOUT);
+        assertNotNull(handle);
+        reactiveRedisLock.release(handle).block(TIMEOUT);
+    }
+
+    @Test
+    public void testWaitTimesOut() {
+        AsyncLockHandle holder = reactiveRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).block(TIMEOUT);
+        long start = System.nanoTime();
+        assertNull(reactiveRedisLock.tryLock(KEY, 300, 10000, TimeUnit.MILLISECONDS).block(TIMEOUT));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        reactiveRedisLock.release(holder).block(TIMEOUT);
+    }
+
+    /**
+     * action 正常完成和出错时都会释放锁
+     */
+    @Test
+    public void testUsingLockReleases() {
+        assertEquals("done", reactiveRedisLock.usingLock(KEY, Mono.fromCallable(() -> {
+            assertTrue(redisTemplate.hasKey(KEY));
+            return "done";
+        })).block(TIMEOUT));
+        assertFalse(redisTemplate.hasKey(KEY));
+
+        try {
+            reactiveRedisLock.usingLock(KEY, Mono.error(new IllegalArgumentException("boom"))).block(TIMEOUT);
+            fail();
+        } catch (IllegalArgumentException e) {
+            assertEquals("boom", e.getMessage());
+        }
+        assertFalse(redisTemplate.hasKey(KEY));
+    }
+
+    @Test
+    public void testUsingLockNotAcquired() {
+        AsyncLockHandle holder = reactiveRedisLock.tryLock(KEY, 0, 10, TimeUnit.SECONDS).block(TIMEOUT);
+        try {
+            reactiveRedisLock.usingLock(KEY, 0, 10, TimeUnit.SECONDS, Mono.just("done")).block(TIMEOUT);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(e.getMessage().contains(KEY));
+        }
+        reactiveRedisLock.release(holder).block(TIMEOUT);
+    }
+
+}
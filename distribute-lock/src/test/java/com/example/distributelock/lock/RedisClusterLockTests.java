@@ -0,0 +1,222 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.datastructures.Slice;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.Response;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.data.redis.connection.ClusterSlotHashUtil;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisClusterLockTests
+ * @description 三个 jedis-mock 模拟一个集群：每个节点负责 1/3 的 slot, 和真实集群一样拒绝跨 slot 的脚本(CROSSSLOT)
+ *              和不属于自己的键(MOVED)。jedis-mock 不支持 CLUSTER 命令, 由测试按锁键的 slot 选择节点, 相当于集群客户端的路由
+ * @date created in 2026-10-19 02:10
+ * @modified by
+ */
+public class RedisClusterLockTests {
+
+    private static final int NODES = 3;
+
+    private static final int SLOTS = 16384;
+
+    private final List<RedisServer> servers = new ArrayList<>();
+
+    private final List<RedisTemplate> nodes = new ArrayList<>();
+
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+
+    @Before
+    public void setUp() throws IOException {
+        for (int i = 0; i < NODES; i++) {
+            int node = i;
+            RedisServer server = RedisServer.newRedisServer()
+                    .setOptions(ServiceOptions.withInterceptor((state, name, params) -> {
+                        String error = checkSlots(node, name, params);
+                        return error != null ? Response.error(error) : MockExecutor.proceed(state, name, params);
+                    }))
+                    .start();
+            servers.add(server);
+            nodes.add(template(server, true));
+        }
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        factories.forEach(LettuceConnectionFactory::destroy);
+        for (RedisServer server : servers) {
+            server.stop();
+        }
+    }
+
+    /**
+     * 每种锁的锁键和辅助键都在同一个 slot, 模拟的集群不会拒绝
+     */
+    @Test
+    public void testAuxiliaryKeysShareSlot() throws Exception {
+        String name = "order:1001";
+        List<AbstractRedisLock> locks = Arrays.asList(
+                new RedisLock(route(name), name, 10),
+                new RedisFairLock(route(name + ":fair"), name + ":fair", 10),
+                new RedisReadWriteLock(route(name + ":rw"), name + ":rw", 10).writeLock(),
+                new RedisReadWriteLock(route(name + ":rw"), name + ":rw", 10).readLock(),
+                new RedisReentrantLock(route(name + ":reentrant"), name + ":reentrant", 10),
+                new RedisSemaphore(route(name + ":semaphore"), name + ":semaphore", 2, 10));
+        for (AbstractRedisLock lock : locks) {
+            assertEquals(RedisLockKeys.hashTag(lock.name), lock.key);
+            assertTrue(lock.getClass().getSimpleName(), lock.tryLock(0, 10, TimeUnit.SECONDS));
+            assertTrue(lock.unLock());
+        }
+    }
+
+    /**
+     * 锁名已经带有 hash tag 时原样使用
+     */
+    @Test
+    public void testExistingHashTagIsKept() {
+        assertEquals("{order}:1001", RedisLockKeys.hashTag("{order}:1001"));
+        assertEquals("{order:1001}", RedisLockKeys.hashTag("order:1001"));
+        assertEquals("{a{}b}", RedisLockKeys.hashTag("a{}b"));
+        assertEquals("{order}:1001", new RedisLock(route("{order}"), "{order}:1001", 10).key);
+    }
+
+    /**
+     * 不加 hash tag 时锁键和 fencing 计数器不在同一个 slot, 模拟的集群会拒绝
+     */
+    @Test
+    public void testWithoutHashTagsScriptIsRejected() {
+        String name = "order:1001";
+        RedisTemplate node = template(servers.get(owner(slot(nodes.get(0), name))), false);
+        try {
+            new RedisLock(node, name, 10).getLock();
+            fail("没有 hash tag 的锁应该报 CROSSSLOT");
+        } catch (RuntimeException e) {
+            assertTrue(String.valueOf(rootCause(e).getMessage()), String.valueOf(rootCause(e).getMessage()).startsWith("CROSSSLOT"));
+        }
+    }
+
+    /**
+     * 不相关的锁仍然均匀分散到各个节点
+     */
+    @Test
+    public void testLocksSpreadAcrossNodes() throws Exception {
+        int[] perNode = new int[NODES];
+        int locks = 3000;
+        for (int i = 0; i < locks; i++) {
+            perNode[owner(slot(nodes.get(0), RedisLockKeys.hashTag("order:" + i)))]++;
+        }
+        for (int count : perNode) {
+            assertTrue(Arrays.toString(perNode), count > locks / NODES * 0.8 && count < locks / NODES * 1.2);
+        }
+
+        int[] held = new int[NODES];
+        for (int i = 0; i < 30; i++) {
+            RedisTemplate node = route("order:" + i);
+            RedisLock lock = new RedisLock(node, "order:" + i, 10);
+            assertTrue(lock.getLock());
+            assertTrue(node.hasKey(lock.key));
+            held[nodes.indexOf(node)]++;
+        }
+        for (int count : held) {
+            assertTrue(Arrays.toString(held), count > 0);
+        }
+    }
+
+    /**
+     * 多键锁的锁名要有相同的 hash tag
+     */
+    @Test
+    public void testMultiLockNeedsCommonHashTag() {
+        RedisMultiLock lock = new RedisMultiLock(route("order:1001"));
+        assertTrue(lock.tryLockAll(Arrays.asList("{order:1001}:item:1", "{order:1001}:item:2"), 10, TimeUnit.SECONDS));
+        assertEquals(2, lock.unLockAll());
+        try {
+            lock.tryLockAll(Arrays.asList("item:1", "item:2", "item:3", "item:4"), 10, TimeUnit.SECONDS);
+            fail("不同 slot 的多键锁应该报错");
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+
+    /**
+     * 集群客户端的路由：锁键所在 slot 的节点
+     */
+    private RedisTemplate route(String name) {
+        RedisTemplate any = nodes.get(0);
+        return nodes.get(owner(slot(any, RedisLockKeys.hashTag(name))));
+    }
+
+    private static int owner(int slot) {
+        return slot * NODES / SLOTS;
+    }
+
+    private static int slot(RedisTemplate node, String key) {
+        return ClusterSlotHashUtil.calculateSlot(node.getKeySerializer().serialize(key));
+    }
+
+    /**
+     * 和真实集群一样检查脚本的 KEYS 和单键命令
+     *
+     * @return 错误信息, 通过时为 null
+     */
+    private static String checkSlots(int node, String command, List<Slice> params) {
+        List<Slice> keys;
+        if ("eval".equalsIgnoreCase(command) || "evalsha".equalsIgnoreCase(command)) {
+            int count = Integer.parseInt(params.get(1).toString());
+            keys = params.subList(2, 2 + count);
+        } else if (Arrays.asList("get", "set", "del", "exists", "pttl", "zcount").contains(command.toLowerCase())) {
+            keys = Collections.singletonList(params.get(0));
+        } else {
+            return null;
+        }
+        if (keys.isEmpty()) {
+            return null;
+        }
+        int slot = ClusterSlotHashUtil.calculateSlot(keys.get(0).data());
+        for (Slice key : keys) {
+            if (ClusterSlotHashUtil.calculateSlot(key.data()) != slot) {
+                return "CROSSSLOT Keys in request don't hash to the same slot";
+            }
+        }
+        return owner(slot) == node ? null : "MOVED " + slot;
+    }
+
+    private static Throwable rootCause(Throwable e) {
+        while (e.getCause() != null) {
+            e = e.getCause();
+        }
+        return e;
+    }
+
+    private RedisTemplate template(RedisServer server, boolean hashTags) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        factory.afterPropertiesSet();
+        factories.add(factory);
+        RedisLockKeys.useHashTags(factory, hashTags);
+        RedisTemplate redisTemplate = new RedisTemplate();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+
+}
@@ -0,0 +1,138 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisFairLockTests
+ * @description
+ * @date created in 2026-10-19 10:10
+ * @modified by
+ */
+public class RedisFairLockTests {
+
+    private static final String KEY = "order";
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        subscriber = redis.subscriber();
+    }
+
+    @Test
+    public void testExclusive() {
+        RedisFairLock holder = newLock();
+        assertTrue(holder.getLock());
+        RedisFairLock other = newLock();
+        assertFalse(other.getLock());
+        assertTrue(holder.unLock());
+        assertTrue(other.getLock());
+        assertTrue(other.unLock());
+    }
+
+    /**
+     * 等待者按进入队列的先后顺序拿到锁
+     */
+    @Test
+    public void testFifoOrder() throws Exception {
+        RedisFairLock holder = newLock();
+        assertTrue(holder.getLock());
+
+        List<Integer> order = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Boolean>> waiters = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            int index = i;
+            RedisFairLock waiter = newLock();
+            waiters.add(CompletableFuture.supplyAsync(() -> {
+                try {
+                    if (!waiter.tryLock(5, 10, TimeUnit.SECONDS)) {
+                        return false;
+                    }
+                    order.add(index);
+                    Thread.sleep(50);
+                    return waiter.unLock();
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+            awaitQueueSize(i + 1);
+        }
+
+        assertTrue(holder.unLock());
+        for (CompletableFuture<Boolean> waiter : waiters) {
+            assertTrue(waiter.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(Arrays.asList(0, 1, 2), order);
+    }
+
+    /**
+     * 锁空闲、留给队首, 队首不再等待时下一个等待者马上被唤醒, 不必等到原队首的截止时间
+     */
+    @Test
+    public void testHeadLeavingWakesNext() throws Exception {
+        RedisFairLock holder = newLock();
+        assertTrue(holder.getLock());
+        Thread head = new Thread(() -> {
+            try {
+                newLock().tryLock(10, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        head.start();
+        awaitQueueSize(1);
+        // 持有者挂掉, 锁过期, 没有释放通知; 队首还在按持有者的租期等待
+        redisTemplate.delete(KEY);
+
+        RedisFairLock next = newLock();
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return next.tryLock(10, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        awaitQueueSize(2);
+        assertFalse(acquired.isDone());
+
+        head.interrupt();
+        assertTrue(acquired.get(2, TimeUnit.SECONDS));
+        assertTrue(next.unLock());
+    }
+
+    private void awaitQueueSize(long size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (redisTemplate.opsForList().size(KEY + ":queue") < size) {
+            assertTrue("等待者没有进入队列", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private RedisFairLock newLock() {
+        return new RedisFairLock(redisTemplate, subscriber, KEY, 10);
+    }
+
+}
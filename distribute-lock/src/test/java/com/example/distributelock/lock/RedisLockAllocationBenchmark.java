@@ -0,0 +1,125 @@
+package com.example.distributelock.lock;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.fppt.jedismock.RedisServer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockAllocationBenchmark
+ * @description 加锁、释放路径每次操作的内存分配(看 gc.alloc.rate.norm, 单位 B/op)：
+ *              legacy* 为原来的写法(UUID + RedisTemplate 脚本执行器), 其余为现在的写法。
+ *              redis 是进程内的 jedis-mock, 网络和 lettuce 本身的分配两种写法都有;
+ *              运行：mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=...RedisLockAllocationBenchmark,
+ *              或者在 IDE 里直接运行 main
+ * @date created in 2026-10-18 22:10
+ * @modified by
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RedisLockAllocationBenchmark {
+
+    private static final String KEY = "order";
+
+    private RedisServer server;
+
+    private LettuceConnectionFactory factory;
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLock redisLock;
+
+    @Setup
+    public void setUp() throws IOException {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        server = RedisServer.newRedisServer().start();
+        factory = new LettuceConnectionFactory(new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        factory.afterPropertiesSet();
+        redisTemplate = new RedisTemplate();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.afterPropertiesSet();
+        redisLock = new RedisLock(redisTemplate, KEY, 30);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        factory.destroy();
+        server.stop();
+    }
+
+    @Benchmark
+    public String legacyOwnerToken() {
+        return UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public String ownerToken() {
+        return LockOwners.next();
+    }
+
+    @Benchmark
+    public byte[] legacyEncodeKey() {
+        return redisTemplate.getKeySerializer().serialize(KEY);
+    }
+
+    @Benchmark
+    public byte[] encodeKey() {
+        return RedisLockKeys.encode(redisTemplate.getKeySerializer(), KEY);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public Boolean legacyAcquireRelease() {
+        String value = UUID.randomUUID().toString();
+        List<String> keys = Arrays.asList(KEY, KEY + ":fencing");
+        RedisLockScripts.execute(redisTemplate, RedisLockScripts.LOCK, keys, value, String.valueOf(30000));
+        return RedisLockScripts.execute(redisTemplate, RedisLockScripts.UNLOCK, Collections.singletonList(KEY),
+                value, RedisLockSubscriber.channel(KEY));
+    }
+
+    @Benchmark
+    public boolean acquireRelease() {
+        redisLock.getLock();
+        return redisLock.unLock();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RedisLockAllocationBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+
+}
@@ -0,0 +1,125 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockScriptsTests
+ * @description 统计服务端收到的 EVAL 次数, 区分走的是 EVALSHA 还是回退后的 EVAL
+ * @date created in 2026-10-19 11:40
+ * @modified by
+ */
+public class RedisLockScriptsTests {
+
+    private static final String KEY = "order";
+
+    private final AtomicInteger evals = new AtomicInteger();
+
+    private RedisTemplate redisTemplate;
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        if ("eval".equalsIgnoreCase(name)) {
+            evals.incrementAndGet();
+        }
+        return MockExecutor.proceed(state, name, params);
+    }));
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+    }
+
+    /**
+     * 客户端的 sha1 与服务端对 UTF-8 脚本算出的一致
+     */
+    @Test
+    public void testSha1MatchesServer() {
+        for (RedisScript<?> script : RedisLockScripts.all()) {
+            byte[] source = script.getScriptAsString().getBytes(StandardCharsets.UTF_8);
+            String loaded = (String) redisTemplate.execute((RedisCallback<String>) connection -> connection.scriptLoad(source));
+            assertEquals(loaded, script.getSha1());
+        }
+    }
+
+    /**
+     * 含非 ASCII 字符的脚本也按 UTF-8 计算, 不受平台默认编码影响;
+     * jedis-mock 对非 ASCII 脚本算出的 sha1 与 redis 不同, 这里对照 redis 对原始字节算出的值
+     */
+    @Test
+    public void testNonAsciiSha1() {
+        byte[] source = "-- 释放锁\nreturn 1".getBytes(StandardCharsets.UTF_8);
+        assertEquals("afdf63c941086641a903beb24cb77c2b49c81162", RedisLockScripts.sha1Hex(source));
+    }
+
+    /**
+     * 预加载之后只走 EVALSHA
+     */
+    @Test
+    public void testPreloadedScriptsUseEvalSha() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            RedisLockScripts.loadAll(connection);
+            return null;
+        });
+        lockAndUnlock();
+        assertEquals(0, evals.get());
+    }
+
+    /**
+     * SCRIPT FLUSH 之后 EVALSHA 返回 NOSCRIPT, 回退到 EVAL, 锁照常可用; EVAL 顺带把脚本加载回来
+     */
+    @Test
+    public void testNoScriptFallsBackToEval() {
+        lockAndUnlock();
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptFlush();
+            return null;
+        });
+        evals.set(0);
+        lockAndUnlock();
+        assertTrue(evals.get() > 0);
+
+        evals.set(0);
+        lockAndUnlock();
+        assertEquals(0, evals.get());
+    }
+
+    /**
+     * RedisTemplate 执行的脚本同样回退
+     */
+    @Test
+    public void testExecuteFallsBackToEval() {
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptFlush();
+            return null;
+        });
+        assertFalse(RedisLockScripts.execute(redisTemplate, RedisLockScripts.RENEW, Collections.singletonList(KEY),
+                "nobody", "10000"));
+        assertEquals(1, evals.get());
+    }
+
+    private void lockAndUnlock() {
+        RedisLock lock = new RedisLock(redisTemplate, KEY, 10);
+        assertTrue(lock.getLock());
+        assertFalse(new RedisLock(redisTemplate, KEY, 10).getLock());
+        assertTrue(lock.unLock());
+    }
+
+}
@@ -0,0 +1,145 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockTests
+ * @description
+ * @date created in 2026-10-19 12:00
+ * @modified by
+ */
+public class RedisLockTests {
+
+    private static final String KEY = "order";
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        subscriber = redis.subscriber();
+    }
+
+    @Test
+    public void testExclusive() {
+        RedisLock holder = newLock(10);
+        assertTrue(holder.getLock());
+        RedisLock other = newLock(10);
+        assertFalse(other.getLock());
+        // 别人的锁释放不掉
+        assertFalse(other.unLock());
+        assertTrue(redisTemplate.hasKey(KEY));
+
+        assertTrue(holder.unLock());
+        assertTrue(other.getLock());
+        assertTrue(other.unLock());
+    }
+
+    /**
+     * 等待者收到释放通知马上重试, 不必等到持有者 30 秒的租期结束
+     */
+    @Test
+    public void testWaiterWokenOnRelease() throws Exception {
+        RedisLock holder = newLock(30);
+        assertTrue(holder.getLock());
+        RedisLock waiter = newLock(10);
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return waiter.lock(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(acquired.isDone());
+
+        assertTrue(holder.unLock());
+        assertTrue(acquired.get(2, TimeUnit.SECONDS));
+        assertTrue(waiter.unLock());
+    }
+
+    /**
+     * 持有者挂掉没有释放通知, 等待者在租期到期时重试
+     */
+    @Test
+    public void testWaiterRetriesAfterLeaseExpires() throws InterruptedException {
+        RedisLock holder = newLock(10);
+        assertTrue(holder.tryLock(0, 300, TimeUnit.MILLISECONDS));
+        RedisLock waiter = newLock(10);
+        long start = System.nanoTime();
+        assertTrue(waiter.lock(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(2));
+        assertFalse(holder.unLock());
+        assertTrue(waiter.unLock());
+    }
+
+    @Test
+    public void testWaitTimesOut() throws InterruptedException {
+        RedisLock holder = newLock(10);
+        assertTrue(holder.getLock());
+        long start = System.nanoTime();
+        assertFalse(newLock(10).tryLock(300, 10000, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(300));
+        assertTrue(holder.unLock());
+    }
+
+    /**
+     * 每次加锁成功的 token 都比上一次大, 抢锁失败不消耗 token, 释放后回到 -1
+     */
+    @Test
+    public void testFencingTokenIncreases() {
+        long last = 0;
+        for (int i = 0; i < 3; i++) {
+            RedisLock holder = newLock(10);
+            assertEquals(-1, holder.getFencingToken());
+            assertTrue(holder.getLock());
+            long token = holder.getFencingToken();
+            assertTrue(token > last);
+            last = token;
+
+            RedisLock other = newLock(10);
+            assertFalse(other.getLock());
+            assertEquals(-1, other.getFencingToken());
+            assertTrue(holder.unLock());
+            assertEquals(-1, holder.getFencingToken());
+        }
+        assertEquals(3, last);
+    }
+
+    /**
+     * 旧持有者租期过期后, 新持有者的 token 更大, 资源端据此拒绝旧持有者
+     */
+    @Test
+    public void testFencingTokenAfterLeaseExpires() throws InterruptedException {
+        RedisLock stale = newLock(10);
+        assertTrue(stale.tryLock(0, 200, TimeUnit.MILLISECONDS));
+        Thread.sleep(300);
+        RedisLock current = newLock(10);
+        assertTrue(current.getLock());
+        assertTrue(current.getFencingToken() > stale.getFencingToken());
+        assertTrue(current.unLock());
+    }
+
+    private RedisLock newLock(int expireTime) {
+        return new RedisLock(redisTemplate, subscriber, KEY, expireTime);
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockTrackerTests
+ * @description 用 jedis-mock 的拦截器统计打到 redis 的加锁脚本次数
+ * @date created in 2026-10-19 02:55
+ * @modified by
+ */
+public class RedisLockTrackerTests {
+
+    private static final String KEY = "order";
+
+    private final AtomicInteger scripts = new AtomicInteger();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockTracker tracker;
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        if ("evalsha".equalsIgnoreCase(name) || "eval".equalsIgnoreCase(name)) {
+            scripts.incrementAndGet();
+        }
+        return MockExecutor.proceed(state, name, params);
+    }));
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        tracker = new RedisLockTracker(redis.subscriber());
+    }
+
+    /**
+     * 已知被持有时不访问 redis, 收到释放通知后再去抢;
+     * 按 try-with-resources 的写法每次失败后都 close, 没抢到锁的 close 不访问 redis, 也不清掉缓存
+     */
+    @Test
+    public void testHeldKeyFailsLocallyUntilReleased() throws Exception {
+        RedisLock holder = new RedisLock(redisTemplate, KEY, 30);
+        assertTrue(holder.getLock());
+
+        scripts.set(0);
+        for (int i = 0; i < 100; i++) {
+            try (RedisLock poller = new RedisLock(redisTemplate, KEY, 30).withTracker(tracker)) {
+                assertFalse(poller.getLock());
+            }
+            assertNotNull(tracker.heldMillis(RedisLockKeys.lockKey(redisTemplate, KEY)));
+        }
+        assertEquals(1, scripts.get());
+
+        RedisLock poller = new RedisLock(redisTemplate, KEY, 30).withTracker(tracker);
+
+        holder.unLock();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!poller.getLock()) {
+            assertTrue("没有收到释放通知", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        poller.unLock();
+    }
+
+    /**
+     * 缓存最多保留到持有者的租期结束
+     */
+    @Test
+    public void testEntryExpiresWithHoldersLease() throws Exception {
+        long stamp = tracker.stamp(KEY);
+        tracker.held(KEY, stamp, 50);
+        assertNotNull(tracker.heldMillis(KEY));
+        Thread.sleep(60);
+        assertNull(tracker.heldMillis(KEY));
+    }
+
+    /**
+     * 抢锁期间收到释放通知, 抢锁的结果已经过时, 不缓存
+     */
+    @Test
+    public void testInvalidationDuringAcquireIsNotLost() {
+        long stamp = tracker.stamp(KEY);
+        tracker.invalidate(KEY);
+        tracker.held(KEY, stamp, 30000);
+        assertNull(tracker.heldMillis(KEY));
+    }
+
+}
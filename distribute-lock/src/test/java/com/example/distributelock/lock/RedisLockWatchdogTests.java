@@ -0,0 +1,89 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.Response;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisLockWatchdogTests
+ * @description 租期 1 秒的锁, 靠看门狗持有超过租期
+ * @date created in 2026-10-19 09:10
+ * @modified by
+ */
+public class RedisLockWatchdogTests {
+
+    private static final String KEY = "order";
+
+    /**
+     * 还要失败的 SCRIPT LOAD 次数
+     */
+    private final AtomicInteger failingLoads = new AtomicInteger();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockWatchdog watchdog;
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        if ("script".equalsIgnoreCase(name) && "load".equalsIgnoreCase(params.get(0).toString())
+                && failingLoads.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+            return Response.error("ERR injected failure");
+        }
+        return MockExecutor.proceed(state, name, params);
+    }));
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        watchdog = new RedisLockWatchdog(redisTemplate);
+    }
+
+    @After
+    public void tearDown() {
+        watchdog.destroy();
+    }
+
+    @Test
+    public void testRenewedWhileHeld() throws Exception {
+        RedisLock lock = new RedisLock(redisTemplate, KEY, 1).withWatchdog(watchdog);
+        assertTrue(lock.getLock());
+        Thread.sleep(2500);
+        assertTrue(redisTemplate.hasKey(KEY));
+        assertTrue(lock.unLock());
+        assertFalse(redisTemplate.hasKey(KEY));
+    }
+
+    /**
+     * 脚本被清掉后续期遇到 NOSCRIPT, 重新加载又失败了, 这一批锁也要下一轮接着续期
+     */
+    @Test
+    public void testRenewalSurvivesFailedScriptReload() throws Exception {
+        RedisLock lock = new RedisLock(redisTemplate, KEY, 1).withWatchdog(watchdog);
+        assertTrue(lock.getLock());
+        failingLoads.set(1);
+        redisTemplate.execute((RedisCallback<Void>) connection -> {
+            connection.scriptFlush();
+            return null;
+        });
+        Thread.sleep(2500);
+        assertEquals(0, failingLoads.get());
+        assertTrue(redisTemplate.hasKey(KEY));
+        assertTrue(lock.unLock());
+    }
+
+}
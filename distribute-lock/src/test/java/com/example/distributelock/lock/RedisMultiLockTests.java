@@ -0,0 +1,96 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisMultiLockTests
+ * @description
+ * @date created in 2026-10-19 12:30
+ * @modified by
+ */
+public class RedisMultiLockTests {
+
+    private static final List<String> ITEMS = Arrays.asList("item:1", "item:2", "item:3");
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+    }
+
+    @Test
+    public void testLockAllAndUnlockAll() throws Exception {
+        try (RedisMultiLock lock = new RedisMultiLock(redisTemplate)) {
+            assertTrue(lock.tryLockAll(ITEMS, 10, TimeUnit.SECONDS));
+            for (String item : ITEMS) {
+                assertTrue(redisTemplate.hasKey(item));
+                assertFalse(new RedisLock(redisTemplate, item, 10).getLock());
+            }
+            assertEquals(ITEMS.size(), lock.unLockAll());
+            assertEquals(0, lock.unLockAll());
+        }
+        for (String item : ITEMS) {
+            assertFalse(redisTemplate.hasKey(item));
+        }
+    }
+
+    /**
+     * 有一个键被占用时一个都不锁
+     */
+    @Test
+    public void testAllOrNothing() {
+        RedisLock holder = new RedisLock(redisTemplate, ITEMS.get(1), 10);
+        assertTrue(holder.getLock());
+        RedisMultiLock lock = new RedisMultiLock(redisTemplate);
+        assertFalse(lock.tryLockAll(ITEMS, 10, TimeUnit.SECONDS));
+        assertFalse(redisTemplate.hasKey(ITEMS.get(0)));
+        assertFalse(redisTemplate.hasKey(ITEMS.get(2)));
+        assertEquals(0, lock.unLockAll());
+
+        assertTrue(holder.unLock());
+        assertTrue(lock.tryLockAll(ITEMS, 10, TimeUnit.SECONDS));
+        assertEquals(ITEMS.size(), lock.unLockAll());
+    }
+
+    /**
+     * 已经过期、被别人拿走的键不会被释放
+     */
+    @Test
+    public void testUnlockSkipsKeysNoLongerOwned() throws InterruptedException {
+        RedisMultiLock lock = new RedisMultiLock(redisTemplate);
+        assertTrue(lock.tryLockAll(ITEMS, 200, TimeUnit.MILLISECONDS));
+        Thread.sleep(300);
+        RedisLock other = new RedisLock(redisTemplate, ITEMS.get(0), 10);
+        assertTrue(other.getLock());
+
+        assertEquals(0, lock.unLockAll());
+        assertTrue(redisTemplate.hasKey(ITEMS.get(0)));
+        assertTrue(other.unLock());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testLockTwice() {
+        RedisMultiLock lock = new RedisMultiLock(redisTemplate);
+        assertTrue(lock.tryLockAll(ITEMS, 10, TimeUnit.SECONDS));
+        lock.tryLockAll(ITEMS, 10, TimeUnit.SECONDS);
+    }
+
+}
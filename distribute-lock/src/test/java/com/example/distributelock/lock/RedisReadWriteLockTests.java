@@ -0,0 +1,112 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisReadWriteLockTests
+ * @description
+ * @date created in 2026-10-19 09:40
+ * @modified by
+ */
+public class RedisReadWriteLockTests {
+
+    private static final String KEY = "stock";
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        subscriber = redis.subscriber();
+    }
+
+    /**
+     * 读者之间共享, 读者和写者、写者和写者互斥
+     */
+    @Test
+    public void testReadersShareWriterExcludes() throws InterruptedException {
+        RedisReadWriteLock.ReadLock reader1 = newLock().readLock();
+        RedisReadWriteLock.ReadLock reader2 = newLock().readLock();
+        RedisReadWriteLock.WriteLock writer = newLock().writeLock();
+        assertTrue(reader1.tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(reader2.tryLock(0, 10, TimeUnit.SECONDS));
+        assertFalse(writer.tryLock(0, 10, TimeUnit.SECONDS));
+
+        assertTrue(reader1.unLock());
+        assertFalse(writer.tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(reader2.unLock());
+        assertTrue(writer.tryLock(0, 10, TimeUnit.SECONDS));
+
+        assertFalse(reader1.tryLock(0, 10, TimeUnit.SECONDS));
+        assertFalse(newLock().writeLock().tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(writer.unLock());
+        assertTrue(reader1.tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(reader1.unLock());
+    }
+
+    /**
+     * 有写者在等待时新的读者不能进入, 最后一个读者离开后写者被唤醒
+     */
+    @Test
+    public void testWaitingWriterBlocksNewReaders() throws Exception {
+        RedisReadWriteLock.ReadLock reader = newLock().readLock();
+        assertTrue(reader.tryLock(0, 10, TimeUnit.SECONDS));
+
+        RedisReadWriteLock.WriteLock writer = newLock().writeLock();
+        CompletableFuture<Boolean> written = CompletableFuture.supplyAsync(() -> {
+            try {
+                return writer.tryLock(5, 10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!redisTemplate.hasKey(KEY + ":writer_waiting")) {
+            assertTrue("写者没有登记等待", System.nanoTime() < deadline);
+            Thread.sleep(10);
+        }
+        assertFalse(newLock().readLock().tryLock(0, 10, TimeUnit.SECONDS));
+
+        long released = System.nanoTime();
+        assertTrue(reader.unLock());
+        assertTrue(written.get(5, TimeUnit.SECONDS));
+        // 释放通知唤醒, 而不是等读者的租期到期
+        assertTrue(System.nanoTime() - released < TimeUnit.SECONDS.toNanos(2));
+        assertTrue(writer.unLock());
+    }
+
+    /**
+     * 挂掉的读者租期到期后不再挡住写者
+     */
+    @Test
+    public void testExpiredReaderIsPurged() throws InterruptedException {
+        assertTrue(newLock().readLock().tryLock(0, 200, TimeUnit.MILLISECONDS));
+        RedisReadWriteLock.WriteLock writer = newLock().writeLock();
+        assertFalse(writer.tryLock(0, 10, TimeUnit.SECONDS));
+        Thread.sleep(300);
+        assertTrue(writer.tryLock(0, 10, TimeUnit.SECONDS));
+        assertTrue(writer.unLock());
+    }
+
+    private RedisReadWriteLock newLock() {
+        return new RedisReadWriteLock(redisTemplate, subscriber, KEY, 10);
+    }
+
+}
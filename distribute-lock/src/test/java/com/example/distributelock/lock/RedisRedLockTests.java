@@ -0,0 +1,171 @@
+package com.example.distributelock.lock;
+
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisRedLockTests
+ * @description 用 3 个进程内的 redis 替身(jedis-mock)模拟 3 个独立节点
+ * @date created in 2026-10-18 20:10
+ * @modified by
+ */
+@Slf4j
+public class RedisRedLockTests {
+
+    private static final String KEY = "order";
+
+    @Rule
+    public final LocalRedis node1 = new LocalRedis();
+
+    @Rule
+    public final LocalRedis node2 = new LocalRedis();
+
+    @Rule
+    public final LocalRedis node3 = new LocalRedis();
+
+    /**
+     * 每次 SET 都要 1 秒的慢节点
+     */
+    @Rule
+    public final LocalRedis slow = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        if ("set".equalsIgnoreCase(name)) {
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return MockExecutor.proceed(state, name, params);
+    }));
+
+    /**
+     * 收到 SET 和 EVALSHA 后 10 秒才回复的节点
+     */
+    @Rule
+    public final LocalRedis hung = new LocalRedis(ServiceOptions.withInterceptor((state, name, params) -> {
+        if ("set".equalsIgnoreCase(name) || "evalsha".equalsIgnoreCase(name)) {
+            try {
+                Thread.sleep(10000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return MockExecutor.proceed(state, name, params);
+    }));
+
+    @Test
+    public void testQuorumLock() {
+        List<RedisTemplate> nodes = connect(node1, node2, node3);
+        RedisRedLock redLock = new RedisRedLock(nodes, KEY, 10);
+        assertTrue(redLock.getLock());
+        long validity = redLock.getValidityMillis();
+        log.info("锁的有效期：[{}ms]", validity);
+        assertTrue(validity > 0 && validity <= 10000);
+        nodes.forEach(node -> assertTrue(node.hasKey(KEY)));
+
+        RedisRedLock other = new RedisRedLock(nodes, KEY, 10);
+        assertFalse(other.getLock());
+
+        assertEquals(3, redLock.unLock());
+        assertEquals(0, redLock.getValidityMillis());
+        assertTrue(other.getLock());
+        other.unLock();
+    }
+
+    /**
+     * 少数节点不可用时仍然可以加锁
+     */
+    @Test
+    public void testMinorityNodeDown() throws IOException {
+        List<RedisTemplate> nodes = connect(node1, node2);
+        nodes.add(LocalRedis.template(node1.connect("127.0.0.1", unusedPort())));
+        RedisRedLock redLock = new RedisRedLock(nodes, KEY, 10).withNodeTimeout(1000, TimeUnit.MILLISECONDS);
+        assertTrue(redLock.getLock());
+        assertEquals(2, redLock.unLock());
+    }
+
+    /**
+     * 凑不够多数节点时, 已经加锁成功的节点也要释放
+     */
+    @Test
+    public void testMajorityHeldElsewhere() throws InterruptedException {
+        List<RedisTemplate> nodes = connect(node1, node2, node3);
+        RedisRedLock holder = new RedisRedLock(nodes.subList(1, 3), KEY, 10);
+        assertTrue(holder.getLock());
+
+        RedisRedLock redLock = new RedisRedLock(nodes, KEY, 10);
+        assertFalse(redLock.tryLock(300, 10000, TimeUnit.MILLISECONDS));
+        assertFalse(nodes.get(0).hasKey(KEY));
+        holder.unLock();
+    }
+
+    /**
+     * 加锁耗时取决于多数节点中最慢的那个, 不等最慢的节点
+     */
+    @Test
+    public void testSlowNodeOutsideQuorum() {
+        List<RedisTemplate> nodes = connect(node1, node2, slow);
+
+        RedisRedLock redLock = new RedisRedLock(nodes, KEY, 10).withNodeTimeout(500, TimeUnit.MILLISECONDS);
+        long start = System.nanoTime();
+        assertTrue(redLock.getLock());
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("加锁耗时：[{}ms]", elapsed);
+        assertTrue(elapsed < 500);
+        redLock.unLock();
+    }
+
+    /**
+     * 卡住的节点超时后被中断, 不会一直占着线程：
+     * 连续加锁的轮数超过线程上限, 每轮仍然按时凑够多数, 请求线程数不超过上限
+     */
+    @Test
+    public void testHungNodeDoesNotHoldThreads() {
+        List<RedisTemplate> nodes = connect(node1, node2, hung);
+        for (int i = 0; i < RedisRedLock.NODE_THREADS * 2; i++) {
+            RedisRedLock redLock = new RedisRedLock(nodes, KEY, 10).withNodeTimeout(200, TimeUnit.MILLISECONDS);
+            assertTrue(redLock.getLock());
+            assertEquals(2, redLock.unLock());
+        }
+        long threads = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> "redis-redlock".equals(thread.getName()))
+                .count();
+        log.info("节点请求线程数：[{}]", threads);
+        assertTrue(threads <= RedisRedLock.NODE_THREADS);
+    }
+
+    private List<RedisTemplate> connect(LocalRedis... servers) {
+        List<RedisTemplate> nodes = new ArrayList<>();
+        for (LocalRedis server : servers) {
+            RedisTemplate node = LocalRedis.template(server.connect());
+            // 先建立连接, 不把建连时间算进加锁耗时
+            node.hasKey(KEY);
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+
+}
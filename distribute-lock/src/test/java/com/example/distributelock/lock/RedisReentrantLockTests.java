@@ -0,0 +1,104 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisReentrantLockTests
+ * @description
+ * @date created in 2026-10-19 12:15
+ * @modified by
+ */
+public class RedisReentrantLockTests {
+
+    private static final String KEY = "order";
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        subscriber = redis.subscriber();
+    }
+
+    /**
+     * 重入只在本地计数, redis 中的计数一直是 1; 最外层释放才删除
+     */
+    @Test
+    public void testReentrantCount() {
+        RedisReentrantLock outer = newLock();
+        assertTrue(outer.getLock());
+        RedisReentrantLock inner = newLock();
+        assertTrue(inner.isHeldByCurrentThread());
+        assertTrue(inner.getLock());
+        assertTrue(inner.getLock());
+        Map<byte[], byte[]> holdCounts = holdCounts();
+        assertEquals(1, holdCounts.size());
+        assertEquals("1", new String(holdCounts.values().iterator().next(), StandardCharsets.UTF_8));
+
+        assertFalse(inner.unLock());
+        assertFalse(inner.unLock());
+        assertTrue(redisTemplate.hasKey(KEY));
+        assertTrue(outer.unLock());
+        assertFalse(redisTemplate.hasKey(KEY));
+        assertFalse(outer.isHeldByCurrentThread());
+        // 多释放一次不出错
+        assertFalse(outer.unLock());
+    }
+
+    /**
+     * 其他线程拿不到, 持有线程全部释放后被唤醒
+     */
+    @Test
+    public void testOtherThreadWaitsForOutermostRelease() throws Exception {
+        RedisReentrantLock outer = newLock();
+        assertTrue(outer.getLock());
+        assertTrue(newLock().getLock());
+        assertFalse(CompletableFuture.supplyAsync(() -> newLock().getLock()).get(2, TimeUnit.SECONDS));
+
+        RedisReentrantLock other = newLock();
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return other.tryLock(10, 10, TimeUnit.SECONDS) && other.unLock();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertFalse(newLock().unLock());
+        Thread.sleep(200);
+        assertFalse(acquired.isDone());
+
+        assertTrue(outer.unLock());
+        assertTrue(acquired.get(2, TimeUnit.SECONDS));
+    }
+
+    private Map<byte[], byte[]> holdCounts() {
+        byte[] rawKey = redisTemplate.getKeySerializer().serialize(KEY);
+        return (Map<byte[], byte[]>) redisTemplate.execute((RedisCallback<Map<byte[], byte[]>>) connection -> connection.hGetAll(rawKey));
+    }
+
+    private RedisReentrantLock newLock() {
+        return new RedisReentrantLock(redisTemplate, subscriber, KEY, 10);
+    }
+
+}
@@ -0,0 +1,120 @@
+package com.example.distributelock.lock;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisSemaphoreTests
+ * @description
+ * @date created in 2026-10-19 09:55
+ * @modified by
+ */
+public class RedisSemaphoreTests {
+
+    private static final String KEY = "sms";
+
+    private static final int PERMITS = 3;
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisTemplate redisTemplate;
+
+    private RedisLockSubscriber subscriber;
+
+    @Before
+    public void setUp() {
+        redisTemplate = redis.redisTemplate();
+        subscriber = redis.subscriber();
+    }
+
+    /**
+     * 最多 PERMITS 个持有者
+     */
+    @Test
+    public void testPermitCount() {
+        List<RedisSemaphore> holders = new ArrayList<>();
+        for (int i = 0; i < PERMITS; i++) {
+            RedisSemaphore semaphore = newSemaphore();
+            assertTrue(semaphore.getLock());
+            holders.add(semaphore);
+            assertEquals(PERMITS - i - 1, semaphore.availablePermits());
+        }
+        RedisSemaphore other = newSemaphore();
+        assertFalse(other.getLock());
+
+        assertTrue(holders.get(0).unLock());
+        assertEquals(1, other.availablePermits());
+        assertTrue(other.getLock());
+        assertFalse(holders.get(0).getLock());
+    }
+
+    /**
+     * 一次获取多个许可, 要么全部拿到, 要么一个都不拿
+     */
+    @Test
+    public void testBatchAllOrNothing() throws InterruptedException {
+        RedisSemaphore first = newSemaphore();
+        assertTrue(first.acquire(2, 0, 10, TimeUnit.SECONDS));
+        RedisSemaphore second = newSemaphore();
+        assertFalse(second.acquire(2, 0, 10, TimeUnit.SECONDS));
+        assertEquals(1, second.availablePermits());
+        assertTrue(second.acquire(1, 0, 10, TimeUnit.SECONDS));
+        assertTrue(first.unLock());
+        assertEquals(2, first.availablePermits());
+    }
+
+    /**
+     * 挂掉的持有者的许可到期后被回收
+     */
+    @Test
+    public void testExpiredPermitIsReclaimed() throws InterruptedException {
+        assertTrue(newSemaphore().acquire(PERMITS, 0, 200, TimeUnit.MILLISECONDS));
+        RedisSemaphore other = newSemaphore();
+        assertFalse(other.getLock());
+        Thread.sleep(300);
+        assertEquals(PERMITS, other.availablePermits());
+        assertTrue(other.getLock());
+    }
+
+    /**
+     * 等待者在许可归还时被唤醒
+     */
+    @Test
+    public void testWaiterWokenOnRelease() throws Exception {
+        RedisSemaphore holder = newSemaphore();
+        assertTrue(holder.acquire(PERMITS, 0, 10, TimeUnit.SECONDS));
+        RedisSemaphore waiter = newSemaphore();
+        CompletableFuture<Boolean> acquired = CompletableFuture.supplyAsync(() -> {
+            try {
+                return waiter.lock(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        Thread.sleep(200);
+        assertFalse(acquired.isDone());
+        assertTrue(holder.unLock());
+        assertTrue(acquired.get(2, TimeUnit.SECONDS));
+        assertTrue(waiter.unLock());
+    }
+
+    private RedisSemaphore newSemaphore() {
+        return new RedisSemaphore(redisTemplate, subscriber, KEY, PERMITS, 10);
+    }
+
+}
@@ -0,0 +1,218 @@
+package com.example.distributelock.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.Rule;
+import org.junit.Test;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName RedisTwoTierLockTests
+ * @description 一个进程内的 redis 替身(jedis-mock), 每个 RedisTemplate 模拟一个节点;
+ *              用 fencing token 计数器统计真正打到 redis 的加锁次数
+ * @date created in 2026-10-18 22:55
+ * @modified by
+ */
+@Slf4j
+public class RedisTwoTierLockTests {
+
+    private static final String KEY = "order";
+
+    private static final int THREADS = 50;
+
+    private static final int ROUNDS = 4;
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private final List<LettuceConnectionFactory> factories = new ArrayList<>();
+
+    /**
+     * 同一个节点上的线程排队交接, redis 加锁次数远小于加锁总次数
+     */
+    @Test
+    public void testLocalHandOff() throws Exception {
+        RedisTemplate node = template();
+        RedisLockSubscriber subscriber = subscriber();
+        int critical = contend(THREADS, () -> new RedisTwoTierLock(node, subscriber, KEY, 10));
+
+        long remoteAcquires = fencingCounter(node);
+        log.info("加锁 [{}] 次, redis 加锁 [{}] 次", critical, remoteAcquires);
+        assertEquals(THREADS * ROUNDS, critical);
+        assertTrue(remoteAcquires < THREADS);
+        assertFalse(node.hasKey(KEY));
+    }
+
+    /**
+     * 两个节点之间仍然互斥, 连续交接次数有上限, 两个节点都能拿到锁
+     */
+    @Test
+    public void testMutualExclusionAcrossNodes() throws Exception {
+        RedisTemplate first = template();
+        RedisTemplate second = template();
+        RedisLockSubscriber firstSubscriber = subscriber();
+        RedisLockSubscriber secondSubscriber = subscriber();
+        AtomicInteger sequence = new AtomicInteger();
+        int critical = contend(THREADS, () -> sequence.incrementAndGet() % 2 == 0
+                ? new RedisTwoTierLock(first, firstSubscriber, KEY, 10).withMaxLocalHandOffs(4)
+                : new RedisTwoTierLock(second, secondSubscriber, KEY, 10).withMaxLocalHandOffs(4));
+
+        assertEquals(THREADS * ROUNDS, critical);
+        assertTrue(fencingCounter(first) >= 2);
+        assertFalse(first.hasKey(KEY));
+    }
+
+    /**
+     * 不交接时与 RedisLock 一样, 每次都释放 redis 锁
+     */
+    @Test
+    public void testNoHandOff() throws Exception {
+        RedisTemplate node = template();
+        RedisTwoTierLock holder = new RedisTwoTierLock(node, KEY, 10).withMaxLocalHandOffs(0);
+        assertTrue(holder.getLock());
+        long token = holder.getFencingToken();
+        assertFalse(new RedisLock(node, KEY, 10).getLock());
+        assertTrue(holder.unLock());
+        assertFalse(node.hasKey(KEY));
+
+        assertTrue(holder.getLock());
+        assertTrue(holder.getFencingToken() > token);
+        holder.unLock();
+    }
+
+    /**
+     * 本地交接过来的持有者也拿到新的 fencing token, 依次进入临界区的持有者 token 严格递增
+     */
+    @Test
+    public void testHandOffIssuesNewToken() throws Exception {
+        RedisTemplate node = template();
+        RedisLockSubscriber subscriber = subscriber();
+        AtomicLong lastToken = new AtomicLong();
+        AtomicInteger stale = new AtomicInteger();
+        int critical = contend(THREADS, () -> new RedisTwoTierLock(node, subscriber, KEY, 10), lock -> {
+            long token = lock.getFencingToken();
+            // 同一次持有内多次取到的是同一个
+            if (token <= lastToken.getAndSet(token) || token != lock.getFencingToken()) {
+                stale.incrementAndGet();
+            }
+        });
+
+        assertEquals(THREADS * ROUNDS, critical);
+        assertEquals(0, stale.get());
+        assertEquals(THREADS * ROUNDS, fencingCounter(node));
+    }
+
+    /**
+     * 没有看门狗时, 交接过来的锁按接手者的租期续期, 不沿用上一个持有者剩下的租期
+     */
+    @Test
+    public void testHandOffExtendsLease() throws Exception {
+        RedisTemplate node = template();
+        RedisLockSubscriber subscriber = subscriber();
+        RedisTwoTierLock holder = new RedisTwoTierLock(node, subscriber, KEY, 10);
+        assertTrue(holder.tryLock(0, 1000, TimeUnit.MILLISECONDS));
+        RedisTwoTierLock receiver = new RedisTwoTierLock(node, subscriber, KEY, 10);
+        // 本地锁要由加锁的线程释放
+        ExecutorService receiverThread = Executors.newSingleThreadExecutor();
+        Future<Boolean> acquired = receiverThread.submit(() -> receiver.tryLock(5000, 10000, TimeUnit.MILLISECONDS));
+        Thread.sleep(200);
+        assertFalse(acquired.isDone());
+
+        assertTrue(holder.unLock());
+        assertTrue(acquired.get(2, TimeUnit.SECONDS));
+        // 本地交接, 没有重新去 redis 加锁
+        assertEquals(1, fencingCounter(node));
+        long ttl = node.getExpire(KEY, TimeUnit.MILLISECONDS);
+        log.info("交接后的租期：[{}ms]", ttl);
+        assertTrue(ttl > 1000);
+        assertTrue(receiverThread.submit(receiver::unLock).get(2, TimeUnit.SECONDS));
+        receiverThread.shutdown();
+        assertFalse(node.hasKey(KEY));
+    }
+
+    private int contend(int threads, LockFactory factory) throws InterruptedException {
+        return contend(threads, factory, lock -> {
+        });
+    }
+
+    /**
+     * 多个线程反复加锁, 检查同一时刻只有一个线程在临界区
+     *
+     * @param body 在临界区里执行
+     * @return 进入临界区的总次数
+     */
+    private int contend(int threads, LockFactory factory, Consumer<RedisTwoTierLock> body) throws InterruptedException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicInteger inside = new AtomicInteger();
+        AtomicInteger critical = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                try {
+                    for (int round = 0; round < ROUNDS; round++) {
+                        try (RedisTwoTierLock lock = factory.create()) {
+                            if (lock.lock(30, TimeUnit.SECONDS)) {
+                                if (inside.incrementAndGet() != 1) {
+                                    overlaps.incrementAndGet();
+                                }
+                                body.accept(lock);
+                                critical.incrementAndGet();
+                                inside.decrementAndGet();
+                            }
+                        }
+                    }
+                } catch (Exception e) {
+                    log.error("加锁失败", e);
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+        assertEquals(0, overlaps.get());
+        return critical.get();
+    }
+
+    private interface LockFactory {
+        RedisTwoTierLock create();
+    }
+
+    private long fencingCounter(RedisTemplate node) {
+        byte[] rawKey = node.getKeySerializer().serialize(KEY + ":fencing");
+        byte[] value = (byte[]) node.execute((RedisCallback<byte[]>) connection -> connection.get(rawKey));
+        return Long.parseLong(new String(value, StandardCharsets.UTF_8));
+    }
+
+    private RedisTemplate template() {
+        LettuceConnectionFactory factory = redis.connect();
+        factories.add(factory);
+        return LocalRedis.template(factory);
+    }
+
+    private RedisLockSubscriber subscriber() {
+        return new RedisLockSubscriber(factories.get(factories.size() - 1));
+    }
+
+}
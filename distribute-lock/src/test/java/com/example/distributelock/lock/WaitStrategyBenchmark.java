@@ -0,0 +1,148 @@
+package com.example.distributelock.lock;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.github.fppt.jedismock.RedisServer;
+import com.github.fppt.jedismock.operations.server.MockExecutor;
+import com.github.fppt.jedismock.server.ServiceOptions;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.lock
+ * @ClassName WaitStrategyBenchmark
+ * @description 各等待策略在 10、100、1000 个线程抢同一把锁时的 redis 请求数(ops/s)和加锁耗时 P99,
+ *              starved 为到结束都没抢到锁的线程数。
+ *              每个线程循环：tryLock -> 持有 1 毫秒 -> unLock -> 歇 20 毫秒; redis 是进程内的 jedis-mock, 在服务端统计命令数。
+ *              jedis-mock 比真实 redis 慢得多, 只看各策略之间的相对差异;
+ *              运行：直接运行 main, 参数为每轮的秒数(默认 10)和线程数(默认 10 100 1000)
+ * @date created in 2026-10-19 00:10
+ * @modified by
+ */
+public class WaitStrategyBenchmark {
+
+    private static final String KEY = "order";
+
+    private static final long HOLD_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private static final long THINK_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private static final AtomicLong COMMANDS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+        long seconds = args.length > 0 ? Long.parseLong(args[0]) : 10;
+        int[] threadCounts = args.length > 1
+                ? Arrays.stream(args, 1, args.length).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10, 100, 1000};
+
+        RedisServer server = RedisServer.newRedisServer()
+                .setOptions(ServiceOptions.withInterceptor((state, name, params) -> {
+                    COMMANDS.incrementAndGet();
+                    return MockExecutor.proceed(state, name, params);
+                }))
+                .start();
+        RedisTemplate redisTemplate = template(server);
+        RedisLockSubscriber subscriber = new RedisLockSubscriber(redisTemplate.getConnectionFactory());
+
+        Map<String, WaitStrategy> strategies = new LinkedHashMap<>();
+        strategies.put("fixed(10ms)", WaitStrategies.fixed(10, TimeUnit.MILLISECONDS));
+        strategies.put("decorrelatedJitter(5ms,500ms)", WaitStrategies.decorrelatedJitter(5, 500, TimeUnit.MILLISECONDS));
+        strategies.put("ttl", WaitStrategies.ttl());
+        strategies.put("notifyDriven", WaitStrategies.notifyDriven());
+
+        System.out.printf("%-32s %8s %12s %12s %16s %8s%n",
+                "strategy", "threads", "acquires/s", "redis ops/s", "acquire p99(ms)", "starved");
+        for (int threads : threadCounts) {
+            for (Map.Entry<String, WaitStrategy> strategy : strategies.entrySet()) {
+                run(redisTemplate, subscriber, strategy.getKey(), strategy.getValue(), threads, seconds);
+            }
+        }
+        // jedis-mock 不响应 PUNSUBSCRIBE, 订阅者和连接不单独关闭
+        System.exit(0);
+    }
+
+    private static void run(RedisTemplate redisTemplate, RedisLockSubscriber subscriber, String name,
+                            WaitStrategy strategy, int threads, long seconds) throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        long[][] latencies = new long[threads][];
+        int[] counts = new int[threads];
+        CountDownLatch done = new CountDownLatch(threads);
+        AtomicLong acquired = new AtomicLong();
+        AtomicLong starved = new AtomicLong();
+        long commandsBefore = COMMANDS.get();
+        for (int t = 0; t < threads; t++) {
+            int index = t;
+            Thread thread = new Thread(() -> {
+                long[] samples = new long[1024];
+                int count = 0;
+                try {
+                    while (System.nanoTime() < end) {
+                        RedisLock lock = new RedisLock(redisTemplate, subscriber, KEY, 10).withWaitStrategy(strategy);
+                        long start = System.nanoTime();
+                        boolean locked = lock.tryLock(end - start, TimeUnit.SECONDS.toNanos(10), TimeUnit.NANOSECONDS);
+                        // 到结束都没抢到的线程也计入耗时, 否则被饿死的线程不会出现在 P99 里
+                        if (count == samples.length) {
+                            samples = Arrays.copyOf(samples, count * 2);
+                        }
+                        samples[count++] = System.nanoTime() - start;
+                        if (!locked) {
+                            starved.incrementAndGet();
+                            break;
+                        }
+                        acquired.incrementAndGet();
+                        LockSupport.parkNanos(HOLD_NANOS);
+                        lock.unLock();
+                        // 释放后歇一会儿再抢, 否则刚释放的线程总能抢在被唤醒的等待者前面
+                        LockSupport.parkNanos(THINK_NANOS);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    latencies[index] = samples;
+                    counts[index] = count;
+                    done.countDown();
+                }
+            });
+            thread.setDaemon(true);
+            thread.start();
+        }
+        done.await();
+        long commands = COMMANDS.get() - commandsBefore;
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int t = 0; t < threads; t++) {
+            System.arraycopy(latencies[t], 0, all, offset, counts[t]);
+            offset += counts[t];
+        }
+        Arrays.sort(all);
+        double p99 = total == 0 ? Double.NaN : all[Math.min(total - 1, (int) Math.ceil(total * 0.99) - 1)] / 1e6;
+        System.out.printf("%-32s %8d %12.1f %12.1f %16.1f %8d%n", name, threads,
+                (double) acquired.get() / seconds, (double) commands / seconds, p99, starved.get());
+    }
+
+    private static RedisTemplate template(RedisServer server) {
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(server.getHost(), server.getBindPort()));
+        factory.afterPropertiesSet();
+        RedisTemplate redisTemplate = new RedisTemplate();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.afterPropertiesSet();
+        return redisTemplate;
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.example.distributelock.provider;
+
+import com.example.distributelock.lock.AdaptiveLeasePolicy;
+import com.example.distributelock.lock.LocalRedis;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockHandle;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributelock.provider
+ * @ClassName RedisLockProviderTests
+ * @description
+ * @date created in 2026-10-19 04:00
+ * @modified by
+ */
+public class RedisLockProviderTests {
+
+    @Rule
+    public final LocalRedis redis = new LocalRedis();
+
+    private RedisLockProvider provider;
+
+    @Before
+    public void setUp() {
+        provider = new RedisLockProvider(redis.redisTemplate(), redis.subscriber(), new AdaptiveLeasePolicy());
+    }
+
+    @Test
+    public void testTryLockAndRelease() throws InterruptedException {
+        DistributedLock lock = provider.getLock("order:1001");
+        LockHandle handle = lock.tryLock(0, 10, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertTrue(handle.getFencingToken() > 0);
+
+        // 只尝试一次, 以及等到超时都返回 null
+        assertNull(lock.tryLock(0, 10, TimeUnit.SECONDS));
+        long start = System.nanoTime();
+        assertNull(lock.tryLock(200, 10000, TimeUnit.MILLISECONDS));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertTrue(handle.release());
+        assertFalse(handle.release());
+        try (LockHandle next = lock.tryLock(1, 0, TimeUnit.SECONDS)) {
+            assertNotNull(next);
+            assertTrue(next.getFencingToken() > handle.getFencingToken());
+        }
+    }
+
+}
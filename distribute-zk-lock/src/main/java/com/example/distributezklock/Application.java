@@ -4,6 +4,7 @@ import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -25,9 +26,9 @@ public class Application {
     }
 
     @Bean(initMethod = "start", destroyMethod = "close")
-    public CuratorFramework getCuratorFramework() {
+    public CuratorFramework getCuratorFramework(@Value("${zookeeper.connect-string}") String connectString) {
         RetryPolicy retryPolicy = new ExponentialBackoffRetry(1000, 3);
-        CuratorFramework client = CuratorFrameworkFactory.newClient("192.168.8.240:2181", retryPolicy);
+        CuratorFramework client = CuratorFrameworkFactory.newClient(connectString, retryPolicy);
         return client;
     }
 
@@ -1,10 +1,12 @@
 package com.example.distributezklock.controller;
 
+import com.example.distributelockcore.LockMetrics;
 import com.example.distributezklock.lock.ZkLock;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.recipes.locks.InterProcessMutex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -23,13 +25,21 @@ import java.util.concurrent.TimeUnit;
 @RestController
 public class ZookeeperController {
 
+    /**
+     * 指标的 backend 标签
+     */
+    private static final String CURATOR_BACKEND = "curator";
+
     @Autowired
     private CuratorFramework curatorFramework;
 
+    @Value("${zookeeper.connect-string}")
+    private String connectString;
+
     @RequestMapping("zkLock")
     public String zookeeperLock() {
         log.info("进入方法");
-        try(ZkLock zkLock = new ZkLock()) {
+        try(ZkLock zkLock = new ZkLock(connectString)) {
             if (zkLock.getLock("order")) {
                 log.info("抢到锁了! ");
                 Thread.sleep(10000);
@@ -45,14 +55,19 @@ public class ZookeeperController {
     public String curatorLock() {
         log.info("进入方法");
         InterProcessMutex lock = new InterProcessMutex(curatorFramework, "/order");
+        LockMetrics.Sample sample = LockMetrics.global().startAcquire(CURATOR_BACKEND, "/order");
         try {
-            if (lock.acquire(30, TimeUnit.SECONDS)) {
+            boolean acquired = lock.acquire(30, TimeUnit.SECONDS);
+            sample.finish(acquired, true);
+            if (acquired) {
                 log.info("抢到锁了!!");
                 Thread.sleep(10000);
             }
         } catch (Exception e) {
+            sample.failed();
             e.printStackTrace();
         }finally {
+            sample.released();
             try {
                 lock.release();
                 log.info("释放了Curator锁！");
@@ -1,5 +1,6 @@
 package com.example.distributezklock.lock;
 
+import com.example.distributelockcore.LockMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.zookeeper.*;
 import org.apache.zookeeper.data.Stat;
@@ -7,6 +8,7 @@ import org.apache.zookeeper.data.Stat;
 import java.io.IOException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author eddie.lee
@@ -20,76 +22,135 @@ import java.util.List;
 @Slf4j
 public class ZkLock implements AutoCloseable, Watcher {
 
+    /**
+     * 指标的 backend 标签
+     */
+    public static final String BACKEND = "zookeeper";
+
     private ZooKeeper zookeeper;
 
     private String zNode;
 
+    private LockMetrics.Sample sample;
+
     public ZkLock() throws IOException {
+        this("192.168.8.240:2181");
+    }
+
+    public ZkLock(String connectString) throws IOException {
         super();
         this.zookeeper = new ZooKeeper(
-                "192.168.8.240:2181",
+                connectString,
                 60000,
                 this
         );
     }
 
     /**
+     * 一直等到抢到锁
+     *
      * @param businessCode 区分不同锁
      * @return
      */
     public boolean getLock(String businessCode) {
+        try {
+            return tryLock(businessCode, Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (KeeperException e) {
+            log.error("zookeeper 加锁失败：{}", businessCode, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("等待 zookeeper 锁时被中断：{}", businessCode);
+        }
+        return false;
+    }
+
+    /**
+     * 在 waitTime 内获取锁, 超时时删除自己的节点
+     *
+     * @param businessCode 区分不同锁
+     * @param waitTime     最长等待时间, <= 0 表示只尝试一次
+     */
+    public boolean tryLock(String businessCode, long waitTime, TimeUnit unit) throws KeeperException, InterruptedException {
+        sample = LockMetrics.global().startAcquire(BACKEND, businessCode);
+        long deadline = System.nanoTime() + unit.toNanos(waitTime);
         try {
             // 创建业务根节点
             Stat stat = zookeeper.exists("/" + businessCode, false);
             if (stat == null) {
-                zookeeper.create("/" + businessCode,
-                        businessCode.getBytes(),
-                        ZooDefs.Ids.OPEN_ACL_UNSAFE,
-                        CreateMode.PERSISTENT
-                );
+                try {
+                    zookeeper.create("/" + businessCode,
+                            businessCode.getBytes(),
+                            ZooDefs.Ids.OPEN_ACL_UNSAFE,
+                            CreateMode.PERSISTENT
+                    );
+                } catch (KeeperException.NodeExistsException e) {
+                    // 其他客户端同时创建了
+                }
             }
             // 创建瞬时有序节点 /order/order_00000001
             zNode = zookeeper.create("/" + businessCode + "/" + businessCode + "_", businessCode.getBytes(),
                     ZooDefs.Ids.OPEN_ACL_UNSAFE,
                     CreateMode.EPHEMERAL_SEQUENTIAL
             );
-            // 获取业务节点下所有子节点
-            List<String> childrenNodes = zookeeper.getChildren("/" + businessCode, false);
-            // 子节点升序队列
-            Collections.sort(childrenNodes);
-            // 获取序号最小的（第一个）子节点
-            String firstNode = childrenNodes.get(0);
-            // 如果创建的节点是第一个子节点, 则获得锁
-            if (zNode.endsWith(firstNode)) {
-                return true;
-            }
-            // 不是第一个子节点, 则监听前一个节点
-            String lastNode = firstNode;
-            for (String node : childrenNodes) {
-                if (zNode.endsWith(node)) {
-                    zookeeper.exists("/" + businessCode + "/" + lastNode, true);
+            String self = zNode.substring(zNode.lastIndexOf('/') + 1);
+            while (true) {
+                // 获取业务节点下所有子节点, 升序排列
+                List<String> childrenNodes = zookeeper.getChildren("/" + businessCode, false);
+                Collections.sort(childrenNodes);
+                int index = childrenNodes.indexOf(self);
+                if (index < 0) {
+                    // 会话过期, 临时节点已经被删除
+                    throw new KeeperException.NoNodeException(zNode);
+                }
+                // 如果创建的节点是第一个子节点, 则获得锁
+                if (index == 0) {
+                    sample.acquired();
+                    return true;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
                     break;
-                } else {
-                    lastNode = node;
+                }
+                // 不是第一个子节点, 则监听前一个节点; 前一个节点已经不在时重新检查
+                synchronized (this) {
+                    if (zookeeper.exists("/" + businessCode + "/" + childrenNodes.get(index - 1), true) != null) {
+                        // 等待线程
+                        TimeUnit.NANOSECONDS.timedWait(this, remaining);
+                    }
                 }
             }
-            //
-            synchronized (this) {
-                // 等待线程
-                wait();
-            }
+            zookeeper.delete(zNode, -1);
+            zNode = null;
+            sample.finish(false, waitTime > 0);
+            return false;
+        } finally {
+            // 出错时记为 fail, 已经记过结果的不会重复记
+            sample.failed();
+        }
+    }
 
-            return true;
-        } catch (KeeperException | InterruptedException e) {
-            e.printStackTrace();
+    /**
+     * 本次持有锁的 fencing token：有序节点的序号, 同一个业务节点下单调递增
+     *
+     * @return 未持有锁时为 -1
+     */
+    public long getFencingToken() {
+        if (zNode == null) {
+            return -1;
         }
-        return false;
+        return Long.parseLong(zNode.substring(zNode.lastIndexOf('_') + 1));
     }
 
     @Override
     public void close() throws Exception {
-        zookeeper.delete(zNode, -1);
+        if (zNode != null) {
+            zookeeper.delete(zNode, -1);
+            zNode = null;
+        }
         zookeeper.close();
+        if (sample != null) {
+            sample.released();
+        }
         log.info("释放锁了! ");
     }
 
@@ -0,0 +1,99 @@
+package com.example.distributezklock.provider;
+
+import com.example.distributelockcore.AbstractLockHandle;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockException;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockMetrics;
+import com.example.distributelockcore.LockProvider;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.recipes.locks.InterProcessMutex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributezklock.provider
+ * @ClassName CuratorLockProvider
+ * @description Curator InterProcessMutex 的 LockProvider 实现, 锁名对应节点 /锁名(已经以 / 开头的原样使用)。
+ *              InterProcessMutex 只允许加锁的线程释放, 凭证要在同一个线程上 release;
+ *              没有租期, 忽略 leaseTime, 进程挂掉后在会话超时后释放
+ * @date created in 2026-10-19 03:50
+ * @modified by
+ */
+@Component
+public class CuratorLockProvider implements LockProvider {
+
+    public static final String BACKEND = "curator";
+
+    private final CuratorFramework curatorFramework;
+
+    @Autowired
+    public CuratorLockProvider(CuratorFramework curatorFramework) {
+        this.curatorFramework = curatorFramework;
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        String path = name.startsWith("/") ? name : "/" + name;
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                InterProcessMutex mutex = new InterProcessMutex(curatorFramework, path);
+                LockMetrics.Sample sample = LockMetrics.global().startAcquire(BACKEND, path);
+                try {
+                    boolean acquired = mutex.acquire(Math.max(0, waitTime), unit);
+                    sample.finish(acquired, waitTime > 0);
+                    return acquired ? new Handle(name, mutex, sample) : null;
+                } catch (InterruptedException e) {
+                    throw e;
+                } catch (Exception e) {
+                    throw new LockException("curator 加锁失败：" + name, e);
+                } finally {
+                    sample.failed();
+                }
+            }
+        };
+    }
+
+    private static class Handle extends AbstractLockHandle {
+
+        private final InterProcessMutex mutex;
+
+        private final LockMetrics.Sample sample;
+
+        Handle(String name, InterProcessMutex mutex, LockMetrics.Sample sample) {
+            super(name, BACKEND, -1);
+            this.mutex = mutex;
+            this.sample = sample;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            sample.released();
+            try {
+                mutex.release();
+                return true;
+            } catch (IllegalMonitorStateException e) {
+                // 不是加锁的线程
+                throw e;
+            } catch (Exception e) {
+                throw new LockException("curator 释放锁失败：" + getName(), e);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.example.distributezklock.provider;
+
+import com.example.distributelockcore.AbstractLockHandle;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockException;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockProvider;
+import com.example.distributezklock.lock.ZkLock;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.zookeeper.KeeperException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.distributezklock.provider
+ * @ClassName ZkLockProvider
+ * @description {@link ZkLock} 的 LockProvider 实现：和 ZkLock 一样每次加锁建立一个新会话, release 时关闭。
+ *              临时节点随会话存在, 没有租期, 忽略 leaseTime, 进程挂掉后在会话超时后释放;
+ *              锁名会作为 zookeeper 路径的一段, 不能含有 /
+ * @date created in 2026-10-19 03:50
+ * @modified by
+ */
+@Slf4j
+@Component
+public class ZkLockProvider implements LockProvider {
+
+    private final String connectString;
+
+    @Autowired
+    public ZkLockProvider(@Value("${zookeeper.connect-string}") String connectString) {
+        this.connectString = connectString;
+    }
+
+    @Override
+    public String getBackend() {
+        return ZkLock.BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                ZkLock zkLock;
+                try {
+                    zkLock = new ZkLock(connectString);
+                } catch (IOException e) {
+                    throw new LockException("连接 zookeeper 失败：" + connectString, e);
+                }
+                boolean acquired = false;
+                try {
+                    acquired = zkLock.tryLock(name, waitTime, unit);
+                    return acquired ? new Handle(name, zkLock) : null;
+                } catch (KeeperException e) {
+                    throw new LockException("zookeeper 加锁失败：" + name, e);
+                } finally {
+                    if (!acquired) {
+                        closeQuietly(zkLock);
+                    }
+                }
+            }
+        };
+    }
+
+    private static boolean closeQuietly(ZkLock zkLock) {
+        try {
+            zkLock.close();
+            return true;
+        } catch (Exception e) {
+            log.warn("释放 zookeeper 锁失败", e);
+            return false;
+        }
+    }
+
+    private static class Handle extends AbstractLockHandle {
+
+        private final ZkLock zkLock;
+
+        Handle(String name, ZkLock zkLock) {
+            super(name, ZkLock.BACKEND, zkLock.getFencingToken());
+            this.zkLock = zkLock;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            return closeQuietly(zkLock);
+        }
+    }
+
+}
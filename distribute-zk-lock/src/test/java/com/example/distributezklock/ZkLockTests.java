@@ -1,19 +1,26 @@
 package com.example.distributezklock;
 
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockProvider;
 import com.example.distributezklock.lock.ZkLock;
 import lombok.extern.slf4j.Slf4j;
-import org.apache.curator.RetryPolicy;
 import org.apache.curator.framework.CuratorFramework;
-import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.framework.recipes.locks.InterProcessMutex;
-import org.apache.curator.retry.ExponentialBackoffRetry;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
 /**
  * @author eddie.lee
  * @ProjectName distributed-lock
@@ -26,8 +33,18 @@ import java.util.concurrent.TimeUnit;
 @Slf4j
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("local")
 public class ZkLockTests {
 
+    @Value("${zookeeper.connect-string}")
+    private String connectString;
+
+    @Autowired
+    private CuratorFramework client;
+
+    @Autowired
+    private List<LockProvider> providers;
+
     /**
      * 11:04:23  INFO 28344 --- [168.8.240:2181)] org.apache.zookeeper.ClientCnxn          : Session establishment complete on server 192.168.8.240/192.168.8.240:2181, session id = 0x101be5c5e960005, negotiated timeout = 40000
      * 11:04:23  INFO 28344 --- [           main] c.example.distributezklock.ZkLockTests   : 获得锁的结果：[true]
@@ -39,7 +56,7 @@ public class ZkLockTests {
      */
     @Test
     public void testZkLock() throws Exception {
-        ZkLock zkLock = new ZkLock();
+        ZkLock zkLock = new ZkLock(connectString);
         boolean b = zkLock.getLock("order");
         log.info("获得锁的结果：[{}]", b);
         zkLock.close();
@@ -47,9 +64,6 @@ public class ZkLockTests {
 
     @Test
     public void tesCurator() {
-        RetryPolicy retryPolicy = new ExponentialBackoffRetry(1000, 3);
-        CuratorFramework client = CuratorFrameworkFactory.newClient("192.168.8.240:2181", retryPolicy);
-        client.start();
         InterProcessMutex lock = new InterProcessMutex(client, "/order");
         try {
             // 超时时间
@@ -64,7 +78,22 @@ public class ZkLockTests {
         } catch (Exception e) {
             e.printStackTrace();
         }
-        client.close();
+    }
+
+    /**
+     * ZkLockProvider 注册成 bean, @DistributedLock(backend = "zookeeper") 才能找到它
+     */
+    @Test
+    public void testZkLockProviderBean() throws Exception {
+        LockProvider provider = providers.stream()
+                .filter(p -> ZkLock.BACKEND.equals(p.getBackend()))
+                .findFirst()
+                .orElse(null);
+        assertNotNull(provider);
+        LockHandle handle = provider.getLock("order").tryLock(5, -1, TimeUnit.SECONDS);
+        assertNotNull(handle);
+        assertEquals(ZkLock.BACKEND, handle.getBackend());
+        assertTrue(handle.release());
     }
 
 }
@@ -0,0 +1,158 @@
+package com.example.lockbenchmarks;
+
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockHandle;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.infra.ThreadParams;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockbenchmarks
+ * @ClassName LockBenchmark
+ * @description 各个锁后端加锁+释放一次的吞吐量和延迟, 都通过 LockProvider 调用：
+ *              uncontended 每个线程只用自己的锁, 只尝试一次; contended 所有线程从 keys 把锁里随机选一把, 最多等待 WAIT_MILLIS。
+ *              keys 为锁的个数(key 基数), keys=1 时所有线程抢同一把锁; 线程数由 LockBenchmarks 扫描
+ * @date created in 2026-10-19 04:30
+ * @modified by
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LockBenchmark {
+
+    /**
+     * 竞争时最多等待的毫秒数
+     */
+    static final long WAIT_MILLIS = 1000;
+
+    /**
+     * 租期, 远大于持有时间, 压测期间不会因租期到期而丢锁
+     */
+    static final long LEASE_MILLIS = 30000;
+
+    @Param({"redis", "redisson", "zookeeper", "curator", "mysql"})
+    private String backend;
+
+    @Param({"1", "16", "256"})
+    private int keys;
+
+    private LockFixture fixture;
+
+    /**
+     * 所有线程共用的锁
+     */
+    private DistributedLock[] shared;
+
+    /**
+     * 每个线程自己的锁, 按线程序号
+     */
+    private DistributedLock[][] owned;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkParams params) throws Exception {
+        int threads = params.getThreads();
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < keys; i++) {
+            names.add("bench:" + i);
+        }
+        for (int thread = 0; thread < threads; thread++) {
+            for (int i = 0; i < keys; i++) {
+                names.add("bench:t" + thread + ":" + i);
+            }
+        }
+        fixture = LockFixture.open(backend, names);
+
+        shared = new DistributedLock[keys];
+        owned = new DistributedLock[threads][keys];
+        for (int i = 0; i < keys; i++) {
+            shared[i] = fixture.getProvider().getLock(names.get(i));
+        }
+        for (int thread = 0; thread < threads; thread++) {
+            for (int i = 0; i < keys; i++) {
+                owned[thread][i] = fixture.getProvider().getLock(names.get(keys + thread * keys + i));
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fixture.close();
+    }
+
+    @Benchmark
+    public boolean uncontended(Worker worker) throws InterruptedException {
+        return worker.acquireAndRelease(worker.nextOwned(), 0);
+    }
+
+    @Benchmark
+    public boolean contended(Worker worker) throws InterruptedException {
+        return worker.acquireAndRelease(shared[worker.random.nextInt(keys)], WAIT_MILLIS);
+    }
+
+    /**
+     * 每个线程的状态; 没有抢到锁(等待超时)的次数作为辅助计数 failures 输出
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Worker {
+
+        public long failures;
+
+        private DistributedLock[] owned;
+
+        private int next;
+
+        private Random random;
+
+        @Setup(Level.Trial)
+        public void setUp(LockBenchmark benchmark, ThreadParams params) {
+            owned = benchmark.owned[params.getThreadIndex()];
+            random = new Random(params.getThreadIndex());
+        }
+
+        @Setup(Level.Iteration)
+        public void resetCounters() {
+            failures = 0;
+        }
+
+        DistributedLock nextOwned() {
+            DistributedLock lock = owned[next];
+            next = next + 1 == owned.length ? 0 : next + 1;
+            return lock;
+        }
+
+        boolean acquireAndRelease(DistributedLock lock, long waitMillis) throws InterruptedException {
+            try (LockHandle handle = lock.tryLock(waitMillis, LEASE_MILLIS, TimeUnit.MILLISECONDS)) {
+                if (handle == null) {
+                    failures++;
+                    return false;
+                }
+                return true;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.lockbenchmarks;
+
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.util.Statistics;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockbenchmarks
+ * @ClassName LockBenchmarks
+ * @description benchmarks.jar 的入口：对每个线程数跑一遍 JMH(JMH 的线程数不能作为 @Param),
+ *              最后按 场景、锁个数、线程数 汇总各个后端的吞吐量和延迟分位数, 方便横向比较。
+ *              java -Dthreads=1,4,16 -jar lock-benchmarks/target/benchmarks.jar [JMH 参数, 如 -p backend=redis,mysql -p keys=1]
+ * @date created in 2026-10-19 04:40
+ * @modified by
+ */
+public class LockBenchmarks {
+
+    private static final String DEFAULT_THREADS = "1,4,16";
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        List<RunResult> results = new ArrayList<>();
+        for (String threads : System.getProperty("threads", DEFAULT_THREADS).split(",")) {
+            OptionsBuilder builder = new OptionsBuilder();
+            if (options.getIncludes().isEmpty()) {
+                builder.include(LockBenchmark.class.getSimpleName());
+            }
+            builder.parent(options).threads(Integer.parseInt(threads.trim()));
+            results.addAll(new Runner(builder.build()).run());
+        }
+        summary(results);
+    }
+
+    private static void summary(List<RunResult> results) {
+        results.sort(Comparator.comparing((RunResult r) -> r.getParams().getBenchmark())
+                .thenComparingInt(r -> Integer.parseInt(r.getParams().getParam("keys")))
+                .thenComparingInt(r -> r.getParams().getThreads())
+                .thenComparing(r -> r.getParams().getMode()));
+        System.out.println();
+        System.out.printf("%-12s %5s %7s %-10s %-10s %12s %10s %10s %10s %10s%n",
+                "benchmark", "keys", "threads", "backend", "unit", "score", "p50", "p99", "p99.9", "failures");
+        for (RunResult result : results) {
+            Result primary = result.getPrimaryResult();
+            Statistics statistics = primary.getStatistics();
+            String benchmark = result.getParams().getBenchmark();
+            boolean sample = "sample".equals(result.getParams().getMode().shortLabel());
+            Result failures = result.getSecondaryResults().get("failures");
+            System.out.printf("%-12s %5s %7d %-10s %-10s %12.3f %10s %10s %10s %10s%n",
+                    benchmark.substring(benchmark.lastIndexOf('.') + 1),
+                    result.getParams().getParam("keys"),
+                    result.getParams().getThreads(),
+                    result.getParams().getParam("backend"),
+                    primary.getScoreUnit(),
+                    primary.getScore(),
+                    sample ? format(statistics.getPercentile(50)) : "",
+                    sample ? format(statistics.getPercentile(99)) : "",
+                    sample ? format(statistics.getPercentile(99.9)) : "",
+                    failures != null ? format(failures.getScore()) : "");
+        }
+    }
+
+    private static String format(double value) {
+        return String.format("%.3f", value);
+    }
+
+}
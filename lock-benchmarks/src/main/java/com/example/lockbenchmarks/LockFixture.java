@@ -0,0 +1,206 @@
+package com.example.lockbenchmarks;
+
+import com.example.distributelock.lock.AdaptiveLeasePolicy;
+import com.example.distributelock.lock.RedisLock;
+import com.example.distributelock.lock.RedisLockSubscriber;
+import com.example.distributelock.provider.MysqlLockProvider;
+import com.example.distributelock.provider.RedisLockProvider;
+import com.example.distributelockcore.LockProvider;
+import com.example.distributezklock.lock.ZkLock;
+import com.example.distributezklock.provider.CuratorLockProvider;
+import com.example.distributezklock.provider.ZkLockProvider;
+import com.example.redissonlock.provider.RedissonLockProvider;
+import com.github.fppt.jedismock.RedisServer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.CuratorFrameworkFactory;
+import org.apache.curator.retry.ExponentialBackoffRetry;
+import org.apache.curator.test.TestingServer;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.RedisTemplate;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockbenchmarks
+ * @ClassName LockFixture
+ * @description 压测用的锁后端及其依赖的服务。默认启动进程内的替身：redis 用 jedis-mock, zookeeper 用 curator 的 TestingServer,
+ *              mysql 用 H2 的 MySQL 模式; 设置了 bench.redis(host:port)、bench.zookeeper(连接串)、
+ *              bench.mysql.url/username/password 时改连真实的服务。
+ *              替身的单次操作耗时和真实服务不同, 结果用来比较客户端和协议的开销以及竞争下的行为, 选型前用真实服务复测
+ * @date created in 2026-10-19 04:30
+ * @modified by
+ */
+@Slf4j
+public class LockFixture implements AutoCloseable {
+
+    private static final String H2_URL = "jdbc:h2:mem:lock_benchmarks;MODE=MySQL;DB_CLOSE_DELAY=-1";
+
+    /**
+     * 与 distribute_lock 表一致, 只在 H2 上创建
+     */
+    private static final String CREATE_TABLE = "CREATE TABLE IF NOT EXISTS distribute_lock ("
+            + "id INT NOT NULL AUTO_INCREMENT PRIMARY KEY, "
+            + "business_code VARCHAR(255) NOT NULL UNIQUE, "
+            + "business_name VARCHAR(255))";
+
+    private static final String INSERT_LOCK = "INSERT INTO distribute_lock (business_code, business_name) "
+            + "SELECT ?, ? FROM DUAL WHERE NOT EXISTS (SELECT 1 FROM distribute_lock WHERE business_code = ?)";
+
+    /**
+     * 按创建的逆序关闭
+     */
+    private final Deque<AutoCloseable> resources = new ArrayDeque<>();
+
+    private LockProvider provider;
+
+    private LockFixture() {
+    }
+
+    /**
+     * 启动后端
+     *
+     * @param backend 后端名称, 与 LockProvider.getBackend 一致
+     * @param names   会用到的锁名, mysql 需要事先插入对应的行
+     */
+    public static LockFixture open(String backend, Collection<String> names) throws Exception {
+        LockFixture fixture = new LockFixture();
+        try {
+            switch (backend) {
+                case RedisLock.BACKEND:
+                    fixture.provider = fixture.redis();
+                    break;
+                case RedissonLockProvider.BACKEND:
+                    fixture.provider = fixture.redisson();
+                    break;
+                case ZkLock.BACKEND:
+                    fixture.provider = new ZkLockProvider(fixture.zookeeperAddress());
+                    break;
+                case CuratorLockProvider.BACKEND:
+                    fixture.provider = fixture.curator();
+                    break;
+                case MysqlLockProvider.BACKEND:
+                    fixture.provider = fixture.mysql(names);
+                    break;
+                default:
+                    throw new IllegalArgumentException("没有这个锁后端：" + backend);
+            }
+            return fixture;
+        } catch (Exception e) {
+            fixture.close();
+            throw e;
+        }
+    }
+
+    public LockProvider getProvider() {
+        return provider;
+    }
+
+    private LockProvider redis() throws IOException {
+        String[] address = redisAddress().split(":");
+        // 这里的 Lettuce 是 6.x, 默认先发 RESP3 的 HELLO, jedis-mock 不支持; 固定为 RESP2, 与 distribute-lock 的 Lettuce 5.1 一致
+        LettuceClientConfiguration clientConfiguration = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        LettuceConnectionFactory factory = new LettuceConnectionFactory(
+                new RedisStandaloneConfiguration(address[0], Integer.parseInt(address[1])), clientConfiguration);
+        factory.afterPropertiesSet();
+        // jedis-mock 不响应 PUNSUBSCRIBE, 订阅者不单独关闭, 随连接一起断开
+        resources.push(factory::destroy);
+        RedisTemplate redisTemplate = new RedisTemplate();
+        redisTemplate.setConnectionFactory(factory);
+        redisTemplate.afterPropertiesSet();
+        return new RedisLockProvider(redisTemplate, new RedisLockSubscriber(factory), new AdaptiveLeasePolicy());
+    }
+
+    private LockProvider redisson() throws IOException {
+        Config config = new Config();
+        config.useSingleServer().setAddress("redis://" + redisAddress());
+        RedissonClient redisson = Redisson.create(config);
+        resources.push(redisson::shutdown);
+        return new RedissonLockProvider(redisson);
+    }
+
+    private LockProvider curator() throws Exception {
+        CuratorFramework client = CuratorFrameworkFactory.newClient(zookeeperAddress(), new ExponentialBackoffRetry(1000, 3));
+        client.start();
+        resources.push(client::close);
+        return new CuratorLockProvider(client);
+    }
+
+    private LockProvider mysql(Collection<String> names) throws SQLException {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl(System.getProperty("bench.mysql.url", H2_URL));
+        dataSource.setUsername(System.getProperty("bench.mysql.username", "sa"));
+        dataSource.setPassword(System.getProperty("bench.mysql.password", ""));
+        // 持有锁和等待锁都要占用一个连接
+        dataSource.setMaximumPoolSize(64);
+        resources.push(dataSource::close);
+        try (Connection connection = dataSource.getConnection()) {
+            if (dataSource.getJdbcUrl().startsWith("jdbc:h2:")) {
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute(CREATE_TABLE);
+                }
+            }
+            try (PreparedStatement statement = connection.prepareStatement(INSERT_LOCK)) {
+                for (String name : names) {
+                    statement.setString(1, name);
+                    statement.setString(2, name);
+                    statement.setString(3, name);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        }
+        return new MysqlLockProvider(dataSource);
+    }
+
+    private String redisAddress() throws IOException {
+        String address = System.getProperty("bench.redis");
+        if (address != null) {
+            return address;
+        }
+        RedisServer server = RedisServer.newRedisServer().start();
+        resources.push(server::stop);
+        return server.getHost() + ":" + server.getBindPort();
+    }
+
+    private String zookeeperAddress() throws Exception {
+        String address = System.getProperty("bench.zookeeper");
+        if (address != null) {
+            return address;
+        }
+        TestingServer server = new TestingServer(true);
+        resources.push(server);
+        return server.getConnectString();
+    }
+
+    @Override
+    public void close() {
+        while (!resources.isEmpty()) {
+            try {
+                resources.pop().close();
+            } catch (Exception e) {
+                log.warn("关闭压测后端失败", e);
+            }
+        }
+    }
+
+}
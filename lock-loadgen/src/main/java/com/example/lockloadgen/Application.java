@@ -0,0 +1,23 @@
+package com.example.lockloadgen;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName Application
+ * @description 锁接口的压测工具, 跑完所有接口后退出：
+ *              java -jar lock-loadgen/target/lock-loadgen-0.0.1-SNAPSHOT.jar --load.include=redisLock --load.rates=1,2,5
+ * @date created in 2026-10-19 05:00
+ * @modified by
+ */
+@SpringBootApplication
+public class Application {
+
+    public static void main(String[] args) {
+        SpringApplication.run(Application.class, args);
+    }
+
+}
@@ -0,0 +1,121 @@
+package com.example.lockloadgen;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName LoadProperties
+ * @description 压测配置：load.endpoints.<名称> 接口地址, load.rates 依次压测的目标速率(每秒请求数),
+ *              每个速率先预热 warmup 再统计 duration; load.include 只压测其中几个接口, 为空时全部压测
+ * @date created in 2026-10-19 05:00
+ * @modified by
+ */
+@ConfigurationProperties(prefix = "load")
+public class LoadProperties {
+
+    private Map<String, String> endpoints = new LinkedHashMap<>();
+
+    private List<String> include = new ArrayList<>();
+
+    private List<Double> rates = new ArrayList<>(Arrays.asList(1.0, 2.0, 5.0, 10.0, 20.0, 50.0, 100.0));
+
+    private Duration warmup = Duration.ofSeconds(5);
+
+    private Duration duration = Duration.ofSeconds(30);
+
+    /**
+     * 单个请求的超时时间, 超时记为错误
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * 实际吞吐量低于目标速率的这个比例时认为已经饱和, 不再压测更高的速率
+     */
+    private double saturation = 0.9;
+
+    private int maxConnections = 1000;
+
+    private String outputDir = "loadgen-results";
+
+    public Map<String, String> getEndpoints() {
+        return endpoints;
+    }
+
+    public void setEndpoints(Map<String, String> endpoints) {
+        this.endpoints = endpoints;
+    }
+
+    public List<String> getInclude() {
+        return include;
+    }
+
+    public void setInclude(List<String> include) {
+        this.include = include;
+    }
+
+    public List<Double> getRates() {
+        return rates;
+    }
+
+    public void setRates(List<Double> rates) {
+        this.rates = rates;
+    }
+
+    public Duration getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(Duration warmup) {
+        this.warmup = warmup;
+    }
+
+    public Duration getDuration() {
+        return duration;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = duration;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public double getSaturation() {
+        return saturation;
+    }
+
+    public void setSaturation(double saturation) {
+        this.saturation = saturation;
+    }
+
+    public int getMaxConnections() {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(int maxConnections) {
+        this.maxConnections = maxConnections;
+    }
+
+    public String getOutputDir() {
+        return outputDir;
+    }
+
+    public void setOutputDir(String outputDir) {
+        this.outputDir = outputDir;
+    }
+
+}
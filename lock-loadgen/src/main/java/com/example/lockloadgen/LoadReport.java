@@ -0,0 +1,91 @@
+package com.example.lockloadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName LoadReport
+ * @description 一个接口的压测结果文件：
+ *              <接口>-<速率>rps.hgrm 每个速率的延迟分位数谱(HdrHistogram 的标准格式, 单位毫秒, 可以直接用 HdrHistogram 的 plotter 画图);
+ *              <接口>-throughput-latency.csv 每个速率一行, 目标速率、实际吞吐量和各分位数, 画出来就是吞吐量-延迟曲线,
+ *              实际吞吐量跟不上目标速率或 P99 陡增的位置就是饱和点
+ * @date created in 2026-10-19 05:00
+ * @modified by
+ */
+public class LoadReport {
+
+    private static final String CSV_HEADER = "target_rps,achieved_rps,sent,ok,errors,p50_ms,p90_ms,p99_ms,p99.9_ms,max_ms";
+
+    /**
+     * 直方图的单位是微秒, 输出为毫秒
+     */
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Path dir;
+
+    private final String endpoint;
+
+    private final Path curve;
+
+    public LoadReport(Path dir, String endpoint) {
+        this.dir = dir;
+        this.endpoint = endpoint;
+        this.curve = dir.resolve(endpoint + "-throughput-latency.csv");
+        try {
+            Files.createDirectories(dir);
+            Files.write(curve, (CSV_HEADER + "\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 写入一个速率的结果
+     */
+    public void write(OpenLoadGenerator.Result result) {
+        Histogram latency = result.getLatency();
+        Path spectrum = dir.resolve(endpoint + "-" + format(result.getTargetRate()) + "rps.hgrm");
+        try (PrintStream out = new PrintStream(Files.newOutputStream(spectrum), false, "UTF-8")) {
+            latency.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String row = String.format(Locale.ROOT, "%s,%.3f,%d,%d,%d,%.3f,%.3f,%.3f,%.3f,%.3f%n",
+                format(result.getTargetRate()), result.getAchievedRate(), result.getSent(), result.getOk(), result.getErrors(),
+                millis(latency, 50), millis(latency, 90), millis(latency, 99), millis(latency, 99.9),
+                latency.getMaxValue() / MICROS_PER_MILLI);
+        try {
+            Files.write(curve, row.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    public Path getCurve() {
+        return curve;
+    }
+
+    static double millis(Histogram histogram, double percentile) {
+        return histogram.getValueAtPercentile(percentile) / MICROS_PER_MILLI;
+    }
+
+    /**
+     * 速率去掉多余的小数位, 用于文件名
+     */
+    static String format(double rate) {
+        return BigDecimal.valueOf(rate).stripTrailingZeros().toPlainString();
+    }
+
+}
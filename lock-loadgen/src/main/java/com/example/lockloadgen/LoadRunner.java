@@ -0,0 +1,74 @@
+package com.example.lockloadgen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName LoadRunner
+ * @description 依次压测每个接口：速率从低到高, 实际吞吐量低于目标速率 × saturation 时认为已经饱和, 跳过更高的速率
+ * @date created in 2026-10-19 05:00
+ * @modified by
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(LoadProperties.class)
+public class LoadRunner implements CommandLineRunner {
+
+    @Autowired
+    private LoadProperties properties;
+
+    @Override
+    public void run(String... args) throws Exception {
+        int timeoutMillis = (int) properties.getTimeout().toMillis();
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(timeoutMillis)
+                .setConnectionRequestTimeout(timeoutMillis)
+                .setSocketTimeout(timeoutMillis)
+                .build();
+        Path dir = Paths.get(properties.getOutputDir());
+        try (CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setDefaultRequestConfig(requestConfig)
+                .setMaxConnTotal(properties.getMaxConnections())
+                .setMaxConnPerRoute(properties.getMaxConnections())
+                .build()) {
+            client.start();
+            OpenLoadGenerator generator = new OpenLoadGenerator(client);
+            for (Map.Entry<String, String> endpoint : properties.getEndpoints().entrySet()) {
+                if (!properties.getInclude().isEmpty() && !properties.getInclude().contains(endpoint.getKey())) {
+                    continue;
+                }
+                LoadReport report = new LoadReport(dir, endpoint.getKey());
+                for (double rate : properties.getRates()) {
+                    log.info("压测 {} {}, 目标 {} 次/秒", endpoint.getKey(), endpoint.getValue(), LoadReport.format(rate));
+                    OpenLoadGenerator.Result result = generator.run(URI.create(endpoint.getValue()), rate,
+                            properties.getWarmup(), properties.getDuration(), properties.getTimeout());
+                    report.write(result);
+                    log.info("实际 {} 次/秒, 错误 {}, P50 {}ms, P99 {}ms, 最大 {}ms",
+                            String.format("%.2f", result.getAchievedRate()), result.getErrors(),
+                            LoadReport.millis(result.getLatency(), 50), LoadReport.millis(result.getLatency(), 99),
+                            LoadReport.millis(result.getLatency(), 100));
+                    if (result.getAchievedRate() < rate * properties.getSaturation()) {
+                        log.info("{} 在 {} 次/秒时饱和", endpoint.getKey(), LoadReport.format(rate));
+                        break;
+                    }
+                }
+                log.info("{} 的吞吐量-延迟曲线：{}", endpoint.getKey(), report.getCurve().toAbsolutePath());
+            }
+        }
+    }
+
+}
@@ -0,0 +1,231 @@
+package com.example.lockloadgen;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.nio.client.HttpAsyncClient;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName OpenLoadGenerator
+ * @description 开放模型的压测：按固定速率排好每个请求的发送时间, 到点就异步发出, 不等前面的请求返回。
+ *              延迟从"计划发送时间"算到响应返回, 而不是从实际发出算起：服务端卡住、连接池排队、压测线程自己落后时,
+ *              本该发出却被耽误的请求都按真实等待时间计入(coordinated omission 校正), 不会像闭环压测那样
+ *              因为少发请求而低估尾延迟。预热期间发出的请求不计入统计; 统计结束后最多再等 timeout 让未返回的请求完成,
+ *              仍未返回的请求计为错误, 延迟按等到结束时的时长计入, 最慢的那部分请求不会从直方图里消失
+ * @date created in 2026-10-19 05:00
+ * @modified by
+ */
+public class OpenLoadGenerator {
+
+    /**
+     * 3 位有效数字(误差 0.1%), 单位微秒, 自动扩容
+     */
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final HttpAsyncClient client;
+
+    public OpenLoadGenerator(HttpAsyncClient client) {
+        this.client = client;
+    }
+
+    /**
+     * 以 rate 次/秒压测 uri
+     */
+    public Result run(URI uri, double rate, Duration warmup, Duration duration, Duration timeout) throws InterruptedException {
+        if (rate <= 0) {
+            throw new IllegalArgumentException("目标速率必须大于 0：" + rate);
+        }
+        AtomicLong outstanding = new AtomicLong();
+        long start = System.nanoTime();
+        long measureStart = start + warmup.toNanos();
+        Result result = new Result(rate, duration, measureStart);
+        long end = measureStart + duration.toNanos();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        for (long i = 0; ; i++) {
+            long intended = start + (long) (i * intervalNanos);
+            if (intended - end >= 0) {
+                break;
+            }
+            long delay;
+            while ((delay = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(delay);
+            }
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+            long sequence = intended - measureStart >= 0 ? result.sent(intended) : -1;
+            outstanding.incrementAndGet();
+            client.execute(new HttpGet(uri), new FutureCallback<HttpResponse>() {
+                @Override
+                public void completed(HttpResponse response) {
+                    done(response.getStatusLine().getStatusCode() < 400);
+                }
+
+                @Override
+                public void failed(Exception e) {
+                    done(false);
+                }
+
+                @Override
+                public void cancelled() {
+                    done(false);
+                }
+
+                private void done(boolean ok) {
+                    if (sequence >= 0) {
+                        result.record(sequence, ok);
+                    }
+                    outstanding.decrementAndGet();
+                }
+            });
+        }
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (outstanding.get() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        result.close();
+        return result;
+    }
+
+    /**
+     * 一个速率的压测结果
+     */
+    public static class Result {
+
+        private final double targetRate;
+
+        private final Duration duration;
+
+        /**
+         * 延迟(微秒), 从计划发送时间算起
+         */
+        private final Histogram latency = new ConcurrentHistogram(SIGNIFICANT_DIGITS);
+
+        private final AtomicLong ok = new AtomicLong();
+
+        private final AtomicLong errors = new AtomicLong();
+
+        private final long measureStart;
+
+        /**
+         * 最后一个统计中的请求返回的时间
+         */
+        private final AtomicLong lastCompletion = new AtomicLong(Long.MIN_VALUE);
+
+        /**
+         * 只由发送线程修改
+         */
+        private long sent;
+
+        /**
+         * 已发出、还没返回的统计中请求：序号 -> 计划发送时间。
+         * record 和 close 谁先从这里移除一个请求, 谁就记录它, 同一个请求不会既算返回又算未返回
+         */
+        private final Map<Long, Long> pending = new ConcurrentHashMap<>();
+
+        /**
+         * 已经移除、还没记录完的 record 个数, close 等它们记录完再返回
+         */
+        private final AtomicInteger recording = new AtomicInteger();
+
+        /**
+         * 等待结束后仍未返回的请求数, 计入错误
+         */
+        private long unfinished;
+
+        Result(double targetRate, Duration duration, long measureStart) {
+            this.targetRate = targetRate;
+            this.duration = duration;
+            this.measureStart = measureStart;
+        }
+
+        /**
+         * 发出一个统计中的请求
+         *
+         * @return 请求序号
+         */
+        long sent(long intendedNanos) {
+            long sequence = sent++;
+            pending.put(sequence, intendedNanos);
+            return sequence;
+        }
+
+        void record(long sequence, boolean success) {
+            recording.incrementAndGet();
+            try {
+                Long intendedNanos = pending.remove(sequence);
+                if (intendedNanos == null) {
+                    // 已经按未返回记录
+                    return;
+                }
+                long now = System.nanoTime();
+                latency.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(now - intendedNanos)));
+                lastCompletion.accumulateAndGet(now, Math::max);
+                (success ? ok : errors).incrementAndGet();
+            } finally {
+                recording.decrementAndGet();
+            }
+        }
+
+        /**
+         * 停止统计：仍未返回的请求按到现在的等待时间计入延迟
+         */
+        void close() {
+            long now = System.nanoTime();
+            for (Long sequence : pending.keySet()) {
+                Long intendedNanos = pending.remove(sequence);
+                if (intendedNanos != null) {
+                    latency.recordValue(Math.max(0, TimeUnit.NANOSECONDS.toMicros(now - intendedNanos)));
+                    unfinished++;
+                }
+            }
+            while (recording.get() > 0) {
+                Thread.yield();
+            }
+        }
+
+        public double getTargetRate() {
+            return targetRate;
+        }
+
+        /**
+         * 实际吞吐量：统计期间发出的请求中成功的个数 / 从统计开始到最后一个请求返回的时长(至少为统计时长)。
+         * 饱和时请求越积越多, 统计结束后还要很久才能处理完, 实际吞吐量低于目标速率
+         */
+        public double getAchievedRate() {
+            long elapsed = Math.max(duration.toNanos(), lastCompletion.get() - measureStart);
+            return ok.get() / (elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+        }
+
+        public Histogram getLatency() {
+            return latency;
+        }
+
+        public long getSent() {
+            return sent;
+        }
+
+        public long getOk() {
+            return ok.get();
+        }
+
+        public long getErrors() {
+            return errors.get() + unfinished;
+        }
+    }
+
+}
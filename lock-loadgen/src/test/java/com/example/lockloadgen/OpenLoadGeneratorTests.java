@@ -0,0 +1,135 @@
+package com.example.lockloadgen;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.lockloadgen
+ * @ClassName OpenLoadGeneratorTests
+ * @description 用 JDK 自带的 HttpServer 模拟接口, 单线程处理请求, 相当于所有请求抢同一把锁
+ * @date created in 2026-10-19 05:10
+ * @modified by
+ */
+public class OpenLoadGeneratorTests {
+
+    private final AtomicInteger requests = new AtomicInteger();
+
+    private HttpServer server;
+
+    private CloseableHttpAsyncClient client;
+
+    /**
+     * 第 stallAt 个请求卡住 stallMillis, 其余请求耗时 serviceMillis
+     */
+    private volatile int stallAt = -1;
+
+    private volatile long stallMillis;
+
+    private volatile long serviceMillis;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/lock", exchange -> {
+            try {
+                Thread.sleep(requests.incrementAndGet() == stallAt ? stallMillis : serviceMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "success".getBytes();
+            exchange.sendResponseHeaders(200, body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.setExecutor(Executors.newSingleThreadExecutor());
+        server.start();
+        client = HttpAsyncClients.custom().setMaxConnTotal(100).setMaxConnPerRoute(100).build();
+        client.start();
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    /**
+     * 接口卡住 1 秒期间计划发出的请求都要按实际等待计入延迟, 尾延迟接近 1 秒, 而不是只有卡住的那一个请求慢
+     */
+    @Test
+    public void testStallIsChargedToEveryScheduledRequest() throws Exception {
+        stallAt = 20;
+        stallMillis = 1000;
+        OpenLoadGenerator.Result result = new OpenLoadGenerator(client)
+                .run(uri(), 100, Duration.ZERO, Duration.ofSeconds(2), Duration.ofSeconds(5));
+
+        assertEquals(200, result.getSent());
+        assertEquals(200, result.getOk());
+        assertEquals(0, result.getErrors());
+        // 卡住期间计划发出约 100 个请求, 延迟从接近 1 秒到 0 均匀分布, 占全部请求的一半
+        assertTrue(String.valueOf(LoadReport.millis(result.getLatency(), 99)), LoadReport.millis(result.getLatency(), 99) > 900);
+        assertTrue(String.valueOf(LoadReport.millis(result.getLatency(), 75)), LoadReport.millis(result.getLatency(), 75) > 400);
+        assertTrue(String.valueOf(LoadReport.millis(result.getLatency(), 25)), LoadReport.millis(result.getLatency(), 25) < 100);
+    }
+
+    /**
+     * 每个请求 50 毫秒, 最多 20 次/秒; 目标 40 次/秒时实际吞吐量跟不上, 延迟一直增长
+     */
+    @Test
+    public void testSaturation() throws Exception {
+        serviceMillis = 50;
+        OpenLoadGenerator.Result result = new OpenLoadGenerator(client)
+                .run(uri(), 40, Duration.ZERO, Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        assertEquals(40, result.getSent());
+        assertEquals(40, result.getOk());
+        assertTrue(String.valueOf(result.getAchievedRate()), result.getAchievedRate() > 15 && result.getAchievedRate() < 25);
+        // 最后一个请求排在 39 个请求之后, 计划在 975 毫秒发出, 约 2 秒后才完成
+        assertTrue(String.valueOf(LoadReport.millis(result.getLatency(), 100)),
+                LoadReport.millis(result.getLatency(), 100) > 900);
+    }
+
+    /**
+     * 等到超时仍未返回的请求计为错误, 延迟按等到结束时计入; 结束后才返回的请求不再改动结果
+     */
+    @Test
+    public void testUnfinishedRequestsAreCharged() throws Exception {
+        serviceMillis = 200;
+        OpenLoadGenerator.Result result = new OpenLoadGenerator(client)
+                .run(uri(), 20, Duration.ZERO, Duration.ofSeconds(1), Duration.ofMillis(500));
+
+        long ok = result.getOk();
+        assertEquals(20, result.getSent());
+        assertTrue(String.valueOf(ok), ok > 0 && ok < 20);
+        assertEquals(20, ok + result.getErrors());
+        assertEquals(20, result.getLatency().getTotalCount());
+        // 最早的未返回请求计划在第 1 秒之前发出, 到结束时已经等了 500 毫秒以上
+        assertTrue(String.valueOf(LoadReport.millis(result.getLatency(), 100)),
+                LoadReport.millis(result.getLatency(), 100) > 1000);
+
+        Thread.sleep(1000);
+        assertEquals(ok, result.getOk());
+        assertEquals(20, result.getLatency().getTotalCount());
+    }
+
+    private URI uri() {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/lock");
+    }
+
+}
@@ -1,5 +1,6 @@
 package com.example.redissonlock.controller;
 
+import com.example.distributelockcore.LockMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.Redisson;
 import org.redisson.api.RLock;
@@ -24,6 +25,11 @@ import java.util.concurrent.TimeUnit;
 @RestController
 public class RedissonLockController {
 
+    /**
+     * 指标的 backend 标签
+     */
+    private static final String BACKEND = "redisson";
+
     @Autowired
     private RedissonClient redisson;
 
@@ -32,14 +38,22 @@ public class RedissonLockController {
         // 字符串用于区分业务
         RLock rLock = redisson.getLock("order");
         log.info("进入方法！");
+        LockMetrics.Sample sample = LockMetrics.global().startAcquire(BACKEND, "order");
         // 设置锁过期时间, 时间超过30秒, 就会自动释放锁
-        rLock.lock(30, TimeUnit.SECONDS);
+        try {
+            rLock.lock(30, TimeUnit.SECONDS);
+        } catch (RuntimeException e) {
+            sample.failed();
+            throw e;
+        }
+        sample.acquired();
         log.info("抢到锁了!");
         try {
             Thread.sleep(10000);
         } catch (InterruptedException e) {
             e.printStackTrace();
         } finally {
+            sample.released();
             rLock.unlock();
             log.info("释放了RedissonLock锁！");
         }
@@ -0,0 +1,99 @@
+package com.example.redissonlock.provider;
+
+import com.example.distributelockcore.AbstractLockHandle;
+import com.example.distributelockcore.DistributedLock;
+import com.example.distributelockcore.LockException;
+import com.example.distributelockcore.LockHandle;
+import com.example.distributelockcore.LockMetrics;
+import com.example.distributelockcore.LockProvider;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author eddie.lee
+ * @ProjectName distributed-lock
+ * @Package com.example.redissonlock.provider
+ * @ClassName RedissonLockProvider
+ * @description Redisson RLock 的 LockProvider 实现：leaseTime <= 0 时由 Redisson 的看门狗续期。
+ *              RLock 按线程记录持有者, 这里记下加锁线程的 id 释放, 凭证可以在其他线程上 release
+ * @date created in 2026-10-19 03:50
+ * @modified by
+ */
+@Component
+public class RedissonLockProvider implements LockProvider {
+
+    public static final String BACKEND = "redisson";
+
+    private final RedissonClient redisson;
+
+    @Autowired
+    public RedissonLockProvider(RedissonClient redisson) {
+        this.redisson = redisson;
+    }
+
+    @Override
+    public String getBackend() {
+        return BACKEND;
+    }
+
+    @Override
+    public DistributedLock getLock(String name) {
+        return new DistributedLock() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public LockHandle tryLock(long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+                RLock rLock = redisson.getLock(name);
+                LockMetrics.Sample sample = LockMetrics.global().startAcquire(BACKEND, name);
+                try {
+                    boolean acquired = rLock.tryLock(Math.max(0, waitTime), leaseTime > 0 ? leaseTime : -1, unit);
+                    sample.finish(acquired, waitTime > 0);
+                    return acquired ? new Handle(name, rLock, Thread.currentThread().getId(), sample) : null;
+                } catch (RedisException e) {
+                    throw new LockException("redisson 加锁失败：" + name, e);
+                } finally {
+                    sample.failed();
+                }
+            }
+        };
+    }
+
+    private static class Handle extends AbstractLockHandle {
+
+        private final RLock rLock;
+
+        private final long threadId;
+
+        private final LockMetrics.Sample sample;
+
+        Handle(String name, RLock rLock, long threadId, LockMetrics.Sample sample) {
+            super(name, BACKEND, -1);
+            this.rLock = rLock;
+            this.threadId = threadId;
+            this.sample = sample;
+        }
+
+        @Override
+        protected boolean doRelease() {
+            sample.released();
+            try {
+                rLock.unlockAsync(threadId).syncUninterruptibly();
+                return true;
+            } catch (IllegalMonitorStateException e) {
+                // 租期已过, 锁已经不属于自己
+                return false;
+            } catch (RedisException e) {
+                throw new LockException("redisson 释放锁失败：" + getName(), e);
+            }
+        }
+    }
+
+}
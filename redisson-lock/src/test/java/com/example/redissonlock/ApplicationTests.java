@@ -3,11 +3,11 @@ package com.example.redissonlock;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Test;
 import org.junit.runner.RunWith;
-import org.redisson.Redisson;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
-import org.redisson.config.Config;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.junit4.SpringRunner;
 
 import java.util.concurrent.TimeUnit;
@@ -24,20 +24,18 @@ import java.util.concurrent.TimeUnit;
  */
 @RunWith(SpringRunner.class)
 @SpringBootTest
+@ActiveProfiles("local")
 @Slf4j
 public class ApplicationTests {
 
+    @Autowired
+    private RedissonClient redisson;
+
     /**
      * java api
      */
     @Test
     public void testRedissonLock() {
-        // 1. Create config object
-        Config config = new Config();
-        // 2. 如果集群、哨兵模式 useClusterServers
-        config.useSingleServer().setAddress("redis://192.168.8.100:6379");
-        // Sync and Async API
-        RedissonClient redisson = Redisson.create(config);
         // 字符串用于区分业务
         RLock rLock = redisson.getLock("order");
         // 设置锁过期时间, 时间超过30秒, 就会自动释放锁